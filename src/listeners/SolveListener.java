@@ -0,0 +1,61 @@
+package listeners;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.SwingWorker;
+
+import main_components.Board;
+import main_components.Controller;
+import main_components.View;
+
+/**
+ * \brief
+ * Enables a Player to find out who wins the current Board with perfect play. \n
+ * The solve can take several seconds, so it runs on a SwingWorker thread, and the View keeps responding meanwhile.
+ * @author Rodney Shaghoulian
+ */
+public class SolveListener extends MouseAdapter {
+	public Controller controller;	///< The Controller in the MVC structure
+	
+	/**
+	 * Constructor: Saves the Controller information
+	 * @param controller	The Controller in the MVC structure
+	 */
+	public SolveListener(Controller controller){
+		this.controller = controller;
+	}
+	
+	/**
+	 * Solves a copy of the Board for a win, loss or draw in the background, and shows the result when it is done
+	 * @param event		the corresponding MouseEvent
+	 */
+	public void mouseClicked(MouseEvent event){
+		final View view = controller.view;
+		if (!view.solveButton.isEnabled())
+			return; // a solve is already running
+		final Board board = new Board(controller.board);
+		view.solveButton.setEnabled(false);
+		view.solveText.setText("Solving...");
+		new SwingWorker<String, Void>(){
+			@Override
+			protected String doInBackground(){
+				return controller.solveWinLossDraw(board);
+			}
+			
+			@Override
+			protected void done(){
+				view.solveButton.setEnabled(true);
+				if (controller.board.hashKey != board.hashKey)
+					return; // a move was made while solving, so the result is for an old Board
+				try{
+					view.solveText.setText(get());
+				}
+				catch (InterruptedException | ExecutionException exception){
+					view.solveText.setText("Solve failed");
+				}
+			}
+		}.execute();
+	}
+}
@@ -0,0 +1,410 @@
+package main_components;
+
+import java.awt.Point;
+
+/**
+ * \brief
+ * Static helpers for 8x8 Boards stored as 2 longs (1 for BLACK Disks, 1 for WHITE Disks). \n
+ * Square (x, y) corresponds to bit (y * 8 + x), so bit 0 is Point(0, 0) and bit 63 is Point(7, 7).
+ * @author Rodney Shaghoulian
+ */
+public class BitBoard {
+	public static final int SIZE = 8;									///< Number of rows (and columns) of a BitBoard
+	public static final int SQUARES = 64;								///< Number of squares on a BitBoard
+
+	public static final long CORNERS = 0x8100000000000081L;				///< The 4 corners
+	public static final long X_SQUARES = 0x0042000000004200L;			///< The 4 squares diagonally adjacent to corners
+	public static final long C_SQUARES = 0x4281000000008142L;			///< The 8 squares orthogonally adjacent to corners
+
+	public static final long FILE_A = 0x0101010101010101L;				///< The column where x == 0
+	public static final long FILE_H = 0x8080808080808080L;				///< The column where x == 7
+
+	/** Bit shift for each of the 8 directions. Positive shifts move towards bit 63. */
+	public static final int[] DIRECTION_SHIFT = {1, -1, 8, -8, 9, 7, -7, -9};
+	/** Squares that can be reached by a shift in each direction without wrapping around the Board */
+	public static final long[] DIRECTION_MASK = {~FILE_A, ~FILE_H, -1L, -1L, ~FILE_A, ~FILE_H, ~FILE_A, ~FILE_H};
+
+	/** A shared Point for each square, so valid moves can be listed without creating Points. These must never be modified. */
+	public static final Point[] POINTS = new Point[SQUARES];
+	static {
+		for (int square = 0; square < SQUARES; square++)
+			POINTS[square] = point(square);
+	}
+
+	/** For each row of 8 squares (player's Disks * 256 + opponent's Disks): the player's Disks that no move on the row can flip */
+	private static final byte[] EDGE_STABLE = new byte[256 * 256];
+	/** The 15 diagonals (x - y constant) and the 15 anti-diagonals (x + y constant) */
+	private static final long[] DIAGONALS = new long[30];
+	/** Each row of 8 squares (bit y) as the squares (0, y) of column 0 */
+	private static final long[] ROW_TO_COLUMN = new long[256];
+	static {
+		for (int row = 0; row < 256; row++)
+			for (int y = 0; y < SIZE; y++)
+				if ((row & (1 << y)) != 0)
+					ROW_TO_COLUMN[row] |= 1L << (y * SIZE);
+		/* A row with e empty squares only becomes rows with fewer empty squares, so rows are done from full to empty */
+		for (int empties = 0; empties <= SIZE; empties++){
+			for (int player = 0; player < 256; player++){
+				for (int opponent = 0; opponent < 256; opponent++){
+					if ((player & opponent) == 0 && SIZE - Integer.bitCount(player | opponent) == empties)
+						EDGE_STABLE[player * 256 + opponent] = (byte) edgeStable(player, opponent);
+				}
+			}
+		}
+		for (int square = 0; square < SQUARES; square++){
+			DIAGONALS[square % SIZE - square / SIZE + SIZE - 1] |= 1L << square;
+			DIAGONALS[15 + square % SIZE + square / SIZE] |= 1L << square;
+		}
+	}
+
+	private static final int[] CORNER_SQUARE = {0, 7, 56, 63};			///< Squares of the 4 corners
+	private static final long[] CORNER_X = {1L << 9, 1L << 14, 1L << 49, 1L << 54};	///< X square next to each corner
+	private static final long[] CORNER_C = {(1L << 1) | (1L << 8), (1L << 6) | (1L << 15),
+											(1L << 48) | (1L << 57), (1L << 55) | (1L << 62)}; ///< C squares next to each corner
+
+	/**
+	 * Converts a position to a square index
+	 * @param pos	The position on the Board
+	 * @return		The square index (0 to 63)
+	 */
+	public static int square(Point pos){
+		return pos.y * SIZE + pos.x;
+	}
+
+	/**
+	 * Converts a position to a single-bit mask
+	 * @param pos	The position on the Board
+	 * @return		A long with only the bit for this position set
+	 */
+	public static long mask(Point pos){
+		return 1L << square(pos);
+	}
+
+	/**
+	 * Converts a square index to a position
+	 * @param square	The square index (0 to 63)
+	 * @return			The corresponding position on the Board
+	 */
+	public static Point point(int square){
+		return new Point(square % SIZE, square / SIZE);
+	}
+
+	/**
+	 * Shifts every Disk of a bitboard by the same amount
+	 * @param disks		The bitboard to shift
+	 * @param shift		The shift. Positive shifts move towards bit 63.
+	 * @return			The shifted bitboard (without any masking)
+	 */
+	public static long shift(long disks, int shift){
+		return (shift > 0) ? (disks << shift) : (disks >>> -shift);
+	}
+	
+	/**
+	 * Calculates all valid moves for a player at once, using a Kogge-Stone fill in each of the 8 directions.
+	 * @param player	The Disks of the player who is moving
+	 * @param opponent	The Disks of the opponent
+	 * @return			A bitboard of every empty square that captures at least 1 opponent Disk
+	 */
+	public static long validMoves(long player, long opponent){
+		long empty = ~(player | opponent);
+		long moves = 0;
+		for (int dir = 0; dir < DIRECTION_SHIFT.length; dir++){
+			int shift = DIRECTION_SHIFT[dir];
+			long propagate = opponent & DIRECTION_MASK[dir];
+			
+			/* Grow runs of opponent Disks that start next to our Disks: 1, 2, 4, then 8 squares long */
+			long generate = propagate & shift(player, shift);
+			generate |= propagate & shift(generate, shift);
+			propagate &= shift(propagate, shift);
+			generate |= propagate & shift(generate, 2 * shift);
+			propagate &= shift(propagate, 2 * shift);
+			generate |= propagate & shift(generate, 4 * shift);
+			
+			/* A move is the empty square right after a run */
+			moves |= shift(generate, shift) & DIRECTION_MASK[dir] & empty;
+		}
+		return moves;
+	}
+
+	/**
+	 * Calculates the opponent Disks captured by a move in 1 direction, walking the direction only once.
+	 * @param player	The Disks of the player who is moving
+	 * @param opponent	The Disks of the opponent
+	 * @param square	The square the new Disk is placed on
+	 * @param dir		The direction, as an index into DIRECTION_SHIFT
+	 * @return			A bitboard of the captured Disks (0 if none)
+	 */
+	public static long flipsInDirection(long player, long opponent, int square, int dir){
+		int shift = DIRECTION_SHIFT[dir];
+		long mask = DIRECTION_MASK[dir];
+		long run = 0;
+		long next = shift(1L << square, shift) & mask;
+		while ((next & opponent) != 0){
+			run |= next;
+			next = shift(next, shift) & mask;
+		}
+		return ((next & player) != 0) ? run : 0;
+	}
+	
+	/**
+	 * Calculates all opponent Disks captured by a move. Does not create any objects.
+	 * @param player	The Disks of the player who is moving
+	 * @param opponent	The Disks of the opponent
+	 * @param square	The square the new Disk is placed on
+	 * @return			A bitboard of the captured Disks (0 if the move is not valid)
+	 */
+	public static long flips(long player, long opponent, int square){
+		long flips = 0;
+		for (int dir = 0; dir < DIRECTION_SHIFT.length; dir++)
+			flips |= flipsInDirection(player, opponent, square, dir);
+		return flips;
+	}
+	
+	/**
+	 * Gets the direction index for an x and y direction
+	 * @param xDirection	the x Direction (-1, 0, 1).
+	 * @param yDirection	the y Direction (-1, 0, 1).
+	 * @return				The index into DIRECTION_SHIFT, or -1 for (0, 0)
+	 */
+	public static int direction(int xDirection, int yDirection){
+		int shift = yDirection * SIZE + xDirection;
+		for (int dir = 0; dir < DIRECTION_SHIFT.length; dir++){
+			if (DIRECTION_SHIFT[dir] == shift)
+				return dir;
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the 'X squares' of a bitboard that are not next to an occupied corner
+	 * @param disks		The Disks of 1 Color
+	 * @param empty		The empty squares of the Board
+	 * @return			The mask of lone 'X squares' owned
+	 */
+	public static long badXSquares(long disks, long empty){
+		long bad = 0;
+		for (int i = 0; i < CORNER_SQUARE.length; i++){
+			if ((empty & (1L << CORNER_SQUARE[i])) != 0)
+				bad |= CORNER_X[i];
+		}
+		return disks & bad;
+	}
+
+	/**
+	 * Gets the 'C squares' of a bitboard that are not next to an occupied corner
+	 * @param disks		The Disks of 1 Color
+	 * @param empty		The empty squares of the Board
+	 * @return			The mask of lone 'C squares' owned
+	 */
+	public static long badCSquares(long disks, long empty){
+		long bad = 0;
+		for (int i = 0; i < CORNER_SQUARE.length; i++){
+			if ((empty & (1L << CORNER_SQUARE[i])) != 0)
+				bad |= CORNER_C[i];
+		}
+		return disks & bad;
+	}
+
+	/**
+	 * Transforms a bitboard by 1 of the 8 symmetries of the Board
+	 * @param disks		The bitboard
+	 * @param symmetry	0 to 7. Bit 2 swaps rows and columns, then bit 0 mirrors the columns, then bit 1 mirrors the rows.
+	 * @return			The transformed bitboard
+	 */
+	public static long transform(long disks, int symmetry){
+		if ((symmetry & 4) != 0){
+			long t = 0x0F0F0F0F00000000L & (disks ^ (disks << 28));
+			disks ^= t ^ (t >>> 28);
+			t = 0x3333000033330000L & (disks ^ (disks << 14));
+			disks ^= t ^ (t >>> 14);
+			t = 0x5500550055005500L & (disks ^ (disks << 7));
+			disks ^= t ^ (t >>> 7);
+		}
+		if ((symmetry & 1) != 0){
+			disks = ((disks >>> 1) & 0x5555555555555555L) | ((disks & 0x5555555555555555L) << 1);
+			disks = ((disks >>> 2) & 0x3333333333333333L) | ((disks & 0x3333333333333333L) << 2);
+			disks = ((disks >>> 4) & 0x0F0F0F0F0F0F0F0FL) | ((disks & 0x0F0F0F0F0F0F0F0FL) << 4);
+		}
+		if ((symmetry & 2) != 0)
+			disks = Long.reverseBytes(disks);
+		return disks;
+	}
+
+	/**
+	 * Transforms a square by 1 of the 8 symmetries of the Board
+	 * @param square	The square (0 to 63)
+	 * @param symmetry	0 to 7, as in transform()
+	 * @return			The square it is moved to
+	 */
+	public static int transformSquare(int square, int symmetry){
+		return Long.numberOfTrailingZeros(transform(1L << square, symmetry));
+	}
+
+	/**
+	 * Gets the symmetry that undoes another
+	 * @param symmetry	0 to 7, as in transform()
+	 * @return			The symmetry that moves every square back
+	 */
+	public static int inverse(int symmetry){
+		if ((symmetry & 4) == 0)
+			return symmetry; // mirrors undo themselves
+		return 4 | ((symmetry & 1) << 1) | ((symmetry & 2) >> 1);
+	}
+
+	/**
+	 * Finds the symmetry that gives a position its "canonical" form: the smallest (player, opponent) of the 8 symmetries. \n
+	 * Positions that are symmetries of each other have the same canonical form.
+	 * @param player	The Disks of the player to move
+	 * @param opponent	The Disks of the opponent
+	 * @return			The symmetry (0 to 7, as in transform()) to the canonical form
+	 */
+	public static int canonicalSymmetry(long player, long opponent){
+		int best = 0;
+		long bestPlayer = player;
+		long bestOpponent = opponent;
+		for (int symmetry = 1; symmetry < 8; symmetry++){
+			long p = transform(player, symmetry);
+			if (p > bestPlayer)
+				continue;
+			long o = transform(opponent, symmetry);
+			if (p < bestPlayer || o < bestOpponent){
+				best = symmetry;
+				bestPlayer = p;
+				bestOpponent = o;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the symmetries that leave a position unchanged, such as the 4 of the starting position
+	 * @param player	The Disks of 1 player
+	 * @param opponent	The Disks of the other player
+	 * @return			A mask with bit s set for each symmetry s (0 to 7, as in transform()) that maps the position onto itself.
+	 * 					Bit 0 (no change) is always set.
+	 */
+	public static int symmetries(long player, long opponent){
+		int mask = 1;
+		for (int symmetry = 1; symmetry < 8; symmetry++){
+			if (transform(player, symmetry) == player && transform(opponent, symmetry) == opponent)
+				mask |= 1 << symmetry;
+		}
+		return mask;
+	}
+
+	/**
+	 * Finds a player's stable Disks on a row of 8 squares, from the rows with fewer empty squares already in EDGE_STABLE. \n
+	 * Any empty square may be filled by either player, since a move on an edge can be made along another line.
+	 * @param player	The player's Disks on the row (bit x for square x)
+	 * @param opponent	The opponent's Disks on the row
+	 * @return			The player's Disks that stay the player's whatever is played on the row
+	 */
+	private static int edgeStable(int player, int opponent){
+		int stable = player;
+		int empty = ~(player | opponent) & 0xFF;
+		for (int x = 0; x < SIZE && stable != 0; x++){
+			if ((empty & (1 << x)) == 0)
+				continue;
+			int flips = edgeFlips(player, opponent, x);
+			stable &= EDGE_STABLE[(player | flips | (1 << x)) * 256 + (opponent & ~flips)];
+			flips = edgeFlips(opponent, player, x);
+			stable &= EDGE_STABLE[(player & ~flips) * 256 + (opponent | flips | (1 << x))];
+		}
+		return stable;
+	}
+
+	/**
+	 * Finds the Disks flipped on a row of 8 squares
+	 * @param mover		The Disks of the player filling the square
+	 * @param other		The Disks of the other player
+	 * @param x			The square filled
+	 * @return			The other player's Disks flipped
+	 */
+	private static int edgeFlips(int mover, int other, int x){
+		int flips = 0;
+		for (int direction = -1; direction <= 1; direction += 2){
+			int line = 0;
+			int y = x + direction;
+			for (; y >= 0 && y < SIZE && (other & (1 << y)) != 0; y += direction)
+				line |= 1 << y;
+			if (y >= 0 && y < SIZE && (mover & (1 << y)) != 0)
+				flips |= line;
+		}
+		return flips;
+	}
+
+	/**
+	 * Gets the 8 squares of column 0 as a row (bit y for square (0, y))
+	 * @param disks		The bitboard
+	 * @return			The column, from 0 to 255
+	 */
+	private static int columnToRow(long disks){
+		return (int) (((disks & FILE_A) * 0x0102040810204080L) >>> 56);
+	}
+
+	/**
+	 * Finds the squares whose lines are full in 1 direction
+	 * @param filled	The squares with a Disk
+	 * @param axis		0 for rows, 1 for columns, 2 for diagonals, 3 for anti-diagonals
+	 * @return			The squares of the full lines in that direction
+	 */
+	private static long fullLines(long filled, int axis){
+		long full = 0;
+		if (axis == 0){
+			for (int y = 0; y < SIZE; y++){
+				long row = 0xFFL << (y * SIZE);
+				if ((filled & row) == row)
+					full |= row;
+			}
+		}
+		else if (axis == 1){
+			long columns = filled & (filled >>> 32);
+			columns &= columns >>> 16;
+			columns &= columns >>> 8;
+			full = (columns & 0xFF) * FILE_A;
+		}
+		else {
+			for (int i = (axis - 2) * 15; i < (axis - 1) * 15; i++){
+				if ((filled & DIAGONALS[i]) == DIAGONALS[i])
+					full |= DIAGONALS[i];
+			}
+		}
+		return full;
+	}
+
+	/**
+	 * Finds a player's stable Disks: Disks that can never be flipped, whatever is played. \n
+	 * Edge Disks are found exactly by a table of every edge. A Disk inside the edges is stable if, in each of the 4 directions,
+	 * its line is full or it is next to a stable Disk of the same player. Stable Disks make more Disks stable, so that is repeated
+	 * until no Disk is added. Some stable Disks inside the edges may be missed, but no Disk found can ever be flipped.
+	 * @param player	The Disks of the player
+	 * @param opponent	The Disks of the opponent
+	 * @return			The player's stable Disks
+	 */
+	public static long stableDisks(long player, long opponent){
+		/* The 4 edges */
+		long stable = EDGE_STABLE[(int) (player & 0xFF) * 256 + (int) (opponent & 0xFF)] & 0xFFL;
+		stable |= (EDGE_STABLE[(int) (player >>> 56) * 256 + (int) (opponent >>> 56)] & 0xFFL) << 56;
+		stable |= ROW_TO_COLUMN[EDGE_STABLE[columnToRow(player) * 256 + columnToRow(opponent)] & 0xFF];
+		stable |= ROW_TO_COLUMN[EDGE_STABLE[columnToRow(player >>> 7) * 256 + columnToRow(opponent >>> 7)] & 0xFF] << 7;
+		long inside = player & 0x007E7E7E7E7E7E00L;
+		if (inside == 0)
+			return stable;
+
+		/* Inside the edges */
+		long filled = player | opponent;
+		long fullRows = fullLines(filled, 0);
+		long fullColumns = fullLines(filled, 1);
+		long fullDiagonals = fullLines(filled, 2);
+		long fullAntiDiagonals = fullLines(filled, 3);
+		long before;
+		do {
+			before = stable;
+			stable |= inside & (fullRows | (stable << 1) | (stable >>> 1))
+							 & (fullColumns | (stable << 8) | (stable >>> 8))
+							 & (fullDiagonals | (stable << 9) | (stable >>> 9))
+							 & (fullAntiDiagonals | (stable << 7) | (stable >>> 7));
+		} while (stable != before);
+		return stable;
+	}
+}
@@ -12,7 +12,10 @@ public class Board {
 	/* Essential Info */
 	public final int rows;		///< Number of rows on Board.
 	public final int columns;	///< Number of columns on Board.
-	public Disk[][] tile;		///< Board is a 2-dimensional array of Disks.
+	public final boolean isBitBoard;	///< true for 8x8 Boards, which keep their Disks in blackDisks and whiteDisks instead of tile.
+	public long blackDisks;		///< BLACK Disks of an 8x8 Board. See BitBoard for the square numbering.
+	public long whiteDisks;		///< WHITE Disks of an 8x8 Board. See BitBoard for the square numbering.
+	public Disk[][] tile;		///< Board is a 2-dimensional array of Disks. Only used when Board is not 8x8 (null otherwise).
 	
 	/* Players */
 	public Player blackPlayer;	///< Player 1 on Board. Uses BLACK Disks.
@@ -23,6 +26,8 @@ public class Board {
 	public boolean gameEnded;	///< True if game is over. False otherwise.
 	public Color winner;		///< Either Color.BLACK or Color.WHITE when not null.
 	public int turn;			///< # of moves that have happened. Value from 1 to 60.
+	public long hashKey;		///< Zobrist key of the Disks and playerTurn. Kept up to date by flipDisk, removeDisk, flipDisks and updateTurn.
+	public final EvaluationState evaluation;	///< Counts used by the evaluation functions. Kept up to date like hashKey.
 	
 	/**
 	 * Constructor - Initializes a Board given number of rows and columns (usually 8x8)
@@ -33,7 +38,10 @@ public class Board {
 		/* Initialize Essential Info */
 		this.rows = rows;
 		this.columns = columns;
-		tile = new Disk[rows][columns];
+		isBitBoard = (rows == BitBoard.SIZE && columns == BitBoard.SIZE);
+		if (!isBitBoard)
+			tile = new Disk[rows][columns];
+		evaluation = new EvaluationState(rows, columns);
 		
 		initializeBoard();
 		
@@ -56,10 +64,15 @@ public class Board {
 		/* Copy essential info */
 		rows = otherBoard.rows;
 		columns = otherBoard.columns;
-		tile = new Disk[rows][columns];
-		for (int row = 0; row < rows; row++){
-			for (int col = 0; col < columns; col++){
-				tile[row][col] = new Disk(otherBoard.tile[row][col]);
+		isBitBoard = otherBoard.isBitBoard;
+		blackDisks = otherBoard.blackDisks;
+		whiteDisks = otherBoard.whiteDisks;
+		if (!isBitBoard){
+			tile = new Disk[rows][columns];
+			for (int row = 0; row < rows; row++){
+				for (int col = 0; col < columns; col++){
+					tile[row][col] = new Disk(otherBoard.tile[row][col]);
+				}
 			}
 		}
 		
@@ -72,6 +85,8 @@ public class Board {
 		gameEnded   = otherBoard.gameEnded;
 		winner      = otherBoard.winner;
 		turn		= otherBoard.turn;
+		hashKey		= otherBoard.hashKey;
+		evaluation	= new EvaluationState(otherBoard.evaluation);
 	}
 	
 	/**
@@ -79,21 +94,27 @@ public class Board {
 	 * Puts 2 BLACK Disks and 2 WHITE Disks in center of Board. 
 	 */
 	public void initializeBoard(){
-		for (int row = 0; row < rows; row++){
-			for (int col = 0; col < columns; col++){
-				tile[row][col] = new Disk(Color.NONE);
+		blackDisks = 0;
+		whiteDisks = 0;
+		hashKey = 0;
+		evaluation.clear();
+		if (!isBitBoard){
+			for (int row = 0; row < rows; row++){
+				for (int col = 0; col < columns; col++){
+					tile[row][col] = new Disk(Color.NONE);
+				}
 			}
 		}
 		
 		int centerRoundDown = rows / 2 - 1;
 		int centerRoundUp = rows / 2;
 		/* Place 2 Black Disks in center of Board */
-		tile[centerRoundDown][centerRoundDown].changeColor(Color.BLACK);
-		tile[centerRoundUp][centerRoundUp].changeColor(Color.BLACK);
+		setColor(new Point(centerRoundDown, centerRoundDown), Color.BLACK);
+		setColor(new Point(centerRoundUp, centerRoundUp), Color.BLACK);
 		
 		/* Place 2 White Disks in center of Board */
-		tile[centerRoundDown][centerRoundUp].changeColor(Color.WHITE);
-		tile[centerRoundUp][centerRoundDown].changeColor(Color.WHITE);
+		setColor(new Point(centerRoundUp, centerRoundDown), Color.WHITE);
+		setColor(new Point(centerRoundDown, centerRoundUp), Color.WHITE);
 	}
 	
 	/**
@@ -111,7 +132,54 @@ public class Board {
 	 * @return		The color of the Disk (WHITE, BLACK, NONE)
 	 */
 	public Color diskColor(Point pos){
-		return tile[pos.y][pos.x].color;
+		if (!isBitBoard)
+			return tile[pos.y][pos.x].color;
+		long mask = BitBoard.mask(pos);
+		if ((blackDisks & mask) != 0)
+			return Color.BLACK;
+		else if ((whiteDisks & mask) != 0)
+			return Color.WHITE;
+		return Color.NONE;
+	}
+	
+	/**
+	 * Sets the Color of a position on the Board and updates hashKey and evaluation. Does not update scores.
+	 * @param pos		The position of the Disk.
+	 * @param color		The new Color (WHITE, BLACK, NONE) of the position.
+	 */
+	private void setColor(Point pos, Color color){
+		int square = pos.y * columns + pos.x;
+		Color oldColor = diskColor(pos);
+		hashKey ^= Zobrist.diskKey(oldColor, square) ^ Zobrist.diskKey(color, square);
+		evaluation.change(square, oldColor, color);
+		if (!isBitBoard){
+			tile[pos.y][pos.x].changeColor(color);
+			return;
+		}
+		long mask = BitBoard.mask(pos);
+		blackDisks &= ~mask;
+		whiteDisks &= ~mask;
+		if (color == Color.BLACK)
+			blackDisks |= mask;
+		else if (color == Color.WHITE)
+			whiteDisks |= mask;
+	}
+	
+	/**
+	 * Gets the empty squares of an 8x8 Board
+	 * @return		A bitboard of all squares without a Disk
+	 */
+	public long emptySquares(){
+		return ~(blackDisks | whiteDisks);
+	}
+	
+	/**
+	 * Gets the Disks of a certain Color on an 8x8 Board
+	 * @param color		BLACK or WHITE
+	 * @return			A bitboard of the Disks of that Color
+	 */
+	public long disks(Color color){
+		return (color == Color.BLACK) ? blackDisks : whiteDisks;
 	}
 	
 	/**
@@ -131,10 +199,14 @@ public class Board {
 	 * Toggles playerTurn from WHITE to BLACK, and vice versa
 	 */
 	public void updateTurn(){
-		if (playerTurn == Color.WHITE && blackPlayer.validMoves.size() > 0)
+		if (playerTurn == Color.WHITE && blackPlayer.validMoves.size() > 0){
 			playerTurn = Color.BLACK;
-		else if (playerTurn == Color.BLACK && whitePlayer.validMoves.size() > 0)
+			hashKey ^= Zobrist.WHITE_TO_MOVE;
+		}
+		else if (playerTurn == Color.BLACK && whitePlayer.validMoves.size() > 0){
 			playerTurn = Color.WHITE;
+			hashKey ^= Zobrist.WHITE_TO_MOVE;
+		}
 		turn = blackPlayer.score + whitePlayer.score - 3;
 	}
 	
@@ -170,8 +242,10 @@ public class Board {
 	 * @return		true if move is valid. false otherwise.
 	 */
 	public boolean validMove(Point pos, Color color){
-		if (pos == null || color == null || !validPosition(pos) || color == Color.NONE || tile[pos.y][pos.x].color != Color.NONE)
+		if (pos == null || color == null || !validPosition(pos) || color == Color.NONE || diskColor(pos) != Color.NONE)
 			return false;
+		if (isBitBoard)
+			return BitBoard.flips(disks(color), disks(getOppositeColor(color)), BitBoard.square(pos)) != 0;
 		
 		if (validInDirection(pos, color, 1, 0))			// Right
 			return true;
@@ -192,6 +266,18 @@ public class Board {
 		return false;
 	}
 	
+	/**
+	 * Calculates all valid moves for a Color on an 8x8 Board without creating any Points
+	 * @param color	BLACK or WHITE
+	 * @return		A bitboard with a bit set for each valid move
+	 */
+	public long validMovesMask(Color color){
+		if (color == Color.BLACK)
+			return BitBoard.validMoves(blackDisks, whiteDisks);
+		else
+			return BitBoard.validMoves(whiteDisks, blackDisks);
+	}
+	
 	/**
 	 * Determines if a a Disk placed in a position will flip Disks in a certain Direction
 	 * @param pos			the desired position to place a Disk.
@@ -229,8 +315,8 @@ public class Board {
 	 * @param pos		The position of the Disk to remove
 	 */
 	public void removeDisk(Point pos){
-		Color oldColor = tile[pos.y][pos.x].color;
-		tile[pos.y][pos.x].changeColor(Color.NONE);
+		Color oldColor = diskColor(pos);
+		setColor(pos, Color.NONE);
 		
 		/* Subtract from scores */
 		if (oldColor == Color.BLACK)
@@ -245,8 +331,8 @@ public class Board {
 	 * @param newColor	The color the Disk should be changed to.
 	 */
 	public void flipDisk(Point pos, Color newColor){
-		Color oldColor = tile[pos.y][pos.x].color; // oldColor could be "NONE"
-		tile[pos.y][pos.x].changeColor(newColor);
+		Color oldColor = diskColor(pos); // oldColor could be "NONE"
+		setColor(pos, newColor);
 		
 		/* Subtract from scores */
 		if (oldColor == Color.BLACK)
@@ -261,6 +347,41 @@ public class Board {
 			whitePlayer.score++;
 	}
 	
+	/**
+	 * Flips every Disk in a bitboard to the same Color, updating scores (8x8 Boards only).
+	 * @param mask		The Disks to flip. Each must be BLACK or WHITE already.
+	 * @param newColor	The color the Disks should be changed to.
+	 */
+	public void flipDisks(long mask, Color newColor){
+		int count = Long.bitCount(mask);
+		hashKey ^= Zobrist.flipKey(mask);
+		evaluation.flip(mask, newColor);
+		if (newColor == Color.BLACK){
+			blackDisks |= mask;
+			whiteDisks &= ~mask;
+			blackPlayer.score += count;
+			whitePlayer.score -= count;
+		}
+		else{
+			whiteDisks |= mask;
+			blackDisks &= ~mask;
+			whitePlayer.score += count;
+			blackPlayer.score -= count;
+		}
+	}
+	
+	/**
+	 * Flips (captures) opponent's disks on an 8x8 Board, in 1 pass and without creating any Points.
+	 * @param pos	The position of the Disk that was placed.
+	 * @param color	The color of the Disk.
+	 * @return		The Disks that were flipped, as a bitboard
+	 */
+	public long flipCapturesMask(Point pos, Color color){
+		long flips = BitBoard.flips(disks(color), disks(getOppositeColor(color)), BitBoard.square(pos));
+		flipDisks(flips, color);
+		return flips;
+	}
+	
 	/**
 	 * Flips (captures) opponent's disks
 	 * @param pos	The position of the Disk that was placed.
@@ -273,6 +394,11 @@ public class Board {
 		
 		if (!validPosition(pos))
 			return disksFlipped;
+		if (isBitBoard){
+			for (long flips = flipCapturesMask(pos, color); flips != 0; flips &= flips - 1)
+				disksFlipped.add(BitBoard.point(Long.numberOfTrailingZeros(flips)));
+			return disksFlipped;
+		}
 		disksFlippedInDirection = flipInDirection(pos, color,  1,  0);	// Right
 		disksFlipped.addAll(disksFlippedInDirection);
 		disksFlippedInDirection = flipInDirection(pos, color, -1,  0);	// Left
@@ -293,7 +419,7 @@ public class Board {
 	}
 	
 	/**
-	 * Flip disks in a certain direction
+	 * Flip disks in a certain direction. Walks the direction once, then flips the run of opponent Disks if it ends with our own Disk.
 	 * @param pos			the position the new Disk that was placed.
 	 * @param color			the color of the Disk that was just placed.
 	 * @param xDirection	the x Direction to flip Disks (-1, 0, 1).
@@ -302,18 +428,32 @@ public class Board {
 	 */
 	public ArrayList<Point> flipInDirection(Point position, Color color, int xDirection, int yDirection){
 		ArrayList<Point> disksFlipped = new ArrayList<Point>();
-		Point pos = new Point(position);
-		if (!validInDirection(pos, color, xDirection, yDirection))
+		if (isBitBoard){
+			long flips = BitBoard.flipsInDirection(disks(color), disks(getOppositeColor(color)), BitBoard.square(position), BitBoard.direction(xDirection, yDirection));
+			flipDisks(flips, color);
+			for (; flips != 0; flips &= flips - 1)
+				disksFlipped.add(BitBoard.point(Long.numberOfTrailingZeros(flips)));
 			return disksFlipped;
+		}
+		
+		/* Count opponent Disks until the run ends */
 		Color opponentColor = getOppositeColor(color);
-		pos.x += xDirection;
-		pos.y += yDirection;
+		Point pos = new Point(position.x + xDirection, position.y + yDirection);
+		int runLength = 0;
 		while (validPosition(pos) && diskColor(pos) == opponentColor){
-			flipDisk(pos, color);
-			disksFlipped.add(new Point(pos));
+			runLength++;
 			pos.x += xDirection;
 			pos.y += yDirection;
 		}
+		if (runLength == 0 || !validPosition(pos) || diskColor(pos) != color)
+			return disksFlipped;
+		
+		/* Flip the run */
+		for (int i = 1; i <= runLength; i++){
+			Point flipped = new Point(position.x + i * xDirection, position.y + i * yDirection);
+			flipDisk(flipped, color);
+			disksFlipped.add(flipped);
+		}
 		return disksFlipped;
 	}
 	
@@ -325,10 +465,43 @@ public class Board {
 	 */
 	public void placeDisk(Point pos, Color color){
 		flipDisk(pos, color);
-		flipCaptures(pos, color);
+		if (isBitBoard)
+			flipCapturesMask(pos, color);
+		else
+			flipCaptures(pos, color);
 		updateBoard();
 	}
 	
+	/**
+	 * Sets up a position given as bitboards, as if a game had reached it (8x8 Boards only). \n
+	 * If the Player to move has no valid move, the turn passes to the other Player.
+	 * @param black			BLACK Disks, as a bitboard
+	 * @param white			WHITE Disks, as a bitboard
+	 * @param playerToMove	The Color whose turn it is
+	 */
+	public void setDisks(long black, long white, Color playerToMove){
+		for (long squares = blackDisks | whiteDisks; squares != 0; squares &= squares - 1)
+			removeDisk(BitBoard.POINTS[Long.numberOfTrailingZeros(squares)]);
+		for (long squares = black; squares != 0; squares &= squares - 1)
+			flipDisk(BitBoard.POINTS[Long.numberOfTrailingZeros(squares)], Color.BLACK);
+		for (long squares = white; squares != 0; squares &= squares - 1)
+			flipDisk(BitBoard.POINTS[Long.numberOfTrailingZeros(squares)], Color.WHITE);
+		if (playerTurn != playerToMove){
+			playerTurn = playerToMove;
+			hashKey ^= Zobrist.WHITE_TO_MOVE;
+		}
+		gameEnded = false;
+		winner = null;
+		blackPlayer.updateValidMoves(this);
+		whitePlayer.updateValidMoves(this);
+		if (getCurrentPlayer().validMoves.isEmpty() && !(blackPlayer.validMoves.isEmpty() && whitePlayer.validMoves.isEmpty())){
+			playerTurn = getOppositeColor(playerTurn);
+			hashKey ^= Zobrist.WHITE_TO_MOVE;
+		}
+		turn = blackPlayer.score + whitePlayer.score - 3;
+		updateGameStatus();
+	}
+
 	/**
 	 * returns the player whose turn it currently is
 	 * @return	blackPlayer or whitePlayer
@@ -347,6 +520,8 @@ public class Board {
 	 * @return			the number of 'X squares' that are occupied by a Disk of a certain Color.
 	 */
 	public int xSquaresOwned(Color color){
+		if (isBitBoard)
+			return Long.bitCount(disks(color) & BitBoard.X_SQUARES);
 		int badSpots = 0;
 		if (diskColor(new Point(1, 1)) == color)
 			badSpots++;
@@ -366,6 +541,8 @@ public class Board {
 	 * @return			the number of lone 'X squares' that are occupied by a Disk of a certain Color.
 	 */
 	public int badXSquaresOwned(Color color){
+		if (isBitBoard)
+			return Long.bitCount(BitBoard.badXSquares(disks(color), emptySquares()));
 		int badSpots = 0;
 		if ((diskColor(new Point(1, 1)) == color) && (diskColor(new Point(0, 0)) == Color.NONE))
 			badSpots++;
@@ -384,6 +561,8 @@ public class Board {
 	 * @return			the number of 'C squares' that are occupied by a Disk of a certain Color.
 	 */
 	public int cSquaresOwned(Color color){
+		if (isBitBoard)
+			return Long.bitCount(disks(color) & BitBoard.C_SQUARES);
 		int cSquares = 0;
 		
 		if (diskColor(new Point(0, 1)) == color)
@@ -416,6 +595,8 @@ public class Board {
 	 * @return			the number of lone 'C squares' that are occupied by a Disk of a certain Color.
 	 */
 	public int badCSquaresOwned(Color color){
+		if (isBitBoard)
+			return Long.bitCount(BitBoard.badCSquares(disks(color), emptySquares()));
 		int cSquares = 0;
 		
 		if ((diskColor(new Point(0, 1)) == color) && (diskColor(new Point(0, 0)) == Color.NONE))
@@ -447,6 +628,8 @@ public class Board {
 	 * @return			the number of corners that are occupied by a Disk of a certain Color.
 	 */
 	public int cornersOwned(Color color){
+		if (isBitBoard)
+			return Long.bitCount(disks(color) & BitBoard.CORNERS);
 		int corners = 0;
 		if (diskColor(new Point(0, 0)) == color)
 			corners++;
@@ -459,6 +642,40 @@ public class Board {
 		return corners;
 	}
 	
+	/**
+	 * Boards are equal when they have the same size, Disks, and playerTurn
+	 * @param other		The Object to compare to
+	 * @return			true if other is an equal Board. false otherwise.
+	 */
+	@Override
+	public boolean equals(Object other){
+		if (this == other)
+			return true;
+		if (!(other instanceof Board))
+			return false;
+		Board otherBoard = (Board) other;
+		if (rows != otherBoard.rows || columns != otherBoard.columns || playerTurn != otherBoard.playerTurn || hashKey != otherBoard.hashKey)
+			return false;
+		if (isBitBoard)
+			return blackDisks == otherBoard.blackDisks && whiteDisks == otherBoard.whiteDisks;
+		for (int row = 0; row < rows; row++){
+			for (int col = 0; col < columns; col++){
+				if (tile[row][col].color != otherBoard.tile[row][col].color)
+					return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Uses the Zobrist key, so equal Boards have equal hash codes
+	 * @return		The hash code of the Board
+	 */
+	@Override
+	public int hashCode(){
+		return (int) (hashKey ^ (hashKey >>> 32));
+	}
+	
 	/**
 	 * Enables printing of a Board to the console using System.out.println()
 	 */
@@ -468,9 +685,10 @@ public class Board {
 		/* Append who owns which squares */
 		for (int row = rows - 1; row >= 0; row--){		//Notice we loop backwards through rows.
 			for (int col = 0; col < columns; col++){
-				if (tile[row][col].color == Color.BLACK)
+				Color color = diskColor(new Point(col, row));
+				if (color == Color.BLACK)
 					sb.append("B");
-				else if (tile[row][col].color == Color.WHITE)
+				else if (color == Color.WHITE)
 					sb.append("W");
 				else
 					sb.append("-");
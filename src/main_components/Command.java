@@ -13,6 +13,16 @@ public class Command {
 	public Color color;						///< the Color of the new Disk
 	public Point destination;				///< the destination of the new Disk
 	public ArrayList<Point> capturedPoints; ///< the Points that were captured. We save it in case a user "undoes" a move
+	public long capturedMask;				///< the Disks that were captured on an 8x8 Board, as a bitboard. Used instead of capturedPoints.
+	
+	/* Undo record: the Board's cached state from before execute(), which undo() restores */
+	public Color previousPlayerTurn;		///< Board's playerTurn before the Command was executed
+	public boolean previousGameEnded;		///< Board's gameEnded before the Command was executed
+	public Color previousWinner;			///< Board's winner before the Command was executed
+	public int previousTurn;				///< Board's turn before the Command was executed
+	public long previousBlackMoves;			///< blackPlayer's validMovesMask before the Command was executed
+	public long previousWhiteMoves;			///< whitePlayer's validMovesMask before the Command was executed
+	public long previousHashKey;			///< Board's hashKey before the Command was executed
 	
 	/**
 	 * A representation of a "Move" command.
@@ -31,22 +41,52 @@ public class Command {
 	 * Execute the current Command on the given Board
 	 */
 	public void execute() {
+		/* Save undo record */
+		previousPlayerTurn = board.playerTurn;
+		previousGameEnded  = board.gameEnded;
+		previousWinner     = board.winner;
+		previousTurn       = board.turn;
+		previousBlackMoves = board.blackPlayer.validMovesMask;
+		previousWhiteMoves = board.whitePlayer.validMovesMask;
+		previousHashKey    = board.hashKey;
+		
 		/* Update Model */
 		board.flipDisk(destination, color);
-		capturedPoints = board.flipCaptures(destination, color);
+		if (board.isBitBoard)
+			capturedMask = board.flipCapturesMask(destination, color);
+		else
+			capturedPoints = board.flipCaptures(destination, color);
 		board.updateBoard();
 	}
 	
 	/**
-	 * Undo the current Command
+	 * Undo the current Command. Restores the undo record instead of recalculating valid moves.
 	 */
 	public void undo(){
 		/* Update Model */
 		Color oppositeColor = board.getOppositeColor(color);
 		board.removeDisk(destination);
-		for (Point point : capturedPoints){
-			board.flipDisk(point, oppositeColor);
+		if (board.isBitBoard)
+			board.flipDisks(capturedMask, oppositeColor);
+		else{
+			for (Point point : capturedPoints){
+				board.flipDisk(point, oppositeColor);
+			}
+		}
+		
+		/* Restore undo record */
+		board.playerTurn = previousPlayerTurn;
+		board.gameEnded  = previousGameEnded;
+		board.winner     = previousWinner;
+		board.turn       = previousTurn;
+		board.hashKey    = previousHashKey;
+		if (board.isBitBoard){
+			board.blackPlayer.setValidMoves(previousBlackMoves);
+			board.whitePlayer.setValidMoves(previousWhiteMoves);
+		}
+		else{
+			board.blackPlayer.updateValidMoves(board);
+			board.whitePlayer.updateValidMoves(board);
 		}
-		board.updateBoard();
 	}
 }
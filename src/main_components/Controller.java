@@ -1,14 +1,23 @@
 package main_components;
 
+import java.awt.Point;
+import java.io.File;
+
 import listeners.ForfeitListener;
 import listeners.NewGameListener;
 import listeners.PlaceDiskListener;
 import listeners.RedoListener;
+import listeners.SolveListener;
 import listeners.UndoListener;
 import strategies.MinimaxStrategy;
-import strategies.AlphaBetaStrategy;
 import strategies.Difficulty;
+import strategies.EndgameSolver;
+import strategies.EngineResult;
+import strategies.OpeningBook;
+import strategies.PatternEvaluator;
+import strategies.ProbCut;
 import strategies.RandomStrategy;
+import strategies.SearchEngine;
 
 /**
  * \brief
@@ -26,6 +35,9 @@ public class Controller {
 	public int columns;						///< Number of columns on Board
 
 	public Difficulty difficulty;			///< The difficulty (intelligence) of the computer A.I.
+	public SearchEngine engine;						///< Makes HARD moves. Kept between moves, so each search can reuse earlier results. Created when first needed.
+	public long solveTimeLimit = 10000;				///< Milliseconds the View's "Solve" button may take
+	public EndgameSolver solveSolver;				///< Solves for the View's "Solve" button. Not the SearchEngine's, since it runs on its own thread.
 	
 	/**
 	 * Constructor: Initialize the Controller with a new Board and new View. Add mouseListeners to the View
@@ -79,9 +91,42 @@ public class Controller {
 		view.addMouseListener(new NewGameListener(this, Difficulty.EASY),   view.newGameEasy);
 		view.addMouseListener(new NewGameListener(this, Difficulty.MEDIUM), view.newGameMedium);
 		view.addMouseListener(new NewGameListener(this, Difficulty.HARD),   view.newGameHard);
+		view.addMouseListener(new SolveListener(this), view.solveButton);
 
 	}
 	
+	/**
+	 * Solves the Board for a win, loss or draw
+	 * @return	Who wins with perfect play, or why the Board was not solved
+	 */
+	public String solveWinLossDraw(){
+		return solveWinLossDraw(new Board(board));
+	}
+	
+	/**
+	 * Solves a Board for a win, loss or draw with solveSolver. May run on any thread, but only 1 solve at a time.
+	 * @param board		The Board to solve. It is not changed.
+	 * @return			Who wins with perfect play, or why the Board was not solved
+	 */
+	public String solveWinLossDraw(Board board){
+		if (!board.isBitBoard)
+			return "Only 8x8 Boards can be solved";
+		if (board.gameEnded)
+			return "The game is over";
+		if (solveSolver == null)
+			solveSolver = new EndgameSolver();
+		EndgameSolver endgameSolver = solveSolver;
+		endgameSolver.deadline = System.currentTimeMillis() + solveTimeLimit;
+		int result = endgameSolver.solveWinLossDraw(board);
+		endgameSolver.deadline = Long.MAX_VALUE;
+		if (endgameSolver.timeUp)
+			return "Not solved in " + solveTimeLimit / 1000 + " seconds";
+		if (result == 0)
+			return "Perfect play: Tie Game";
+		Color winner = (result > 0) ? board.playerTurn : board.getOppositeColor(board.playerTurn);
+		return "Perfect play: " + ((winner == Color.BLACK) ? "Black" : "White") + " Wins";
+	}
+	
 	/**
 	 * Makes a move for the computer A.I.
 	 */
@@ -127,12 +172,34 @@ public class Controller {
 	}
 	
 	/**
-	 * Makes a move for the computer A.I. on HARD difficulty
+	 * Makes a move for the computer A.I. on HARD difficulty, with the SearchEngine
 	 */
 	public void computerHard(){
+		SearchEngine searchEngine = getEngine();
 		while (board.playerTurn == Color.WHITE && !board.gameEnded){
-			AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(this);
-			board = alphaBetaStrategy.move(board);
+			int turn = board.turn;
+			EngineResult result = searchEngine.search(board);
+			Point move = new Point(result.move % board.columns, result.move / board.columns);
+			commandManager.executeCommand(new Command(board, board.playerTurn, move));
+			view.updateView();
+			System.out.println("Turn " + turn + "\n------\n" + result.report(board.columns));
+		}
+	}
+	
+	/**
+	 * Gets the SearchEngine of HARD moves, creating it when first needed. \n
+	 * On 8x8 Boards, it loads PatternEvaluator.DEFAULT_FILE, OpeningBook.DEFAULT_FILE and ProbCut.DEFAULT_FILE if they exist.
+	 * @return	The SearchEngine
+	 */
+	public SearchEngine getEngine(){
+		if (engine == null){
+			engine = new SearchEngine();
+			if (board.isBitBoard){
+				engine.patternEvaluator = PatternEvaluator.load(new File(PatternEvaluator.DEFAULT_FILE));
+				engine.openingBook = OpeningBook.load(new File(OpeningBook.DEFAULT_FILE));
+				engine.probCut = ProbCut.load(new File(ProbCut.DEFAULT_FILE));
+			}
 		}
+		return engine;
 	}
 }
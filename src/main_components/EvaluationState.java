@@ -0,0 +1,202 @@
+package main_components;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * \brief
+ * The counts used by Utility.utilityFinal (corners, lone 'X squares' and lone 'C squares' of each Color),
+ * and the index of each Patterns feature (8x8 Boards only), kept up to date 1 square at a time. \n
+ * Board calls change() whenever a square changes Color, so the counts follow every move and every undo,
+ * and reading them never scans the Board or creates objects.
+ * @author Rodney Shaghoulian
+ */
+public class EvaluationState {
+	public static final int CORNERS = 4;				///< Number of corners (and corner regions) on a Board
+
+	private static final int CORNER = 0;				///< Kind of a corner square in its region
+	private static final int X_SQUARE = 1;				///< Kind of an 'X square' in its region
+	private static final int C_SQUARE = 2;				///< Kind of a 'C square' in its region
+
+	public final int[] corners;			///< Corners owned by BLACK [0] and WHITE [1]
+	public final int[] badXSquares;		///< 'X squares' next to an empty corner, owned by BLACK [0] and WHITE [1]
+	public final int[] badCSquares;		///< 'C squares' next to an empty corner, owned by BLACK [0] and WHITE [1]
+	public final int[] patterns;		///< Index of each Patterns feature. null when the Board is not 8x8.
+
+	private final int[][] regions;		///< For each square: (corner * 3 + kind) for each corner region it is in, or null. Shared by copies.
+	private final int[] cornerSquares;	///< The square of each corner. Shared by copies.
+	private final long featureMask;		///< The squares that are in a corner region (8x8 Boards only). Shared by copies.
+	private final Color[] colors;		///< Color of each square in a corner region (other squares are not kept)
+	private final int[][] xOwned;		///< 'X squares' owned in each corner region, by BLACK [0] and WHITE [1]
+	private final int[][] cOwned;		///< 'C squares' owned in each corner region, by BLACK [0] and WHITE [1]
+
+	/**
+	 * Constructor - Finds the corner regions of an empty Board
+	 * @param rows		Number of rows on the Board
+	 * @param columns	Number of columns on the Board
+	 */
+	public EvaluationState(int rows, int columns){
+		int lastRow = rows - 1;
+		int lastColumn = columns - 1;
+		int[][] cornerPoints = {{0, 0}, {0, lastRow}, {lastColumn, 0}, {lastColumn, lastRow}};
+		int[][] xPoints = {{1, 1}, {1, rows - 2}, {columns - 2, 1}, {columns - 2, rows - 2}};
+		int[][][] cPoints = {{{0, 1}, {1, 0}}, {{0, rows - 2}, {1, lastRow}},
+							 {{columns - 2, 0}, {lastColumn, 1}}, {{lastColumn, rows - 2}, {columns - 2, lastRow}}};
+
+		/* List the regions of each square */
+		ArrayList<ArrayList<Integer>> squareRegions = new ArrayList<>();
+		for (int square = 0; square < rows * columns; square++)
+			squareRegions.add(new ArrayList<Integer>());
+		cornerSquares = new int[CORNERS];
+		for (int corner = 0; corner < CORNERS; corner++){
+			cornerSquares[corner] = cornerPoints[corner][1] * columns + cornerPoints[corner][0];
+			squareRegions.get(cornerSquares[corner]).add(corner * 3 + CORNER);
+			squareRegions.get(xPoints[corner][1] * columns + xPoints[corner][0]).add(corner * 3 + X_SQUARE);
+			for (int[] cPoint : cPoints[corner])
+				squareRegions.get(cPoint[1] * columns + cPoint[0]).add(corner * 3 + C_SQUARE);
+		}
+		regions = new int[rows * columns][];
+		long mask = 0;
+		for (int square = 0; square < regions.length; square++){
+			ArrayList<Integer> list = squareRegions.get(square);
+			if (list.isEmpty())
+				continue;
+			regions[square] = new int[list.size()];
+			for (int i = 0; i < list.size(); i++)
+				regions[square][i] = list.get(i);
+			if (square < BitBoard.SQUARES)
+				mask |= 1L << square;
+		}
+		featureMask = mask;
+
+		corners = new int[2];
+		badXSquares = new int[2];
+		badCSquares = new int[2];
+		patterns = (rows == BitBoard.SIZE && columns == BitBoard.SIZE) ? new int[Patterns.FEATURES] : null;
+		colors = new Color[rows * columns];
+		Arrays.fill(colors, Color.NONE);
+		xOwned = new int[2][CORNERS];
+		cOwned = new int[2][CORNERS];
+	}
+
+	/**
+	 * Copy Constructor - Copies the counts. The corner regions are shared, since they never change.
+	 * @param other		The EvaluationState to copy
+	 */
+	public EvaluationState(EvaluationState other){
+		regions = other.regions;
+		cornerSquares = other.cornerSquares;
+		featureMask = other.featureMask;
+		corners = other.corners.clone();
+		badXSquares = other.badXSquares.clone();
+		badCSquares = other.badCSquares.clone();
+		patterns = (other.patterns == null) ? null : other.patterns.clone();
+		colors = other.colors.clone();
+		xOwned = new int[][]{other.xOwned[0].clone(), other.xOwned[1].clone()};
+		cOwned = new int[][]{other.cOwned[0].clone(), other.cOwned[1].clone()};
+	}
+
+	/**
+	 * Resets the counts to those of an empty Board
+	 */
+	public void clear(){
+		Arrays.fill(corners, 0);
+		Arrays.fill(badXSquares, 0);
+		Arrays.fill(badCSquares, 0);
+		if (patterns != null)
+			Arrays.fill(patterns, 0);
+		Arrays.fill(colors, Color.NONE);
+		for (int color = 0; color < 2; color++){
+			Arrays.fill(xOwned[color], 0);
+			Arrays.fill(cOwned[color], 0);
+		}
+	}
+
+	/**
+	 * Updates the counts for 1 square changing Color
+	 * @param square	The square (row * columns + column)
+	 * @param oldColor	The Color the square had
+	 * @param newColor	The Color the square has now
+	 */
+	public void change(int square, Color oldColor, Color newColor){
+		if (oldColor == newColor)
+			return;
+		if (patterns != null)
+			Patterns.update(patterns, square, Patterns.digit(newColor) - Patterns.digit(oldColor));
+		changeRegions(square, oldColor, newColor);
+	}
+
+	/**
+	 * Updates the corner region counts for 1 square changing Color
+	 * @param square	The square (row * columns + column)
+	 * @param oldColor	The Color the square had
+	 * @param newColor	The Color the square has now. Different from oldColor.
+	 */
+	private void changeRegions(int square, Color oldColor, Color newColor){
+		int[] squareRegions = regions[square];
+		if (squareRegions == null)
+			return;
+		int oldIndex = index(oldColor);
+		int newIndex = index(newColor);
+		for (int region : squareRegions){
+			int corner = region / 3;
+			int kind = region % 3;
+			boolean cornerEmpty = (colors[cornerSquares[corner]] == Color.NONE);
+			if (kind == CORNER){
+				if (oldIndex >= 0)
+					corners[oldIndex]--;
+				if (newIndex >= 0)
+					corners[newIndex]++;
+
+				/* Filling or emptying a corner makes its 'X squares' and 'C squares' safe or lone again */
+				int change = (oldColor == Color.NONE) ? -1 : ((newColor == Color.NONE) ? 1 : 0);
+				for (int color = 0; color < 2; color++){
+					badXSquares[color] += change * xOwned[color][corner];
+					badCSquares[color] += change * cOwned[color][corner];
+				}
+			}
+			else {
+				int[][] owned = (kind == X_SQUARE) ? xOwned : cOwned;
+				int[] bad = (kind == X_SQUARE) ? badXSquares : badCSquares;
+				if (oldIndex >= 0){
+					owned[oldIndex][corner]--;
+					if (cornerEmpty)
+						bad[oldIndex]--;
+				}
+				if (newIndex >= 0){
+					owned[newIndex][corner]++;
+					if (cornerEmpty)
+						bad[newIndex]++;
+				}
+			}
+		}
+		colors[square] = newColor;
+	}
+
+	/**
+	 * Updates the counts for flipping every Disk in a bitboard (8x8 Boards only)
+	 * @param mask		The Disks being flipped
+	 * @param newColor	The Color they are flipped to
+	 */
+	public void flip(long mask, Color newColor){
+		Color oldColor = (newColor == Color.BLACK) ? Color.WHITE : Color.BLACK;
+		if (patterns != null){
+			int change = Patterns.digit(newColor) - Patterns.digit(oldColor);
+			for (long flips = mask; flips != 0; flips &= flips - 1)
+				Patterns.update(patterns, Long.numberOfTrailingZeros(flips), change);
+		}
+		for (mask &= featureMask; mask != 0; mask &= mask - 1)
+			changeRegions(Long.numberOfTrailingZeros(mask), oldColor, newColor);
+	}
+
+	/**
+	 * Gets the index of a Color in the count arrays
+	 * @param color		Any Color
+	 * @return			0 for BLACK, 1 for WHITE, -1 for NONE
+	 */
+	public static int index(Color color){
+		if (color == Color.BLACK)
+			return 0;
+		return (color == Color.WHITE) ? 1 : -1;
+	}
+}
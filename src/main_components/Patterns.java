@@ -0,0 +1,210 @@
+package main_components;
+
+import java.util.ArrayList;
+
+/**
+ * \brief
+ * The patterns of squares used by the pattern evaluation (8x8 Boards only). \n
+ * Each pattern type (an edge with its 2 'X squares', a 2x5 or 3x3 corner block, a row or a diagonal) is placed on the Board
+ * in every orientation that covers different squares. Each placement is a "feature". \n
+ * A feature's index reads its squares as a base 3 number (0 for empty, 1 for BLACK, 2 for WHITE), the first square being
+ * the lowest digit. Squares are listed in the same order for every placement of a type, so placements share 1 table of weights.
+ * @author Rodney Shaghoulian
+ */
+public class Patterns {
+	public static final int EMPTY_DIGIT = 0;	///< Base 3 digit of an empty square
+	public static final int BLACK_DIGIT = 1;	///< Base 3 digit of a BLACK Disk
+	public static final int WHITE_DIGIT = 2;	///< Base 3 digit of a WHITE Disk
+
+	/** Name of each pattern type */
+	public static final String[] NAMES = {"edge + 2X", "corner 2x5", "corner 3x3", "row 2", "row 3", "row 4",
+										  "diagonal 8", "diagonal 7", "diagonal 6", "diagonal 5", "diagonal 4"};
+
+	/** Squares {x, y} of each pattern type, placed in the corner at Point(0, 0) */
+	private static final int[][][] SHAPES = {
+		{{0, 0}, {1, 0}, {2, 0}, {3, 0}, {4, 0}, {5, 0}, {6, 0}, {7, 0}, {1, 1}, {6, 1}},
+		{{0, 0}, {1, 0}, {2, 0}, {3, 0}, {4, 0}, {0, 1}, {1, 1}, {2, 1}, {3, 1}, {4, 1}},
+		{{0, 0}, {1, 0}, {2, 0}, {0, 1}, {1, 1}, {2, 1}, {0, 2}, {1, 2}, {2, 2}},
+		{{0, 1}, {1, 1}, {2, 1}, {3, 1}, {4, 1}, {5, 1}, {6, 1}, {7, 1}},
+		{{0, 2}, {1, 2}, {2, 2}, {3, 2}, {4, 2}, {5, 2}, {6, 2}, {7, 2}},
+		{{0, 3}, {1, 3}, {2, 3}, {3, 3}, {4, 3}, {5, 3}, {6, 3}, {7, 3}},
+		{{0, 0}, {1, 1}, {2, 2}, {3, 3}, {4, 4}, {5, 5}, {6, 6}, {7, 7}},
+		{{0, 1}, {1, 2}, {2, 3}, {3, 4}, {4, 5}, {5, 6}, {6, 7}},
+		{{0, 2}, {1, 3}, {2, 4}, {3, 5}, {4, 6}, {5, 7}},
+		{{0, 3}, {1, 4}, {2, 5}, {3, 6}, {4, 7}},
+		{{0, 4}, {1, 5}, {2, 6}, {3, 7}}
+	};
+
+	public static final int TYPES = SHAPES.length;	///< Number of pattern types
+	public static final int[] LENGTHS;				///< Number of squares in each pattern type
+	public static final int[] SIZES;				///< Number of indexes (3 to the power of its length) of each pattern type
+	public static final int FEATURES;				///< Number of features (placements of a pattern type) on the Board
+	public static final int[] FEATURE_TYPE;			///< Pattern type of each feature
+	public static final int[][] FEATURE_SQUARES;	///< Squares of each feature, lowest digit first
+	public static final int[][] SYMMETRIC_INDEXES;	///< For each pattern type and index: the smallest index the same Disks read as, in any orientation that maps the pattern onto itself
+
+	private static final int[][] SQUARE_FEATURES = new int[BitBoard.SQUARES][];	///< Features each square is in
+	private static final int[][] SQUARE_POWERS = new int[BitBoard.SQUARES][];	///< Value of the square's digit in each of those features
+
+	static {
+		LENGTHS = new int[TYPES];
+		SIZES = new int[TYPES];
+		ArrayList<Integer> types = new ArrayList<>();
+		ArrayList<int[]> features = new ArrayList<>();
+		for (int type = 0; type < TYPES; type++){
+			LENGTHS[type] = SHAPES[type].length;
+			SIZES[type] = power(LENGTHS[type]);
+
+			/* Place the pattern in the 8 orientations, skipping those that cover the same squares as an earlier one */
+			ArrayList<Long> placed = new ArrayList<>();
+			for (int symmetry = 0; symmetry < 8; symmetry++){
+				int[] squares = new int[LENGTHS[type]];
+				long mask = 0;
+				for (int i = 0; i < squares.length; i++){
+					squares[i] = transform(SHAPES[type][i][0], SHAPES[type][i][1], symmetry);
+					mask |= 1L << squares[i];
+				}
+				if (placed.contains(mask))
+					continue;
+				placed.add(mask);
+				types.add(type);
+				features.add(squares);
+			}
+		}
+		FEATURES = features.size();
+		FEATURE_TYPE = new int[FEATURES];
+		FEATURE_SQUARES = new int[FEATURES][];
+		for (int feature = 0; feature < FEATURES; feature++){
+			FEATURE_TYPE[feature] = types.get(feature);
+			FEATURE_SQUARES[feature] = features.get(feature);
+		}
+
+		/* A pattern such as an edge covers the same squares mirrored, read in the opposite order. Tying those indexes keeps the evaluation symmetric. */
+		SYMMETRIC_INDEXES = new int[TYPES][];
+		for (int type = 0; type < TYPES; type++){
+			ArrayList<int[]> orders = new ArrayList<>();
+			for (int symmetry = 1; symmetry < 8; symmetry++){
+				int[] order = new int[LENGTHS[type]]; // where each square of the pattern goes
+				boolean onItself = true;
+				for (int i = 0; i < order.length; i++){
+					int square = transform(SHAPES[type][i][0], SHAPES[type][i][1], symmetry);
+					order[i] = -1;
+					for (int j = 0; j < order.length; j++){
+						if (SHAPES[type][j][1] * BitBoard.SIZE + SHAPES[type][j][0] == square)
+							order[i] = j;
+					}
+					onItself &= (order[i] >= 0);
+				}
+				if (onItself)
+					orders.add(order);
+			}
+			SYMMETRIC_INDEXES[type] = new int[SIZES[type]];
+			for (int index = 0; index < SIZES[type]; index++){
+				int smallest = index;
+				for (int[] order : orders){
+					int symmetricIndex = 0;
+					for (int i = 0, rest = index; i < order.length; i++, rest /= 3)
+						symmetricIndex += (rest % 3) * power(order[i]);
+					smallest = Math.min(smallest, symmetricIndex);
+				}
+				SYMMETRIC_INDEXES[type][index] = smallest;
+			}
+		}
+
+		/* List the features of each square */
+		for (int square = 0; square < BitBoard.SQUARES; square++){
+			ArrayList<Integer> squareFeatures = new ArrayList<>();
+			ArrayList<Integer> squarePowers = new ArrayList<>();
+			for (int feature = 0; feature < FEATURES; feature++){
+				for (int i = 0; i < FEATURE_SQUARES[feature].length; i++){
+					if (FEATURE_SQUARES[feature][i] == square){
+						squareFeatures.add(feature);
+						squarePowers.add(power(i));
+					}
+				}
+			}
+			SQUARE_FEATURES[square] = new int[squareFeatures.size()];
+			SQUARE_POWERS[square] = new int[squarePowers.size()];
+			for (int i = 0; i < squareFeatures.size(); i++){
+				SQUARE_FEATURES[square][i] = squareFeatures.get(i);
+				SQUARE_POWERS[square][i] = squarePowers.get(i);
+			}
+		}
+	}
+
+	/**
+	 * Gets the square of a point in 1 of the 8 orientations of the Board
+	 * @param x			Column of the point
+	 * @param y			Row of the point
+	 * @param symmetry	0 to 7. Bit 0 mirrors the columns, bit 1 mirrors the rows, bit 2 swaps rows and columns.
+	 * @return			The square (y * 8 + x) of the point after the transformation
+	 */
+	private static int transform(int x, int y, int symmetry){
+		if ((symmetry & 4) != 0){
+			int swap = x;
+			x = y;
+			y = swap;
+		}
+		if ((symmetry & 1) != 0)
+			x = BitBoard.SIZE - 1 - x;
+		if ((symmetry & 2) != 0)
+			y = BitBoard.SIZE - 1 - y;
+		return y * BitBoard.SIZE + x;
+	}
+
+	/**
+	 * Calculates a power of 3
+	 * @param exponent	The exponent
+	 * @return			3 to the power of exponent
+	 */
+	private static int power(int exponent){
+		int result = 1;
+		for (int i = 0; i < exponent; i++)
+			result *= 3;
+		return result;
+	}
+
+	/**
+	 * Gets the base 3 digit of a Color
+	 * @param color		Any Color
+	 * @return			EMPTY_DIGIT, BLACK_DIGIT or WHITE_DIGIT
+	 */
+	public static int digit(Color color){
+		if (color == Color.BLACK)
+			return BLACK_DIGIT;
+		return (color == Color.WHITE) ? WHITE_DIGIT : EMPTY_DIGIT;
+	}
+
+	/**
+	 * Adds the change of 1 square's digit to the index of every feature it is in
+	 * @param indexes	The index of each feature
+	 * @param square	The square (y * 8 + x)
+	 * @param change	The new digit minus the old digit
+	 */
+	public static void update(int[] indexes, int square, int change){
+		int[] features = SQUARE_FEATURES[square];
+		int[] powers = SQUARE_POWERS[square];
+		for (int i = 0; i < features.length; i++)
+			indexes[features[i]] += change * powers[i];
+	}
+
+	/**
+	 * Calculates the index of a feature without any earlier state
+	 * @param blackDisks	BLACK Disks, as a bitboard
+	 * @param whiteDisks	WHITE Disks, as a bitboard
+	 * @param feature		The feature (0 to FEATURES - 1)
+	 * @return				The index of the feature
+	 */
+	public static int index(long blackDisks, long whiteDisks, int feature){
+		int[] squares = FEATURE_SQUARES[feature];
+		int index = 0;
+		for (int i = squares.length - 1; i >= 0; i--){
+			index *= 3;
+			if ((blackDisks & (1L << squares[i])) != 0)
+				index += BLACK_DIGIT;
+			else if ((whiteDisks & (1L << squares[i])) != 0)
+				index += WHITE_DIGIT;
+		}
+		return index;
+	}
+}
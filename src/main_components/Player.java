@@ -14,6 +14,7 @@ public class Player {
 	public boolean isComputer;			///< false for Human Player. True for Computer Player
 	public int score;					///< Equal to the number of Disks corresponding to color
 	public ArrayList<Point> validMoves;	///< Potential Moves a Player can do
+	public long validMovesMask;			///< Potential Moves as a bitboard. Only used on 8x8 Boards.
 	
 	/** 
 	 * Constructor. Simply initializes variables.
@@ -38,13 +39,18 @@ public class Player {
 		isComputer = otherPlayer.isComputer;
 		score = otherPlayer.score;
 		validMoves = new ArrayList<Point>(otherPlayer.validMoves);
+		validMovesMask = otherPlayer.validMovesMask;
 	}
 	
 	/**
 	 * Updates valid (potential) moves for a Player. Player could possibly have 0 valid moves.
 	 * @param board	The Board that the Player is playing Othello on
 	 */
-	public void updateValidMoves(Board board){ //can possibly make this more efficient.
+	public void updateValidMoves(Board board){
+		if (board.isBitBoard){
+			setValidMoves(board.validMovesMask(color));
+			return;
+		}
 		validMoves.clear();
 		for (int row = 0; row < board.rows; row++){
 			for (int col = 0; col < board.columns; col++){
@@ -54,4 +60,15 @@ public class Player {
 			}
 		}
 	}
+	
+	/**
+	 * Sets valid moves from a bitboard that is already known (8x8 Boards only). Does not search the Board.
+	 * @param mask	The valid moves as a bitboard
+	 */
+	public void setValidMoves(long mask){
+		validMovesMask = mask;
+		validMoves.clear();
+		for (long moves = mask; moves != 0; moves &= moves - 1)
+			validMoves.add(BitBoard.POINTS[Long.numberOfTrailingZeros(moves)]);
+	}
 }
\ No newline at end of file
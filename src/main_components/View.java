@@ -45,6 +45,9 @@ public class View {
 	
 	public JTextField difficultyText;	///< Displays difficulty level of A.I.
 	
+	public JButton solveButton;			///< Solves the Board for a win, loss or draw
+	public JTextField solveText;		///< Displays the result of solveButton
+	
 	java.awt.Color green;				///< Color of NxN Board Buttons
 	java.awt.Color lightGreen;			///< Color used for highlighting moves
 	
@@ -96,11 +99,11 @@ public class View {
 			for (int column = 0; column < board.columns; column++){
 				
 				/* Create Buttons */
-				Disk currentDisk = board.tile[row][column];
+				Color currentColor = board.diskColor(new Point(column, row));
 				Button currentButton = button[row][column];
-				if (currentDisk.color == Color.BLACK)
+				if (currentColor == Color.BLACK)
 					currentButton.setIcon(blackIcon);
-				else if (currentDisk.color == Color.WHITE)
+				else if (currentColor == Color.WHITE)
 					currentButton.setIcon(whiteIcon);
 				//currentButton.setIcon(currentDisk.image);
 				
@@ -150,6 +153,7 @@ public class View {
 		createForfeitButtons(panel);
 		createNewGameButtons(panel);
 		createDifficultyText(panel);
+		createSolveButton(panel);
 	}
 	
 	/**
@@ -266,6 +270,21 @@ public class View {
 		panel.add(difficultyText);
 	}
 	
+	/**
+	 * Creates a "Solve" JButton that finds out who wins the current Board with perfect play, and a text field for its result
+	 * @param panel		The panel to attach the JButton and JTextField to
+	 */
+	public void createSolveButton(JPanel panel){
+		solveButton = new JButton("Solve");
+		solveButton.setBounds(630, 370, 100, 40);
+		panel.add(solveButton);
+		solveText = new JTextField("");
+		solveText.setBounds(610, 415, 290, 40);
+		solveText.setEditable(false);
+		solveText.setBorder(null);
+		panel.add(solveText);
+	}
+	
 	/**
 	 * Updates the status of JButtons, Buttons, and JTextFields on current View
 	 */
@@ -275,6 +294,7 @@ public class View {
 		updateIcons();
 		updateNumDisks();
 		highlightMoves();
+		solveText.setText(""); // a solve is only for the Board it was done on
 	}
 	
 	/**
@@ -320,11 +340,11 @@ public class View {
 	public void updateIcons(){
 		for (int row = 0; row < board.rows; row++){
 			for (int column = 0; column < board.columns; column++){
-				Disk currentDisk = board.tile[row][column];
+				Color currentColor = board.diskColor(new Point(column, row));
 				Button currentButton = button[row][column];
-				if (currentDisk.color == Color.BLACK)
+				if (currentColor == Color.BLACK)
 					currentButton.setIcon(blackIcon);
-				else if (currentDisk.color == Color.WHITE)
+				else if (currentColor == Color.WHITE)
 					currentButton.setIcon(whiteIcon);
 				else
 					currentButton.setIcon(null);
@@ -0,0 +1,92 @@
+package main_components;
+
+import java.awt.Point;
+
+/**
+ * \brief
+ * Random keys for Zobrist hashing. A Board's hashKey is the XOR of the key of every Disk on it,
+ * plus WHITE_TO_MOVE when it is WHITE's turn, so it can be updated 1 Disk at a time.
+ * @author Rodney Shaghoulian
+ */
+public class Zobrist {
+	public static final int TABLE_SQUARES = 256;						///< Squares with a precomputed key. Larger Boards compute keys on the fly.
+	public static final long WHITE_TO_MOVE = mix(2 * TABLE_SQUARES);	///< XORed into the key when it is WHITE's turn
+
+	private static final long[] BLACK_KEYS = new long[TABLE_SQUARES];	///< Key of a BLACK Disk on each square
+	private static final long[] WHITE_KEYS = new long[TABLE_SQUARES];	///< Key of a WHITE Disk on each square
+	private static final long[] FLIP_KEYS = new long[TABLE_SQUARES];	///< BLACK key XOR WHITE key, for flipping a Disk
+	static {
+		for (int square = 0; square < TABLE_SQUARES; square++){
+			BLACK_KEYS[square] = mix(2 * square);
+			WHITE_KEYS[square] = mix(2 * square + 1);
+			FLIP_KEYS[square] = BLACK_KEYS[square] ^ WHITE_KEYS[square];
+		}
+	}
+
+	/**
+	 * Gets the key of a Disk
+	 * @param color		BLACK or WHITE (NONE has a key of 0)
+	 * @param square	The square index (row * columns + column)
+	 * @return			The key to XOR into a Board's hashKey
+	 */
+	public static long diskKey(Color color, int square){
+		if (color == Color.NONE)
+			return 0;
+		if (square >= TABLE_SQUARES)
+			return mix(2 * square + ((color == Color.BLACK) ? 0 : 1) + 1);
+		return (color == Color.BLACK) ? BLACK_KEYS[square] : WHITE_KEYS[square];
+	}
+
+	/**
+	 * Gets the change in key for flipping every Disk in a bitboard (8x8 Boards only)
+	 * @param mask	The Disks being flipped
+	 * @return		The key to XOR into a Board's hashKey
+	 */
+	public static long flipKey(long mask){
+		long key = 0;
+		for (; mask != 0; mask &= mask - 1)
+			key ^= FLIP_KEYS[Long.numberOfTrailingZeros(mask)];
+		return key;
+	}
+
+	/**
+	 * Calculates a Board's key from scratch. Board keeps its hashKey up to date incrementally, so this is only needed for checking.
+	 * @param board		The Board to calculate the key for
+	 * @return			The Zobrist key of the Board
+	 */
+	public static long key(Board board){
+		long key = (board.playerTurn == Color.WHITE) ? WHITE_TO_MOVE : 0;
+		for (int row = 0; row < board.rows; row++){
+			for (int col = 0; col < board.columns; col++){
+				key ^= diskKey(board.diskColor(new Point(col, row)), row * board.columns + col);
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Calculates the key of an 8x8 position after 1 of the 8 symmetries of the Board. Not a Zobrist key, so it can't be updated
+	 * incrementally, but symmetric positions get the same key when each is given its BitBoard.canonicalSymmetry().
+	 * @param blackDisks	BLACK Disks, as a bitboard
+	 * @param whiteDisks	WHITE Disks, as a bitboard
+	 * @param playerTurn	The Color whose turn it is
+	 * @param symmetry		0 to 7, as in BitBoard.transform()
+	 * @return				The key of the transformed position
+	 */
+	public static long symmetricKey(long blackDisks, long whiteDisks, Color playerTurn, int symmetry){
+		long key = mix(BitBoard.transform(blackDisks, symmetry)) ^ Long.rotateLeft(mix(~BitBoard.transform(whiteDisks, symmetry)), 32);
+		return (playerTurn == Color.WHITE) ? (key ^ WHITE_TO_MOVE) : key;
+	}
+
+	/**
+	 * A "splitmix64" mixing function, so the keys are the same on every run
+	 * @param seed	Any number
+	 * @return		A well mixed 64-bit number
+	 */
+	private static long mix(long seed){
+		long z = (seed + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
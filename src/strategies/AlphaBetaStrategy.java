@@ -1,12 +1,16 @@
 package strategies;
 
+import java.awt.Point;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import main_components.BitBoard;
 import main_components.Board;
 import main_components.Color;
 import main_components.Command;
 import main_components.Controller;
+import main_components.Zobrist;
 
 /**
  * \brief
@@ -15,16 +19,72 @@ import main_components.Controller;
  */
 public class AlphaBetaStrategy extends Strategy{
 
-	public int depth = 7;			///< The depth to search the game tree. Values 1 to 8 are practical.
+	public int depth = 60;			///< The deepest iteration of iterative deepening. Usually timeLimit stops the search first.
+	public long timeLimit = 1000;	///< Milliseconds a move may take. The search stops after the last iteration that fits.
 	
 	public int nodesExpanded = 0;	///< Number of nodes expanded during search.
 	
+	public Point bestMove;			///< The best move found at the root of the last search.
+	public int bestValue;			///< The utility of bestMove, from the last completed iteration.
+	public int depthReached;		///< The depth of the last completed iteration.
+	
+	public volatile long deadline = Long.MAX_VALUE;	///< Time (from System.currentTimeMillis) when the current iteration must stop. Another thread may set it to 0 to stop the search.
+	public boolean timeUp = false;			///< Set when an iteration runs past the deadline. Its result is thrown away.
+	public static final int POLL_INTERVAL = 1024;	///< The deadline is checked once in this many calls of alphaBeta (a power of 2)
+	private int polls = 0;					///< Calls of alphaBeta, counted by outOfTime()
+	public AlphaBetaStrategy parent;		///< For a ROOT_SPLIT task, the strategy whose deadline it polls instead of its own, so stop() reaches it. null otherwise.
+	public volatile boolean stopped = false;	///< Set by stop(). No iteration after depth 1 is started then. It stays set until the caller clears it.
+	
+	public TranspositionTable transpositionTable;	///< Results of Boards already searched. May be shared with other searches.
+	
+	public int endgameEmpties = 16;							///< With this many empty squares or fewer, the game is solved exactly (8x8 Boards only).
+	public EndgameSolver endgameSolver;						///< Solves the end of the game exactly. Created when first needed.
+	public boolean solved = false;							///< true if the last search solved the game. bestValue is then a win, loss or tie.
+	public int winLossDrawEmpties = 18;						///< With more than endgameEmpties but this many empty squares or fewer, the game is solved for a win, loss or draw only.
+	public boolean winLossDrawFirst = true;					///< Solve for a win, loss or draw before the exact solve, so a proven result is kept if the exact solve runs out of time.
+	public boolean solvedWinLossDraw = false;				///< true if the last search only proved who wins, not by how much. solved is also true then.
+	
+	public SearchMode searchMode = SearchMode.SERIAL;	///< How the search is spread over threads
+	public ForkJoinPool pool;							///< The threads used by SearchMode.ROOT_SPLIT and SearchMode.LAZY_SMP. If null, every mode searches on 1 thread.
+	public int helperThreads = Runtime.getRuntime().availableProcessors() - 1;	///< Number of helpers started by SearchMode.LAZY_SMP
+	
+	public long helperNodes;		///< Number of nodes expanded by LAZY_SMP helpers during the last search. Not counted in nodesExpanded.
+	public int helperDepthReached;	///< The deepest iteration completed by a LAZY_SMP helper during the last search.
+	public long searchTime;			///< Milliseconds taken by the last search.
+	
+	public MoveOrdering moveOrdering = new MoveOrdering();	///< Killer moves and history table of this search
+	public int evaluationLevels = 2;	///< Levels nearest the root that order moves by evaluating every child. Deeper levels use moveOrdering.
+	public PatternEvaluator patternEvaluator;	///< Evaluates 8x8 Boards when set. Otherwise Utility.finalValue is used.
+	
+	public OpeningBook openingBook;		///< Looked up before searching. null for no book.
+	public boolean fromBook = false;	///< true if the last move came from openingBook. bestValue and depthReached are then the book's.
+	
+	public ProbCut probCut;				///< Predicts deep searches from shallow ones, to skip subtrees that very likely fail high or low. null for none.
+	public double probCutThreshold = 1.5;	///< probCut only skips a subtree when the prediction is this many standard deviations outside the window
+	public int probCuts;				///< Number of subtrees skipped by probCut during the last search
+	
+	public int symmetricTurns = 12;		///< Boards up to this turn are stored in the TranspositionTable under their canonical form, so symmetric Boards share entries. 0 for none. Not used with a patternEvaluator that is not symmetric.
+	
+	public int aspirationWindow = 10;	///< Each iteration after the first searches the previous utility +/- this much. 0 searches with a full window.
+	public int aspirationGrowth = 4;	///< When the utility is outside the window, the window is multiplied by this much (at least 2) and searched again.
+	public int researches;				///< Number of times an iteration was searched again with a wider window during the last search.
+	
 	/**
-	 * Constructor - Calls subclasses constructor
+	 * Constructor - Calls subclasses constructor. Creates a new TranspositionTable.
 	 * @param controller	The Othello simulation that we should run AlphaBeta on.
 	 */
 	public AlphaBetaStrategy(Controller controller){
+		this(controller, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+	}
+	
+	/**
+	 * Constructor - Calls subclasses constructor
+	 * @param controller			The Othello simulation that we should run AlphaBeta on.
+	 * @param transpositionTable	The TranspositionTable to use, so it can be kept between moves.
+	 */
+	public AlphaBetaStrategy(Controller controller, TranspositionTable transpositionTable){
 		super(controller);
+		this.transpositionTable = transpositionTable;
 	}
 
 	/**
@@ -33,94 +93,700 @@ public class AlphaBetaStrategy extends Strategy{
 	 * @return			The updated Board after the "move" is performed.
 	 */
 	public Board move(Board board){
-		if (board.turn >= 48)
-			depth = 60;
-		
-		int alpha = Integer.MIN_VALUE;
-		int beta = Integer.MAX_VALUE;
+		int turn = board.turn;
+		iterativeDeepening(board);
+		EngineResult result = new EngineResult(this, board);
+		executeMove(board, bestMove);
+		System.out.println("Turn " + turn + "\n------\n" + result.report(board.columns));
+		return board;
+	}
+	
+	/**
+	 * Stops the current search from another thread. iterativeDeepening() still finishes depth 1,
+	 * and returns the best move of its last completed iteration.
+	 */
+	public void stop(){
+		stopped = true;
+		deadline = 0;
+		EndgameSolver solver = endgameSolver;
+		if (solver != null)
+			solver.deadline = 0;
+	}
+	
+	/**
+	 * Searches depth 1, 2, 3, ... until timeLimit runs out, depth is reached, or the whole game tree has been searched. \n
+	 * Each iteration searches the previous best move first. If an iteration runs out of time, its result is not used. \n
+	 * With endgameEmpties or fewer empty squares, the EndgameSolver gets the first half of timeLimit to solve the game exactly.
+	 * With winLossDrawEmpties or fewer, it only proves who wins, which takes far less time. \n
+	 * A position in openingBook is not searched at all.
+	 * @param board		The Board to find a move for. It is not changed.
+	 * @return			The best move of the last completed iteration (also saved in bestMove)
+	 */
+	public Point iterativeDeepening(Board board){
+		/* Search executes and undoes moves on a single copy of the Board */
+		Board searchBoard = new Board(board);
+		int emptySquares = board.rows * board.columns - board.blackPlayer.score - board.whitePlayer.score;
 		
 		long startTime = System.currentTimeMillis();
-		Board successorBoard = alphaBeta(board, 0, depth, alpha, beta);
-		long endTime = System.currentTimeMillis();
-		
-		double elapsedTime = (endTime - startTime) / 1000.0;
-		System.out.println("Turn " + board.turn + "\n------\nA.I. Move Time = " + elapsedTime + " seconds");
-		System.out.println("Game Boards expanded = " + nodesExpanded);
+		solved = false;
+		solvedWinLossDraw = false;
+		researches = 0;
+		probCuts = 0;
+		moveOrdering.clearKillers();
+		moveOrdering.age();
+		helperNodes = 0;
+		helperDepthReached = 0;
+		fromBook = false;
+		if (openingBook != null && probeBook(board)){
+			searchTime = System.currentTimeMillis() - startTime;
+			return bestMove;
+		}
+		boolean solvable = board.isBitBoard && emptySquares <= Math.max(endgameEmpties, winLossDrawEmpties);
+		if (solvable && ((emptySquares <= endgameEmpties) ? solveEndgame(board, startTime + timeLimit / 2) : solveWinLossDraw(board, startTime + timeLimit / 2))){
+			searchTime = System.currentTimeMillis() - startTime;
+			return bestMove;
+		}
 		
-		/* Execute the command */
-		Command command = getCommand(board, successorBoard);
-		commandManager.executeCommand(command);
+		ArrayList<LazySmpHelper> helpers = new ArrayList<>();
+		if (searchMode == SearchMode.LAZY_SMP && pool != null)
+			helpers = startHelpers(board, startTime + timeLimit);
 		
-		view.updateView();
+		Point completedMove = null;
+		timeUp = false;
+		for (int iterationDepth = 1; iterationDepth <= depth; iterationDepth++){
+			deadline = (iterationDepth == 1) ? Long.MAX_VALUE : startTime + timeLimit; // always finish depth 1
+			if (stopped && iterationDepth > 1)
+				break;
+			int value = searchRoot(searchBoard, iterationDepth);
+			if (timeUp && iterationDepth == 1){ // stop() interrupted depth 1, which must finish
+				timeUp = false;
+				iterationDepth--;
+				continue;
+			}
+			if (timeUp)
+				break;
+			completedMove = bestMove;
+			bestValue = value;
+			depthReached = iterationDepth;
+			
+			/* Stop if the game tree is fully searched, or the next iteration probably won't finish in time */
+			if (iterationDepth >= emptySquares || System.currentTimeMillis() - startTime > timeLimit / 2)
+				break;
+		}
+		stopHelpers(helpers);
+		bestMove = completedMove;
+		deadline = Long.MAX_VALUE;
+		timeUp = false;
+		searchTime = System.currentTimeMillis() - startTime;
+		return completedMove;
+	}
+	
+	/**
+	 * Starts the LAZY_SMP helpers. Odd helpers start 1 depth ahead of the main search, so helpers fill the
+	 * TranspositionTable with Boards the main search is about to need.
+	 * @param board		The Board to search. Each helper gets its own copy.
+	 * @param deadline	Time (from System.currentTimeMillis) when the helpers must stop
+	 * @return			The helpers, so they can be stopped
+	 */
+	public ArrayList<LazySmpHelper> startHelpers(Board board, long deadline){
+		ArrayList<LazySmpHelper> helpers = new ArrayList<>();
+		for (int i = 0; i < helperThreads; i++){
+			AlphaBetaStrategy strategy = helperStrategy();
+			strategy.deadline = deadline;
+			LazySmpHelper helper = new LazySmpHelper(strategy, new Board(board), 1 + (i + 1) % 2, depth);
+			pool.execute(helper);
+			helpers.add(helper);
+		}
+		return helpers;
+	}
+	
+	/**
+	 * Stops the LAZY_SMP helpers, waits for them to finish, and adds up their statistics
+	 * @param helpers	The helpers returned by startHelpers
+	 */
+	public void stopHelpers(ArrayList<LazySmpHelper> helpers){
+		for (LazySmpHelper helper : helpers)
+			helper.strategy.deadline = 0;
+		for (LazySmpHelper helper : helpers){
+			helper.join();
+			helperNodes += helper.strategy.nodesExpanded;
+			helperDepthReached = Math.max(helperDepthReached, helper.depthReached);
+		}
+	}
+	
+	/**
+	 * Searches 1 iteration of iterative deepening
+	 * @param board			The Board to do a "move" on. It is unchanged when this function returns.
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @return				The utility of the Board. The best move is saved in bestMove.
+	 */
+	public int searchRoot(Board board, int maxDepth){
+		if (searchMode == SearchMode.ROOT_SPLIT && pool != null)
+			return parallelAlphaBeta(board, maxDepth);
+		if (aspirationWindow > 0 && maxDepth > 1)
+			return aspirationSearch(board, maxDepth, bestValue);
+		return alphaBeta(board, 0, maxDepth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Searches with a narrow "aspiration" window around a guess. If the utility is outside the window,
+	 * the window is widened on that side by aspirationGrowth and searched again, until the utility is inside it.
+	 * @param board			The Board to do a "move" on. It is unchanged when this function returns.
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @param guess			The expected utility, usually from the previous iteration
+	 * @return				The utility of the Board. The best move is saved in bestMove.
+	 */
+	public int aspirationSearch(Board board, int maxDepth, int guess){
+		Point previousMove = bestMove;
+		long window = aspirationWindow;
+		int alpha = clamp(guess - window);
+		int beta = clamp(guess + window);
+		while (true){
+			bestMove = previousMove; // searched first at the root
+			int value = alphaBeta(board, 0, maxDepth, alpha, beta);
+			if (timeUp || (value > alpha && value < beta) || (alpha == Integer.MIN_VALUE && beta == Integer.MAX_VALUE))
+				return value;
+			
+			/* Fail low or fail high: widen the window on that side */
+			researches++;
+			window *= Math.max(2, aspirationGrowth);
+			if (value <= alpha)
+				alpha = clamp(value - window);
+			else
+				beta = clamp(value + window);
+		}
+	}
+	
+	/**
+	 * Clamps a window bound to the range of an int
+	 */
+	private static int clamp(long bound){
+		return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, bound));
+	}
+	
+	/**
+	 * Looks up a Board in openingBook
+	 * @param board		The Board to find a move for
+	 * @return			true if the Board is in the book (bestMove, bestValue and depthReached are set). false otherwise.
+	 */
+	public boolean probeBook(Board board){
+		BookEntry entry = openingBook.probe(board);
+		if (entry == null)
+			return false;
+		bestMove = BitBoard.point(entry.move);
+		bestValue = (board.playerTurn == Color.BLACK) ? entry.score : -entry.score;
+		depthReached = entry.depth;
+		fromBook = true;
+		return true;
+	}
+	
+	/**
+	 * Solves the rest of the game exactly with the EndgameSolver, after solving it for a win, loss or draw if winLossDrawFirst is set
+	 * @param board		An 8x8 Board to find a move for. It is not changed.
+	 * @param deadline	Time (from System.currentTimeMillis) when the solver must give up
+	 * @return			true if the game was solved (bestMove, bestValue and depthReached are set). false if time ran out.
+	 */
+	public boolean solveEndgame(Board board, long deadline){
+		boolean proven = winLossDrawFirst && solveWinLossDraw(board, deadline);
+		startSolver(deadline);
+		int score = endgameSolver.solve(board);
+		nodesExpanded += endgameSolver.nodes;
+		endgameSolver.deadline = Long.MAX_VALUE;
+		if (endgameSolver.timeUp || endgameSolver.bestMove == EndgameSolver.NO_MOVE)
+			return proven;
 		
-		/* Display utility to console */
-		Utility utility = new Utility(successorBoard);
-		utility.utilityFinal();
-		System.out.println("utility complex = " + utility.value + "\n");
+		bestMove = BitBoard.point(endgameSolver.bestMove);
+		bestValue = EndgameSolver.toUtility(score, board.playerTurn);
+		depthReached = Long.bitCount(board.emptySquares());
+		solved = true;
+		solvedWinLossDraw = false;
+		return true;
+	}
+	
+	/**
+	 * Solves the rest of the game for a win, loss or draw with the EndgameSolver. \n
+	 * A proven loss is not used: every move loses, so the move is left to the search, which tends to keep the game closer.
+	 * @param board		An 8x8 Board to find a move for. It is not changed.
+	 * @param deadline	Time (from System.currentTimeMillis) when the solver must give up
+	 * @return			true if a win or draw was proven (bestMove, bestValue and depthReached are set). false for a loss, or if time ran out.
+	 */
+	public boolean solveWinLossDraw(Board board, long deadline){
+		startSolver(deadline);
+		int result = endgameSolver.solveWinLossDraw(board);
+		nodesExpanded += endgameSolver.nodes;
+		endgameSolver.deadline = Long.MAX_VALUE;
+		if (endgameSolver.timeUp || endgameSolver.bestMove == EndgameSolver.NO_MOVE || result < 0)
+			return false;
 		
-		return board;
+		bestMove = BitBoard.point(endgameSolver.bestMove);
+		bestValue = EndgameSolver.toUtility(result, board.playerTurn);
+		depthReached = Long.bitCount(board.emptySquares());
+		solved = true;
+		solvedWinLossDraw = true;
+		return true;
+	}
+	
+	/**
+	 * Gets the EndgameSolver ready for a solve, creating it when first needed
+	 * @param deadline	Time (from System.currentTimeMillis) when the solver must give up
+	 */
+	private void startSolver(long deadline){
+		if (endgameSolver == null)
+			endgameSolver = new EndgameSolver();
+		endgameSolver.nodes = 0;
+		endgameSolver.deadline = stopped ? 0 : deadline;
+	}
+	
+	/**
+	 * Checks the deadline once every POLL_INTERVAL calls, counting every node including the leaves, so the clock is read rarely but regularly.
+	 * A ROOT_SPLIT task checks its parent's deadline, which the parent's stop() sets to 0.
+	 * @return	true if the search must stop. timeUp is then set.
+	 */
+	protected boolean outOfTime(){
+		if (!timeUp && (++polls & (POLL_INTERVAL - 1)) == 0 && System.currentTimeMillis() >= ((parent != null) ? parent.deadline : deadline))
+			timeUp = true;
+		return timeUp;
 	}
 	
 	/**
-	 * Recursive function. Uses AlphaBeta strategy to determine the next move
+	 * Recursive function. Uses AlphaBeta strategy to determine the next move. \n
+	 * Moves are executed and undone on the given Board, so it is unchanged when this function returns. \n
+	 * Results are saved in the TranspositionTable, so Boards reached by a different order of moves are not searched again.
 	 * @param board			The Board to do a "move" on.
 	 * @param currLevel		The current depth we've searched to in game tree (where 0 corresponds to current state of Board)
 	 * @param maxDepth		The number of levels deep we should search the game tree
 	 * @param alpha			"value of the best choice of the max player" - CS 440 lecture slides
 	 * @param beta			"lowest utility choice found so far for the min player" - CS 440 lecture slides
-	 * @return				The Board after the "move" is performed.
+	 * @return				The utility of the Board. The best move is saved in bestMove when currLevel is 0.
 	 */
-	public Board alphaBeta(Board board, int currLevel, int maxDepth, int alpha, int beta){
+	public int alphaBeta(Board board, int currLevel, int maxDepth, int alpha, int beta){
+		if (outOfTime())
+			return 0; // ignored, since the iteration is thrown away
 		if (board.gameEnded || (currLevel == maxDepth))
-			return board;
-		Utility utility;
+			return evaluate(board);
 		
-		ArrayList<Board> successorBoards = getAdjacentBoards(board);
-		Board bestBoard = null;
+		/* Use a saved result if it was searched deep enough. The root always searches, so it can set bestMove. */
+		int depthLeft = maxDepth - currLevel;
+		int hashMove = TranspositionTable.NO_MOVE;
+		int symmetry = tableSymmetry(board);
+		long key = tableKey(board, symmetry);
+		long entry = transpositionTable.probe(key);
+		if (entry != TranspositionTable.MISS){
+			hashMove = boardMove(TranspositionTable.move(entry), symmetry);
+			int score = TranspositionTable.score(entry);
+			int bound = TranspositionTable.bound(entry);
+			if (currLevel > 0 && TranspositionTable.depth(entry) >= depthLeft){
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && score <= alpha))
+					return score;
+			}
+		}
 		
-		if (board.playerTurn == Color.BLACK){
-			/* Sort Boards corresponding to stronger moves first */
-			Collections.sort(successorBoards, Collections.reverseOrder(new BoardComparatorWhite()));
-			
-			int max = Integer.MIN_VALUE;
-			for (int i = 0; i < successorBoards.size(); i++){
-				nodesExpanded++;
-				Board successor = successorBoards.get(i);
-				Board lookaheadBoard = alphaBeta(successor, currLevel + 1, maxDepth, alpha, beta);
-				utility = new Utility(lookaheadBoard);
-				utility.utilityFinal();
-				if (utility.value > max){
-					max = utility.value;
-					bestBoard = successor;
-				}
-				alpha = Math.max(alpha, utility.value);
-				if (utility.value >= beta){
-					return lookaheadBoard; // this is where we "prune", since MIN player will not allow this branch
-				}
+		boolean blackTurn = (board.playerTurn == Color.BLACK); // BLACK maximizes utility. WHITE minimizes it.
+		if (probCut != null){
+			int cut = probCut(board, currLevel, depthLeft, blackTurn ? alpha : -(long) beta, blackTurn ? beta : -(long) alpha);
+			if (timeUp)
+				return 0;
+			if (cut != 0)
+				return (blackTurn == (cut > 0)) ? beta : alpha;
+		}
+		
+		int alphaOriginal = alpha;
+		int betaOriginal = beta;
+		ArrayList<Point> moves = orderedMoves(board, hashMove, currLevel);
+		
+		int bestValue = blackTurn ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		Point bestPoint = null;
+		for (Point move : moves){
+			nodesExpanded++;
+			Command command = new Command(board, board.playerTurn, move);
+			command.execute();
+			int value = alphaBeta(board, currLevel + 1, maxDepth, alpha, beta);
+			command.undo();
+			if (timeUp)
+				return 0;
+			if (blackTurn ? (value > bestValue) : (value < bestValue)){
+				bestValue = value;
+				bestPoint = move;
+				if (currLevel == 0)
+					bestMove = move;
+			}
+			if (blackTurn)
+				alpha = Math.max(alpha, value);
+			else
+				beta = Math.min(beta, value);
+			if (blackTurn ? (value >= beta) : (value <= alpha)){
+				moveOrdering.cutoff(board, move, currLevel, depthLeft);
+				break; // this is where we "prune", since the other player will not allow this branch
 			}
 		}
-		else{
-			/* Sort Boards corresponding to stronger moves first */
-			Collections.sort(successorBoards, new BoardComparatorWhite());
-			
-			int min = Integer.MAX_VALUE;
-			for (int i = 0; i < successorBoards.size(); i++){
-				nodesExpanded++;
-				Board successor = successorBoards.get(i);
-				Board lookaheadBoard = alphaBeta(successor, currLevel + 1, maxDepth, alpha, beta);
-				utility = new Utility(lookaheadBoard);
-				utility.utilityFinal();
-				if (utility.value < min){
-					min = utility.value;
-					bestBoard = successor;
-				}
-				beta = Math.min(beta, utility.value);
-				if (utility.value <= alpha){
-					return lookaheadBoard; // this is where we "prune", since MAX player will not allow this branch
-				}
+		
+		/* Save result */
+		int bound = TranspositionTable.EXACT;
+		if (bestValue <= alphaOriginal)
+			bound = TranspositionTable.UPPER_BOUND;
+		else if (bestValue >= betaOriginal)
+			bound = TranspositionTable.LOWER_BOUND;
+		transpositionTable.store(key, depthLeft, bound, bestValue, tableMove(bestPoint.y * board.columns + bestPoint.x, symmetry));
+		
+		return bestValue;
+	}
+	
+	/**
+	 * Multi-ProbCut: predicts the value of a deep search from shallow searches of the same Board, using the linear fits of probCut.
+	 * If a shallow search shows the deep value is very likely outside the window, the deep subtree does not need to be searched. \n
+	 * The checks of the depth are tried from the shallowest, each with a null window at the shallow value that predicts beta, then alpha.
+	 * @param board			The Board. It is unchanged when this function returns.
+	 * @param currLevel		The current depth in the game tree. The root is never skipped, so it can set bestMove.
+	 * @param depthLeft		The number of levels left to search below the Board
+	 * @param alpha			The lowest value (for board.playerTurn) we are interested in
+	 * @param beta			The highest value (for board.playerTurn) we are interested in
+	 * @return				1 if the search would very likely fail high (for board.playerTurn), -1 if it would fail low, 0 to search it
+	 */
+	public int probCut(Board board, int currLevel, int depthLeft, long alpha, long beta){
+		if (currLevel == 0 || !board.isBitBoard)
+			return 0;
+		int phase = probCut.phase(board.turn);
+		for (int check : probCut.checks(depthLeft)){
+			int shallowDepth = currLevel + probCut.shallowDepths[check];
+			long bound = probCut.highBound(check, phase, beta, probCutThreshold);
+			if (inRange(bound) && nullWindowSearch(board, currLevel, shallowDepth, bound) >= bound){
+				probCuts++;
+				return 1;
+			}
+			bound = probCut.lowBound(check, phase, alpha, probCutThreshold);
+			if (inRange(bound) && nullWindowSearch(board, currLevel, shallowDepth, bound + 1) <= bound){
+				probCuts++;
+				return -1;
+			}
+			if (timeUp)
+				return 0;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Tests if a ProbCut bound can be searched. Bounds past the evaluations of the search can't be predicted.
+	 */
+	private static boolean inRange(long bound){
+		return bound > -PatternEvaluator.MAX_VALUE && bound < PatternEvaluator.MAX_VALUE;
+	}
+	
+	/**
+	 * Tests if the value of a Board is at least some bound, with the narrowest window
+	 * @param board			The Board. It is unchanged when this function returns.
+	 * @param currLevel		The current depth in the game tree
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @param bound			The bound (for board.playerTurn) to test
+	 * @return				The value (for board.playerTurn): at least bound if the Board reaches it, below bound otherwise
+	 */
+	private int nullWindowSearch(Board board, int currLevel, int maxDepth, long bound){
+		if (board.playerTurn == Color.BLACK)
+			return alphaBeta(board, currLevel, maxDepth, (int) bound - 1, (int) bound);
+		return -alphaBeta(board, currLevel, maxDepth, (int) -bound, (int) -bound + 1);
+	}
+	
+	/**
+	 * Searches the root of the game tree in parallel, using "Young Brothers Wait": \n
+	 * The first (eldest) move is searched on this thread. Then the other moves are searched at the same time by the pool,
+	 * each starting with the best root value found so far as its alpha (or beta for WHITE). \n
+	 * Gives the same utility as alphaBeta at the root. When moves tie, the move chosen can depend on which searches finished first.
+	 * @param board			The Board to do a "move" on. It is unchanged when this function returns.
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @return				The utility of the Board. The best move is saved in bestMove.
+	 */
+	public int parallelAlphaBeta(Board board, int maxDepth){
+		if (board.gameEnded || maxDepth == 0)
+			return alphaBeta(board, 0, maxDepth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		
+		boolean blackTurn = (board.playerTurn == Color.BLACK);
+		int symmetry = tableSymmetry(board);
+		long key = tableKey(board, symmetry);
+		long entry = transpositionTable.probe(key);
+		int hashMove = (entry == TranspositionTable.MISS) ? TranspositionTable.NO_MOVE : boardMove(TranspositionTable.move(entry), symmetry);
+		ArrayList<Point> moves = orderedMoves(board, hashMove, 0);
+		
+		/* The eldest brother is searched first, on this thread */
+		int[] values = new int[moves.size()];
+		nodesExpanded++;
+		Command command = new Command(board, board.playerTurn, moves.get(0));
+		command.execute();
+		values[0] = alphaBeta(board, 1, maxDepth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		command.undo();
+		if (timeUp)
+			return 0;
+		
+		/* The younger brothers are searched in parallel */
+		AtomicInteger sharedBound = new AtomicInteger(values[0]);
+		ArrayList<RootMoveTask> tasks = new ArrayList<>();
+		for (int i = 1; i < moves.size(); i++){
+			AlphaBetaStrategy strategy = helperStrategy();
+			strategy.parent = this;
+			RootMoveTask task = new RootMoveTask(strategy, new Board(board), moves.get(i), maxDepth, sharedBound);
+			pool.execute(task);
+			tasks.add(task);
+		}
+		for (int i = 1; i < moves.size(); i++){
+			RootMoveTask task = tasks.get(i - 1);
+			values[i] = task.join();
+			nodesExpanded += task.strategy.nodesExpanded + 1;
+			if (task.strategy.timeUp)
+				timeUp = true;
+		}
+		if (timeUp)
+			return 0;
+		
+		/* Pick the best move in the order the moves were sorted. A value no better than the bound it was searched with is not exact, so it is skipped. */
+		int bestIndex = 0;
+		for (int i = 1; i < values.length; i++){
+			RootMoveTask task = tasks.get(i - 1);
+			boolean exact = blackTurn ? (values[i] > task.boundUsed) : (values[i] < task.boundUsed);
+			if (exact && (blackTurn ? (values[i] > values[bestIndex]) : (values[i] < values[bestIndex])))
+				bestIndex = i;
+		}
+		bestMove = moves.get(bestIndex);
+		transpositionTable.store(key, maxDepth, TranspositionTable.EXACT, values[bestIndex], tableMove(bestMove.y * board.columns + bestMove.x, symmetry));
+		return values[bestIndex];
+	}
+	
+	/**
+	 * Gets the valid moves sorted so stronger moves come first, starting with the saved best move. \n
+	 * Near the root, moves are sorted by evaluating the Board after each one. Deeper, evaluating would cost more
+	 * than it saves, so moves are sorted by moveOrdering instead.
+	 * @param board			The Board the moves will be done on. It is unchanged when this function returns.
+	 * @param hashMove		The square of the best move saved in the TranspositionTable, or TranspositionTable.NO_MOVE
+	 * @param currLevel		The current depth in the game tree. At the root, the best move of the previous iteration goes first.
+	 * @return				The sorted moves
+	 */
+	public ArrayList<Point> orderedMoves(Board board, int hashMove, int currLevel){
+		ArrayList<Point> moves = getValidMoves(board);
+		if (currLevel < evaluationLevels)
+			sortMoves(board, moves, board.playerTurn == Color.BLACK);
+		else
+			moveOrdering.sort(board, moves, currLevel);
+		moveToFront(moves, hashMove, board.columns);
+		if (currLevel == 0 && bestMove != null)
+			moveToFront(moves, bestMove.y * board.columns + bestMove.x, board.columns); // best move of the previous iteration
+		if (currLevel == 0 && board.isBitBoard && symmetricEvaluation())
+			removeSymmetricMoves(board, moves);
+		return moves;
+	}
+	
+	/**
+	 * Removes moves that lead to the same Board as an earlier move by a symmetry of the Board, such as 3 of the 4 first moves. \n
+	 * Only done at the root, since symmetric Boards are rare deeper, and searching all of them gives the same utility anyway.
+	 * @param board		An 8x8 Board
+	 * @param moves		Its valid moves, in the order to search them. The first of each set of symmetric moves is kept.
+	 */
+	public static void removeSymmetricMoves(Board board, ArrayList<Point> moves){
+		int symmetries = BitBoard.symmetries(board.blackDisks, board.whiteDisks);
+		if (symmetries == 1)
+			return;
+		long kept = 0;
+		for (int i = 0; i < moves.size(); i++){
+			int square = BitBoard.square(moves.get(i));
+			boolean duplicate = false;
+			for (int symmetry = 1; symmetry < 8; symmetry++){
+				if ((symmetries & (1 << symmetry)) != 0 && (kept & (1L << BitBoard.transformSquare(square, symmetry))) != 0)
+					duplicate = true;
+			}
+			if (duplicate)
+				moves.remove(i--);
+			else
+				kept |= 1L << square;
+		}
+	}
+	
+	/**
+	 * Gets the principal variation of the last search: bestMove, then the best move stored for each Board after it. \n
+	 * Solved Boards follow the EndgameSolver's TranspositionTable, others follow this one. The line stops after depthReached moves,
+	 * at a Board that is not stored or whose stored move is not valid, or when the game ends.
+	 * @param board		The Board that was searched. It is not changed.
+	 * @return			The squares (row * columns + column) of the moves, in order. Passes are skipped. Empty if there is no bestMove.
+	 */
+	public int[] principalVariation(Board board){
+		ArrayList<Integer> line = new ArrayList<>();
+		Board lineBoard = new Board(board);
+		int maxLength = fromBook ? 1 : Math.max(1, depthReached);
+		int square = (bestMove == null) ? TranspositionTable.NO_MOVE : bestMove.y * board.columns + bestMove.x;
+		while (square != TranspositionTable.NO_MOVE && line.size() < maxLength){
+			Point move = new Point(square % board.columns, square / board.columns);
+			if (!lineBoard.validMove(move, lineBoard.playerTurn))
+				break;
+			line.add(square);
+			new Command(lineBoard, lineBoard.playerTurn, move).execute();
+			if (lineBoard.gameEnded)
+				break;
+			square = storedMove(lineBoard);
+		}
+		int[] squares = new int[line.size()];
+		for (int i = 0; i < squares.length; i++)
+			squares[i] = line.get(i);
+		return squares;
+	}
+	
+	/**
+	 * Gets the best move stored for a Board by the last search
+	 * @param board		The Board
+	 * @return			The square of the move, or TranspositionTable.NO_MOVE if the Board is not stored
+	 */
+	private int storedMove(Board board){
+		if (solved){
+			if (endgameSolver == null)
+				return TranspositionTable.NO_MOVE;
+			long key = EndgameSolver.key(board.disks(board.playerTurn), board.disks(board.getOppositeColor(board.playerTurn)));
+			long entry = endgameSolver.transpositionTable.probe(key);
+			return (entry == TranspositionTable.MISS) ? TranspositionTable.NO_MOVE : TranspositionTable.move(entry);
+		}
+		int symmetry = tableSymmetry(board);
+		long entry = transpositionTable.probe(tableKey(board, symmetry));
+		return (entry == TranspositionTable.MISS) ? TranspositionTable.NO_MOVE : boardMove(TranspositionTable.move(entry), symmetry);
+	}
+	
+	/**
+	 * Finds the symmetry a Board is stored under in the TranspositionTable
+	 * @param board		The Board
+	 * @return			The symmetry to its canonical form (as in BitBoard.transform()), or -1 if it is stored under its hashKey
+	 */
+	public int tableSymmetry(Board board){
+		if (!board.isBitBoard || board.turn > symmetricTurns || !symmetricEvaluation())
+			return -1;
+		return BitBoard.canonicalSymmetry(board.blackDisks, board.whiteDisks);
+	}
+	
+	/**
+	 * Checks symmetric Boards get the same utility, so they may share results
+	 * @return	true unless patternEvaluator is set and is not symmetric
+	 */
+	public boolean symmetricEvaluation(){
+		return patternEvaluator == null || patternEvaluator.symmetric;
+	}
+	
+	/**
+	 * Gets the key a Board is stored under in the TranspositionTable
+	 * @param board		The Board
+	 * @param symmetry	The Board's tableSymmetry()
+	 * @return			The key of its canonical form, or its hashKey
+	 */
+	public static long tableKey(Board board, int symmetry){
+		if (symmetry < 0)
+			return board.hashKey;
+		return Zobrist.symmetricKey(board.blackDisks, board.whiteDisks, board.playerTurn, symmetry);
+	}
+	
+	/**
+	 * Transforms a move of a Board into the orientation it is stored in the TranspositionTable
+	 * @param square	The square of the move, or TranspositionTable.NO_MOVE
+	 * @param symmetry	The Board's tableSymmetry()
+	 * @return			The square in the canonical form
+	 */
+	public static int tableMove(int square, int symmetry){
+		if (symmetry < 0 || square == TranspositionTable.NO_MOVE)
+			return square;
+		return BitBoard.transformSquare(square, symmetry);
+	}
+	
+	/**
+	 * Transforms a move stored in the TranspositionTable back into the orientation of a Board
+	 * @param square	The square stored, or TranspositionTable.NO_MOVE
+	 * @param symmetry	The Board's tableSymmetry()
+	 * @return			The square on the Board
+	 */
+	public static int boardMove(int square, int symmetry){
+		if (symmetry < 0 || square == TranspositionTable.NO_MOVE)
+			return square;
+		return BitBoard.transformSquare(square, BitBoard.inverse(symmetry));
+	}
+	
+	/**
+	 * Evaluates a Board at the bottom of the search
+	 * @param board		The Board to evaluate
+	 * @return			The utility of the Board, from patternEvaluator on 8x8 Boards if it is set, otherwise from Utility.finalValue
+	 */
+	public int evaluate(Board board){
+		if (patternEvaluator == null || !board.isBitBoard)
+			return Utility.finalValue(board);
+		if (board.gameEnded)
+			return Utility.gameEndedValue(board);
+		return patternEvaluator.value(board);
+	}
+	
+	/**
+	 * Creates a strategy of the same type and search settings, for a search on another thread. \n
+	 * It searches on its own thread only (SERIAL, without a pool), and keeps its own statistics and moveOrdering.
+	 * @return	A new AlphaBetaStrategy that shares this TranspositionTable
+	 */
+	public AlphaBetaStrategy helperStrategy(){
+		AlphaBetaStrategy strategy = newStrategy();
+		strategy.timeLimit = timeLimit;
+		strategy.depth = depth;
+		strategy.evaluationLevels = evaluationLevels;
+		strategy.patternEvaluator = patternEvaluator;
+		strategy.probCut = probCut;
+		strategy.probCutThreshold = probCutThreshold;
+		strategy.symmetricTurns = symmetricTurns;
+		strategy.aspirationWindow = aspirationWindow;
+		strategy.aspirationGrowth = aspirationGrowth;
+		return strategy;
+	}
+	
+	/**
+	 * Creates a strategy of the same type with default settings, for helperStrategy()
+	 * @return	A new AlphaBetaStrategy that shares this TranspositionTable
+	 */
+	protected AlphaBetaStrategy newStrategy(){
+		return new AlphaBetaStrategy(controller, transpositionTable);
+	}
+	
+	/**
+	 * Moves 1 move to the front of a list of moves, keeping the order of the others
+	 * @param moves		The moves
+	 * @param square	The square (row * columns + column) of the move to put first, or TranspositionTable.NO_MOVE
+	 * @param columns	The number of columns on the Board
+	 */
+	public void moveToFront(ArrayList<Point> moves, int square, int columns){
+		if (square == TranspositionTable.NO_MOVE)
+			return;
+		for (int i = 0; i < moves.size(); i++){
+			Point move = moves.get(i);
+			if (move.y * columns + move.x == square){
+				moves.remove(i);
+				moves.add(0, move);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Sorts moves by the utility of the Board right after each move. Ties keep their original order.
+	 * @param board			The Board the moves will be done on. It is unchanged when this function returns.
+	 * @param moves			The moves to sort.
+	 * @param blackFirst	true to put moves that are best for BLACK first. false to put moves best for WHITE first.
+	 */
+	public void sortMoves(Board board, ArrayList<Point> moves, boolean blackFirst){
+		int[] values = new int[moves.size()];
+		for (int i = 0; i < values.length; i++){
+			Command command = new Command(board, board.playerTurn, moves.get(i));
+			command.execute();
+			int value = evaluate(board);
+			values[i] = blackFirst ? -value : value;
+			command.undo();
+		}
+		
+		/* Insertion sort: it is stable, and there are rarely more than 15 moves */
+		for (int i = 1; i < values.length; i++){
+			int value = values[i];
+			Point move = moves.get(i);
+			int j = i - 1;
+			while (j >= 0 && values[j] > value){
+				values[j + 1] = values[j];
+				moves.set(j + 1, moves.get(j));
+				j--;
 			}
+			values[j + 1] = value;
+			moves.set(j + 1, move);
 		}
-		return bestBoard;
 	}
 }
 
@@ -0,0 +1,85 @@
+package strategies;
+
+import main_components.BitBoard;
+
+/**
+ * \brief
+ * A position of the OpeningBook, and the move to play in it. \n
+ * Positions are from the point of view of the player to move, so a position is the same whichever Color reached it.
+ * @author Rodney Shaghoulian
+ */
+public class BookEntry implements Comparable<BookEntry> {
+	public long player;		///< Disks of the player to move, as a bitboard
+	public long opponent;	///< Disks of the opponent, as a bitboard
+	public int move;		///< Square of the best move (y * 8 + x)
+	public int score;		///< Utility of the position for the player to move, from the search that built the book
+	public int depth;		///< Depth of the search the score came from
+
+	/**
+	 * Constructor
+	 * @param player	Disks of the player to move
+	 * @param opponent	Disks of the opponent
+	 * @param move		Square of the best move (y * 8 + x)
+	 * @param score		Utility of the position for the player to move
+	 * @param depth		Depth of the search the score came from
+	 */
+	public BookEntry(long player, long opponent, int move, int score, int depth){
+		this.player = player;
+		this.opponent = opponent;
+		this.move = move;
+		this.score = score;
+		this.depth = depth;
+	}
+
+	/**
+	 * Transforms the entry by 1 of the 8 symmetries of the Board
+	 * @param symmetry	0 to 7, as in BitBoard.transform()
+	 * @return			A new entry with the position and move transformed
+	 */
+	public BookEntry transform(int symmetry){
+		return new BookEntry(BitBoard.transform(player, symmetry), BitBoard.transform(opponent, symmetry),
+							 BitBoard.transformSquare(move, symmetry), score, depth);
+	}
+
+	/**
+	 * Gets the entry in its canonical form, the form stored in the OpeningBook
+	 * @return	A new entry transformed by BitBoard.canonicalSymmetry()
+	 */
+	public BookEntry canonical(){
+		return transform(BitBoard.canonicalSymmetry(player, opponent));
+	}
+
+	/**
+	 * Compares the positions of 2 entries, in the order of the OpeningBook file
+	 * @param other		The other entry
+	 * @return			Negative, 0 or positive if this position is before, the same as or after the other position
+	 */
+	@Override
+	public int compareTo(BookEntry other){
+		int compare = Long.compare(player, other.player);
+		return (compare != 0) ? compare : Long.compare(opponent, other.opponent);
+	}
+
+	/**
+	 * Checks if 2 entries have the same position, consistent with compareTo()
+	 * @param other		The other object
+	 * @return			true if other is a BookEntry with the same position
+	 */
+	@Override
+	public boolean equals(Object other){
+		if (!(other instanceof BookEntry))
+			return false;
+		BookEntry otherEntry = (BookEntry) other;
+		return player == otherEntry.player && opponent == otherEntry.opponent;
+	}
+
+	/**
+	 * Gets the hash code of the position, consistent with equals()
+	 * @return	The hash code
+	 */
+	@Override
+	public int hashCode(){
+		long hash = player * 0x9E3779B97F4A7C15L ^ opponent;
+		return (int) (hash ^ (hash >>> 32));
+	}
+}
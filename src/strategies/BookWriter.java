@@ -0,0 +1,102 @@
+package strategies;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * \brief
+ * Writes an OpeningBook file 1 entry at a time, so a book never has to fit in memory. \n
+ * Entries must be added in canonical form and in order. When the same position is added more than once in a row,
+ * the deepest entry is kept, and of entries equally deep, the last one.
+ * @author Rodney Shaghoulian
+ */
+public class BookWriter implements AutoCloseable {
+	private static final int BUFFER_ENTRIES = 4096;	///< Number of entries written to the file at a time
+
+	private final RandomAccessFile file;	///< The book file
+	private final FileChannel channel;		///< Writes to the book file
+	private final ByteBuffer buffer;		///< Entries not yet written to the file
+	private BookEntry last;					///< The last entry added. Not in buffer yet, in case the next entry replaces it.
+	public int size = 0;					///< Number of entries in the file so far
+
+	/**
+	 * Constructor - Starts the file. The number of entries in the header is written by close().
+	 * @param file			The file to write. It is replaced if it exists.
+	 * @throws IOException	If the file can't be written
+	 */
+	public BookWriter(File file) throws IOException {
+		this.file = new RandomAccessFile(file, "rw");
+		this.file.setLength(0);
+		channel = this.file.getChannel();
+		buffer = ByteBuffer.allocate(BUFFER_ENTRIES * OpeningBook.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(0);
+	}
+
+	/**
+	 * Adds 1 entry
+	 * @param entry			An entry in canonical form, not before the last entry added
+	 * @throws IOException	If the file can't be written
+	 */
+	public void add(BookEntry entry) throws IOException {
+		if (last != null){
+			int compare = last.compareTo(entry);
+			if (compare > 0)
+				throw new IllegalArgumentException("book entries must be added in order");
+			if (compare == 0){
+				if (entry.depth >= last.depth)
+					last = entry;
+				return;
+			}
+			put(last);
+		}
+		last = entry;
+	}
+
+	/**
+	 * Puts 1 entry in the buffer, writing the buffer to the file when it is full
+	 * @param entry			The entry
+	 * @throws IOException	If the file can't be written
+	 */
+	private void put(BookEntry entry) throws IOException {
+		if (buffer.remaining() < OpeningBook.RECORD_BYTES)
+			flush();
+		buffer.putLong(entry.player).putLong(entry.opponent);
+		buffer.putShort((short) entry.score).put((byte) entry.move).put((byte) entry.depth);
+		size++;
+	}
+
+	/**
+	 * Writes the buffer to the file
+	 * @throws IOException	If the file can't be written
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the last entry and the number of entries, and closes the file
+	 * @throws IOException	If the file can't be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (last != null)
+				put(last);
+			last = null;
+			flush();
+			ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(size).flip();
+			channel.write(header, 8);
+		}
+		finally {
+			file.close();
+		}
+	}
+}
@@ -0,0 +1,468 @@
+package strategies;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+
+/**
+ * \brief
+ * Solves the end of a game exactly, for 8x8 Boards with few empty squares left. \n
+ * Works directly on bitboards: "player" is the side to move and "opponent" is the other side.
+ * Scores are final disc differentials (player's Disks - opponent's Disks) from the player's point of view. \n
+ * solveWinLossDraw() only finds out who wins, with the window (-1, 1) around a draw. Most cutoffs then come from any win or loss,
+ * so it searches far fewer positions than the exact solve. Its bounds stay valid for the exact solve, which can reuse them.
+ * @author Rodney Shaghoulian
+ */
+public class EndgameSolver {
+	public static final int NO_MOVE = -1;			///< bestMove when there is no move to make
+	public static final int MAX_SCORE = 64;			///< No disc differential is larger than this
+
+	public static final long[] QUADRANTS = {0x000000000F0F0F0FL, 0x00000000F0F0F0F0L,
+											0x0F0F0F0F00000000L, 0xF0F0F0F000000000L};	///< The 4 quadrants, used for parity
+
+	private static final int FASTEST_FIRST_EMPTIES = 7;	///< Below this many empties, moves are only ordered by parity
+	private static final int TABLE_EMPTIES = 10;			///< Positions with at least this many empties are saved in the TranspositionTable
+
+	public long nodes = 0;						///< Number of positions searched
+	public int bestMove = NO_MOVE;				///< The square of the best move found by solve()
+	public volatile long deadline = Long.MAX_VALUE;	///< Time (from System.currentTimeMillis) when the solver must give up. Another thread may set it to 0 to stop the solver.
+	public boolean timeUp = false;				///< Set when the solver gave up. Results are not valid then.
+	public static final int POLL_INTERVAL = 1024;	///< The deadline is checked once in this many calls of search (a power of 2)
+	private int polls = 0;						///< Calls of search, counted by outOfTime()
+	public TranspositionTable transpositionTable;	///< Scores of positions already solved, keyed by key(player, opponent)
+	public boolean stabilityCutoffs = true;		///< Stop searching a position when its stable Disks already decide it is outside the window
+
+	private final int[][] moveBuffer = new int[BitBoard.SQUARES + 1][BitBoard.SQUARES];	///< Moves of each ply, indexed by empties
+	private final int[][] keyBuffer = new int[BitBoard.SQUARES + 1][BitBoard.SQUARES];	///< Sort keys of each ply, indexed by empties
+
+	/**
+	 * Constructor - Creates a TranspositionTable of the default size
+	 */
+	public EndgameSolver(){
+		this(new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+	}
+
+	/**
+	 * Constructor
+	 * @param transpositionTable	The TranspositionTable to use. Its scores are disc differentials, so it must not be shared with other searches.
+	 */
+	public EndgameSolver(TranspositionTable transpositionTable){
+		this.transpositionTable = transpositionTable;
+	}
+
+	/**
+	 * Solves a Board exactly
+	 * @param board		An 8x8 Board. It is not changed.
+	 * @return			The final disc differential with perfect play, from the point of view of board.playerTurn
+	 */
+	public int solve(Board board){
+		long player = board.disks(board.playerTurn);
+		long opponent = board.disks(board.getOppositeColor(board.playerTurn));
+		return solve(player, opponent, -MAX_SCORE, MAX_SCORE);
+	}
+
+	/**
+	 * Solves a Board for a win, loss or draw only. A move that proves a win stops the search.
+	 * @param board		An 8x8 Board. It is not changed.
+	 * @return			1 if board.playerTurn wins with perfect play, -1 if it loses, 0 for a draw
+	 */
+	public int solveWinLossDraw(Board board){
+		long player = board.disks(board.playerTurn);
+		long opponent = board.disks(board.getOppositeColor(board.playerTurn));
+		return Integer.signum(solve(player, opponent, -1, 1));
+	}
+
+	/**
+	 * Solves a position, and saves the best move in bestMove
+	 * @param player	The Disks of the side to move
+	 * @param opponent	The Disks of the other side
+	 * @param alpha		The lowest score we are interested in
+	 * @param beta		The highest score we are interested in
+	 * @return			The final disc differential from the player's point of view (exact if between alpha and beta)
+	 */
+	public int solve(long player, long opponent, int alpha, int beta){
+		timeUp = false;
+		bestMove = NO_MOVE;
+		long moves = BitBoard.validMoves(player, opponent);
+		if (moves == 0)
+			return search(player, opponent, alpha, beta);
+
+		int empties = Long.bitCount(~(player | opponent));
+		int count = orderMoves(player, opponent, moves, empties);
+		int[] squares = moveBuffer[empties];
+		int best = -MAX_SCORE - 1;
+		for (int i = 0; i < count; i++){
+			int square = squares[i];
+			long flips = BitBoard.flips(player, opponent, square);
+			int value = -search(opponent ^ flips, player | flips | (1L << square), -beta, -Math.max(alpha, best));
+			if (timeUp)
+				return 0;
+			if (value > best){
+				best = value;
+				bestMove = square;
+				if (best >= beta)
+					break;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Checks the deadline once every POLL_INTERVAL calls of search, including those that end in the routines for the last empties,
+	 * so the clock is read rarely but regularly
+	 * @return	true if the solver must give up. timeUp is then set.
+	 */
+	private boolean outOfTime(){
+		if (!timeUp && (++polls & (POLL_INTERVAL - 1)) == 0 && System.currentTimeMillis() >= deadline)
+			timeUp = true;
+		return timeUp;
+	}
+
+	/**
+	 * Recursive function. Negamax alpha-beta search to the end of the game.
+	 * @param player	The Disks of the side to move
+	 * @param opponent	The Disks of the other side
+	 * @param alpha		The lowest score we are interested in
+	 * @param beta		The highest score we are interested in
+	 * @return			The final disc differential from the player's point of view (exact if between alpha and beta)
+	 */
+	public int search(long player, long opponent, int alpha, int beta){
+		if (outOfTime())
+			return 0;
+		long empty = ~(player | opponent);
+		int empties = Long.bitCount(empty);
+		if (empties <= 4)
+			return solveFew(player, opponent, alpha, beta, empty, empties);
+
+		nodes++;
+
+		long moves = BitBoard.validMoves(player, opponent);
+		if (moves == 0){
+			if (BitBoard.validMoves(opponent, player) == 0)
+				return finalScore(player, opponent);
+			return -search(opponent, player, -beta, -alpha);	// pass
+		}
+
+		/* Stable Disks keep their color to the end, which bounds the score. Only counted when enough Disks could be stable to cut. */
+		if (stabilityCutoffs){
+			if (alpha >= MAX_SCORE - 2 * Long.bitCount(opponent)){
+				int upperBound = MAX_SCORE - 2 * Long.bitCount(BitBoard.stableDisks(opponent, player));
+				if (upperBound <= alpha)
+					return upperBound;
+			}
+			if (beta <= 2 * Long.bitCount(player) - MAX_SCORE){
+				int lowerBound = 2 * Long.bitCount(BitBoard.stableDisks(player, opponent)) - MAX_SCORE;
+				if (lowerBound >= beta)
+					return lowerBound;
+			}
+		}
+
+		/* Use a saved result. Every saved result is exact to the end of the game, so only the bound matters. */
+		long key = 0;
+		int hashMove = NO_MOVE;
+		if (empties >= TABLE_EMPTIES){
+			key = key(player, opponent);
+			long entry = transpositionTable.probe(key);
+			if (entry != TranspositionTable.MISS){
+				hashMove = TranspositionTable.move(entry);
+				int score = TranspositionTable.score(entry);
+				int bound = TranspositionTable.bound(entry);
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && score <= alpha))
+					return score;
+			}
+		}
+
+		int alphaOriginal = alpha;
+		int count = orderMoves(player, opponent, moves, empties);
+		int[] squares = moveBuffer[empties];
+		moveToFront(squares, count, hashMove);
+		int best = -MAX_SCORE - 1;
+		int bestSquare = NO_MOVE;
+		for (int i = 0; i < count; i++){
+			int square = squares[i];
+			long flips = BitBoard.flips(player, opponent, square);
+			int value = -search(opponent ^ flips, player | flips | (1L << square), -beta, -alpha);
+			if (timeUp)
+				return 0;
+			if (value > best){
+				best = value;
+				bestSquare = square;
+				if (best > alpha){
+					alpha = best;
+					if (alpha >= beta)
+						break;
+				}
+			}
+		}
+
+		/* Save result */
+		if (empties >= TABLE_EMPTIES){
+			int bound = TranspositionTable.EXACT;
+			if (best <= alphaOriginal)
+				bound = TranspositionTable.UPPER_BOUND;
+			else if (best >= beta)
+				bound = TranspositionTable.LOWER_BOUND;
+			transpositionTable.store(key, empties, bound, best, bestSquare);
+		}
+		return best;
+	}
+
+	/**
+	 * Moves 1 square to the front of an array of squares, keeping the order of the others
+	 * @param squares	The squares
+	 * @param count		The number of squares in the array
+	 * @param square	The square to put first, or NO_MOVE
+	 */
+	private static void moveToFront(int[] squares, int count, int square){
+		if (square == NO_MOVE)
+			return;
+		for (int i = 0; i < count; i++){
+			if (squares[i] == square){
+				System.arraycopy(squares, 0, squares, 1, i);
+				squares[0] = square;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Hashes a position. The side to move is implied, since player is always the side to move.
+	 * @param player	The Disks of the side to move
+	 * @param opponent	The Disks of the other side
+	 * @return			A well mixed 64-bit key
+	 */
+	public static long key(long player, long opponent){
+		long z = player * 0x9E3779B97F4A7C15L + Long.rotateLeft(opponent, 32) * 0xC2B2AE3D27D4EB4FL;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Orders moves into moveBuffer[empties]. \n
+	 * With many empties: "fastest-first", where moves leaving the opponent the fewest replies come first. \n
+	 * Ties (and all moves, with few empties) are broken by parity: moves in a quadrant with an odd number of empties come first.
+	 * @return		The number of moves
+	 */
+	private int orderMoves(long player, long opponent, long moves, int empties){
+		int[] squares = moveBuffer[empties];
+		int[] keys = keyBuffer[empties];
+		long oddQuadrants = oddQuadrants(~(player | opponent));
+		int count = 0;
+		for (; moves != 0; moves &= moves - 1){
+			int square = Long.numberOfTrailingZeros(moves);
+			long move = 1L << square;
+			int key = ((oddQuadrants & move) != 0) ? 0 : 1;
+			if ((move & BitBoard.CORNERS) == 0)
+				key += 1;
+			if (empties >= FASTEST_FIRST_EMPTIES){
+				long flips = BitBoard.flips(player, opponent, square);
+				long replies = BitBoard.validMoves(opponent ^ flips, player | flips | move);
+				key += 4 * Long.bitCount(replies);
+			}
+
+			/* Insertion sort by key */
+			int i = count++;
+			while (i > 0 && keys[i - 1] > key){
+				keys[i] = keys[i - 1];
+				squares[i] = squares[i - 1];
+				i--;
+			}
+			keys[i] = key;
+			squares[i] = square;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the empty squares that are in a quadrant with an odd number of empty squares
+	 * @param empty		The empty squares
+	 * @return			The empty squares in odd quadrants
+	 */
+	public static long oddQuadrants(long empty){
+		long odd = 0;
+		for (long quadrant : QUADRANTS){
+			if ((Long.bitCount(empty & quadrant) & 1) != 0)
+				odd |= empty & quadrant;
+		}
+		return odd;
+	}
+
+	/**
+	 * Solves positions with 1 to 4 empties. Passes the empty squares (odd quadrants first) to the unrolled solvers.
+	 */
+	private int solveFew(long player, long opponent, int alpha, int beta, long empty, int empties){
+		if (empties == 0)
+			return finalScore(player, opponent);
+
+		/* Parity order: empties in odd quadrants first */
+		long odd = oddQuadrants(empty);
+		long ordered = odd;
+		int x1 = -1, x2 = -1, x3 = -1, x4 = -1;
+		for (int pass = 0; pass < 2; pass++){
+			for (; ordered != 0; ordered &= ordered - 1){
+				int square = Long.numberOfTrailingZeros(ordered);
+				if (x1 < 0) x1 = square;
+				else if (x2 < 0) x2 = square;
+				else if (x3 < 0) x3 = square;
+				else x4 = square;
+			}
+			ordered = empty & ~odd;
+		}
+
+		if (empties == 1)
+			return solve1(player, opponent, x1);
+		else if (empties == 2)
+			return solve2(player, opponent, alpha, beta, x1, x2);
+		else if (empties == 3)
+			return solve3(player, opponent, alpha, beta, x1, x2, x3);
+		else
+			return solve4(player, opponent, alpha, beta, x1, x2, x3, x4);
+	}
+
+	/**
+	 * Solves a position with 1 empty square
+	 */
+	private int solve1(long player, long opponent, int x1){
+		nodes++;
+		long flips = BitBoard.flips(player, opponent, x1);
+		if (flips != 0)
+			return finalScore(player | flips | (1L << x1), opponent ^ flips);
+		flips = BitBoard.flips(opponent, player, x1);
+		if (flips != 0)
+			return finalScore(player ^ flips, opponent | flips | (1L << x1));
+		return finalScore(player, opponent);
+	}
+
+	/**
+	 * Solves a position with 2 empty squares
+	 */
+	private int solve2(long player, long opponent, int alpha, int beta, int x1, int x2){
+		nodes++;
+		int best = -MAX_SCORE - 1;
+		long flips;
+		if ((flips = BitBoard.flips(player, opponent, x1)) != 0){
+			best = -solve1(opponent ^ flips, player | flips | (1L << x1), x2);
+			if (best >= beta)
+				return best;
+		}
+		if ((flips = BitBoard.flips(player, opponent, x2)) != 0){
+			int value = -solve1(opponent ^ flips, player | flips | (1L << x2), x1);
+			if (value > best)
+				best = value;
+		}
+		if (best > -MAX_SCORE - 1)
+			return best;
+
+		/* Pass, or game over */
+		if (BitBoard.flips(opponent, player, x1) != 0 || BitBoard.flips(opponent, player, x2) != 0)
+			return -solve2(opponent, player, -beta, -alpha, x1, x2);
+		return finalScore(player, opponent);
+	}
+
+	/**
+	 * Solves a position with 3 empty squares
+	 */
+	private int solve3(long player, long opponent, int alpha, int beta, int x1, int x2, int x3){
+		nodes++;
+		int best = -MAX_SCORE - 1;
+		long flips;
+		if ((flips = BitBoard.flips(player, opponent, x1)) != 0){
+			best = -solve2(opponent ^ flips, player | flips | (1L << x1), -beta, -alpha, x2, x3);
+			if (best >= beta)
+				return best;
+			alpha = Math.max(alpha, best);
+		}
+		if ((flips = BitBoard.flips(player, opponent, x2)) != 0){
+			int value = -solve2(opponent ^ flips, player | flips | (1L << x2), -beta, -alpha, x1, x3);
+			if (value > best){
+				best = value;
+				if (best >= beta)
+					return best;
+				alpha = Math.max(alpha, best);
+			}
+		}
+		if ((flips = BitBoard.flips(player, opponent, x3)) != 0){
+			int value = -solve2(opponent ^ flips, player | flips | (1L << x3), -beta, -alpha, x1, x2);
+			if (value > best)
+				best = value;
+		}
+		if (best > -MAX_SCORE - 1)
+			return best;
+
+		/* Pass, or game over */
+		if (BitBoard.flips(opponent, player, x1) != 0 || BitBoard.flips(opponent, player, x2) != 0
+				|| BitBoard.flips(opponent, player, x3) != 0)
+			return -solve3(opponent, player, -beta, -alpha, x1, x2, x3);
+		return finalScore(player, opponent);
+	}
+
+	/**
+	 * Solves a position with 4 empty squares
+	 */
+	private int solve4(long player, long opponent, int alpha, int beta, int x1, int x2, int x3, int x4){
+		nodes++;
+		int best = -MAX_SCORE - 1;
+		long flips;
+		if ((flips = BitBoard.flips(player, opponent, x1)) != 0){
+			best = -solve3(opponent ^ flips, player | flips | (1L << x1), -beta, -alpha, x2, x3, x4);
+			if (best >= beta)
+				return best;
+			alpha = Math.max(alpha, best);
+		}
+		if ((flips = BitBoard.flips(player, opponent, x2)) != 0){
+			int value = -solve3(opponent ^ flips, player | flips | (1L << x2), -beta, -alpha, x1, x3, x4);
+			if (value > best){
+				best = value;
+				if (best >= beta)
+					return best;
+				alpha = Math.max(alpha, best);
+			}
+		}
+		if ((flips = BitBoard.flips(player, opponent, x3)) != 0){
+			int value = -solve3(opponent ^ flips, player | flips | (1L << x3), -beta, -alpha, x1, x2, x4);
+			if (value > best){
+				best = value;
+				if (best >= beta)
+					return best;
+				alpha = Math.max(alpha, best);
+			}
+		}
+		if ((flips = BitBoard.flips(player, opponent, x4)) != 0){
+			int value = -solve3(opponent ^ flips, player | flips | (1L << x4), -beta, -alpha, x1, x2, x3);
+			if (value > best)
+				best = value;
+		}
+		if (best > -MAX_SCORE - 1)
+			return best;
+
+		/* Pass, or game over */
+		if (BitBoard.flips(opponent, player, x1) != 0 || BitBoard.flips(opponent, player, x2) != 0
+				|| BitBoard.flips(opponent, player, x3) != 0 || BitBoard.flips(opponent, player, x4) != 0)
+			return -solve4(opponent, player, -beta, -alpha, x1, x2, x3, x4);
+		return finalScore(player, opponent);
+	}
+
+	/**
+	 * Calculates the disc differential of a finished game. Like Board's scores, empty squares are not counted.
+	 * @param player	The Disks of the player
+	 * @param opponent	The Disks of the opponent
+	 * @return			player's Disks - opponent's Disks
+	 */
+	public static int finalScore(long player, long opponent){
+		return Long.bitCount(player) - Long.bitCount(opponent);
+	}
+
+	/**
+	 * Converts a disc differential to the utility used by Utility.gameEndedUtility
+	 * @param score		The disc differential, from the point of view of color
+	 * @param color		The Color the score is for
+	 * @return			10000 for a BLACK win, -10000 for a WHITE win, 0 for a tie
+	 */
+	public static int toUtility(int score, Color color){
+		int sign = (color == Color.BLACK) ? 1 : -1;
+		return sign * Integer.signum(score) * 10000;
+	}
+}
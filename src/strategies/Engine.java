@@ -0,0 +1,37 @@
+package strategies;
+
+import main_components.Board;
+
+/**
+ * \brief
+ * A computer A.I. that does not need a View or Controller: a Board goes in, and the best move, its score, the principal variation
+ * and the search statistics come out as an EngineResult. \n
+ * An Engine never changes the Board, never prints, and does not use Swing, so a program without a display can run many Engines
+ * (1 per thread). An Engine searches 1 Board at a time, but stop() may be called from any thread. \n
+ * close() releases any threads the Engine started, so a program creating many Engines should close each one when done.
+ * @author Rodney Shaghoulian
+ */
+public interface Engine extends AutoCloseable {
+	/**
+	 * Finds the best move of a Board
+	 * @param board		The Board. It is not changed. Its game must not have ended.
+	 * @return			The best move and how it was found
+	 */
+	EngineResult search(Board board);
+
+	/**
+	 * Stops the search running on another thread. It returns the best move found so far.
+	 */
+	void stop();
+
+	/**
+	 * Forgets the results of earlier searches, for a new game
+	 */
+	void clear();
+
+	/**
+	 * Releases the threads this Engine started. The Engine must not search after that.
+	 */
+	@Override
+	void close();
+}
@@ -0,0 +1,100 @@
+package strategies;
+
+import java.util.Arrays;
+
+import main_components.Board;
+import main_components.Color;
+
+/**
+ * \brief
+ * The result of 1 search by an Engine. Moves are squares (row * columns + column), so no AWT class is needed to read them. \n
+ * The score is a utility from the point of view of the Player whose turn it was: in 1 / PatternEvaluator.UNITS_PER_DISC of a Disk
+ * when patterns are used, and +/-10000 (or 0 for a tie) when the game was solved.
+ * @author Rodney Shaghoulian
+ */
+public class EngineResult {
+	public static final int NO_MOVE = TranspositionTable.NO_MOVE;	///< move when there is none
+
+	public int move = NO_MOVE;					///< The square of the best move
+	public int score;							///< The utility of the best move, for the Player whose turn it was
+	public int[] principalVariation = {};		///< The squares of the expected line of play, starting with move. Passes are skipped.
+	public int depth;							///< The depth of the last completed iteration, or the empty squares when solved
+	public boolean solved;						///< true if the game was solved. score is then a win, loss or tie.
+	public boolean winLossDraw;					///< true if the game was only solved for a win, loss or draw. solved is also true then.
+	public boolean fromBook;					///< true if the move came from the OpeningBook. score and depth are then the book's.
+	public long nodes;							///< Number of Boards expanded
+	public long helperNodes;					///< Number of Boards expanded by LAZY_SMP helpers
+	public long time;							///< Milliseconds the search took
+	public int researches;						///< Number of aspiration window re-searches
+	public int probCuts;						///< Number of subtrees skipped by ProbCut
+	public int passes;							///< Number of MTD(f) zero-window passes. 0 for other searches.
+	public int[] passNodes = {};				///< Nodes expanded by each MTD(f) pass, in order
+	public SearchMode searchMode;				///< How the search was spread over threads
+
+	/**
+	 * Constructor - Copies the result of a finished search
+	 * @param strategy	The AlphaBetaStrategy, after iterativeDeepening()
+	 * @param board		The Board it searched
+	 */
+	public EngineResult(AlphaBetaStrategy strategy, Board board){
+		if (strategy.bestMove != null)
+			move = strategy.bestMove.y * board.columns + strategy.bestMove.x;
+		score = (board.playerTurn == Color.BLACK) ? strategy.bestValue : -strategy.bestValue;
+		principalVariation = strategy.principalVariation(board);
+		depth = strategy.depthReached;
+		solved = strategy.solved;
+		winLossDraw = strategy.solvedWinLossDraw;
+		fromBook = strategy.fromBook;
+		nodes = strategy.nodesExpanded;
+		helperNodes = strategy.helperNodes;
+		time = strategy.searchTime;
+		researches = strategy.researches;
+		probCuts = strategy.probCuts;
+		if (strategy instanceof MTDFStrategy){
+			MTDFStrategy mtdfStrategy = (MTDFStrategy) strategy;
+			passes = mtdfStrategy.passes;
+			passNodes = new int[mtdfStrategy.passNodes.size()];
+			for (int i = 0; i < passNodes.length; i++)
+				passNodes[i] = mtdfStrategy.passNodes.get(i);
+		}
+		searchMode = strategy.searchMode;
+	}
+
+	/**
+	 * Names a square, like "d3"
+	 * @param square	The square (row * columns + column)
+	 * @param columns	The number of columns on the Board
+	 * @return			The column as a letter, then the row as a number from 1
+	 */
+	public static String squareName(int square, int columns){
+		return "" + (char) ('a' + square % columns) + (square / columns + 1);
+	}
+
+	/**
+	 * Describes the result, 1 statistic per line, as the console shows it
+	 * @param columns	The number of columns on the Board, to name the squares of the principal variation
+	 * @return			The description
+	 */
+	public String report(int columns){
+		StringBuilder report = new StringBuilder();
+		report.append("A.I. Move Time = " + time / 1000.0 + " seconds\n");
+		String solvedText = winLossDraw ? " (solved for win/loss/draw)" : " (solved exactly)";
+		report.append("Depth reached = " + depth + (solved ? solvedText : "") + (fromBook ? " (opening book)" : "") + "\n");
+		report.append("Game Boards expanded = " + nodes + "\n");
+		if (helperNodes > 0)
+			report.append("Helper Boards expanded = " + helperNodes + "\n");
+		if (researches > 0)
+			report.append("Aspiration window re-searches = " + researches + "\n");
+		if (probCuts > 0)
+			report.append("ProbCut subtrees skipped = " + probCuts + "\n");
+		if (passes > 0)
+			report.append("MTD(f) passes = " + passes + ", Game Boards expanded per pass = " + Arrays.toString(passNodes) + "\n");
+		if (time > 0)
+			report.append("Game Boards per second = " + (nodes + helperNodes) * 1000 / time + " (" + searchMode + ")\n");
+		report.append("Principal variation =");
+		for (int square : principalVariation)
+			report.append(" " + squareName(square, columns));
+		report.append("\nScore = " + score + "\n");
+		return report.toString();
+	}
+}
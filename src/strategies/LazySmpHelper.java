@@ -0,0 +1,48 @@
+package strategies;
+
+import java.util.concurrent.RecursiveAction;
+
+import main_components.Board;
+
+/**
+ * \brief
+ * A helper thread for SearchMode.LAZY_SMP. Runs iterative deepening on its own copy of the Board until it is stopped. \n
+ * Its results are never used directly: it only fills the shared TranspositionTable, so the main search finds more cutoffs.
+ * @author Rodney Shaghoulian
+ */
+public class LazySmpHelper extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+
+	public AlphaBetaStrategy strategy;		///< Searches for this helper. Keeps its own nodesExpanded.
+	public Board board;						///< A copy of the Board being searched
+	public int startDepth;					///< The first depth searched. Helpers start at different depths so they search different Boards.
+	public int maxDepth;					///< The deepest iteration
+	public int depthReached = 0;			///< The depth of the last completed iteration
+
+	/**
+	 * Constructor
+	 * @param strategy		The AlphaBetaStrategy to search with. Stop it by setting its deadline to 0.
+	 * @param board			A copy of the Board being searched
+	 * @param startDepth	The first depth to search
+	 * @param maxDepth		The deepest iteration
+	 */
+	public LazySmpHelper(AlphaBetaStrategy strategy, Board board, int startDepth, int maxDepth){
+		this.strategy = strategy;
+		this.board = board;
+		this.startDepth = startDepth;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Searches depth startDepth, startDepth + 1, ... until maxDepth or the strategy's deadline
+	 */
+	@Override
+	protected void compute(){
+		for (int depth = startDepth; depth <= maxDepth; depth++){
+			strategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			if (strategy.timeUp)
+				return;
+			depthReached = depth;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package strategies;
+
+import java.awt.Point;
+import java.util.ArrayList;
+
+import main_components.Board;
+import main_components.Color;
+import main_components.Controller;
+
+/**
+ * \brief
+ * Decides a computer move based on "MTD(f)". \n
+ * Each iteration finds the utility with a series of zero-window alphaBeta searches ("passes"), starting from a guess:
+ * the utility of the previous iteration. Each pass shows the utility is above or below its window, until the bounds meet.
+ * Passes search the same Boards again, so they rely on the TranspositionTable to avoid expanding them twice.
+ * Each pass is 1 zero-window search on 1 thread, so SearchMode.ROOT_SPLIT is refused. SearchMode.LAZY_SMP helpers may search beside the passes.
+ * @author Rodney Shaghoulian
+ */
+public class MTDFStrategy extends AlphaBetaStrategy {
+	public int passes = 0;								///< Number of zero-window passes during the last search
+	public ArrayList<Integer> passNodes = new ArrayList<>();	///< Nodes expanded by each pass of the last search, in order
+
+	/**
+	 * Constructor - Calls subclasses constructor. Creates a new TranspositionTable.
+	 * @param controller	The Othello simulation that we should run MTD(f) on.
+	 */
+	public MTDFStrategy(Controller controller){
+		super(controller);
+	}
+
+	/**
+	 * Constructor - Calls subclasses constructor
+	 * @param controller			The Othello simulation that we should run MTD(f) on.
+	 * @param transpositionTable	The TranspositionTable to use, so it can be kept between moves.
+	 */
+	public MTDFStrategy(Controller controller, TranspositionTable transpositionTable){
+		super(controller, transpositionTable);
+	}
+
+	/**
+	 * Runs iterative deepening, counting the passes of every iteration
+	 * @param board		The Board to find a move for. It is not changed.
+	 * @return			The best move of the last completed iteration (also saved in bestMove)
+	 * @throws IllegalArgumentException	if searchMode is SearchMode.ROOT_SPLIT, which MTD(f) does not support
+	 */
+	@Override
+	public Point iterativeDeepening(Board board){
+		if (searchMode == SearchMode.ROOT_SPLIT)
+			throw new IllegalArgumentException("MTD(f) cannot split the root: use SERIAL or LAZY_SMP");
+		passes = 0;
+		passNodes.clear();
+		return super.iterativeDeepening(board);
+	}
+
+	/**
+	 * Searches 1 iteration with MTD(f), using the utility of the previous iteration (bestValue) as the first guess
+	 * @param board			The Board to do a "move" on. It is unchanged when this function returns.
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @return				The utility of the Board. The best move is saved in bestMove.
+	 */
+	@Override
+	public int searchRoot(Board board, int maxDepth){
+		return mtdf(board, maxDepth, bestValue);
+	}
+
+	/**
+	 * Finds the utility of a Board with zero-window searches
+	 * @param board			The Board to do a "move" on. It is unchanged when this function returns.
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @param guess			The first guess of the utility
+	 * @return				The utility of the Board. The best move is saved in bestMove.
+	 */
+	public int mtdf(Board board, int maxDepth, int guess){
+		boolean blackTurn = (board.playerTurn == Color.BLACK);
+		int value = guess;
+		int lowerBound = Integer.MIN_VALUE;
+		int upperBound = Integer.MAX_VALUE;
+		Point provenMove = bestMove;
+		while (lowerBound < upperBound){
+			int beta = (value == lowerBound) ? value + 1 : value;
+			int nodes = nodesExpanded;
+			bestMove = provenMove; // searched first at the root
+			value = alphaBeta(board, 0, maxDepth, beta - 1, beta);
+			if (timeUp)
+				return 0; // ignored, since the iteration is thrown away
+			passes++;
+			passNodes.add(nodesExpanded - nodes);
+
+			/* A pass only proves which move is best for the Player whose bound it raised (BLACK) or lowered (WHITE) */
+			if (value < beta){
+				upperBound = value;
+				if (!blackTurn)
+					provenMove = bestMove;
+			}
+			else {
+				lowerBound = value;
+				if (blackTurn)
+					provenMove = bestMove;
+			}
+		}
+		bestMove = provenMove;
+		return value;
+	}
+}
@@ -1,5 +1,6 @@
 package strategies;
 
+import java.awt.Point;
 import java.util.ArrayList;
 
 import main_components.Board;
@@ -16,6 +17,8 @@ public class MinimaxStrategy extends Strategy{
 
 	public int depth = 5;			///< The depth to search the game tree
 	
+	public Point bestMove;			///< The best move found at the root of the last search.
+	
 	/**
 	 * Constructor - Calls subclasses constructor
 	 * @param controller	The Othello simulation that we should run Minimax on.
@@ -30,57 +33,59 @@ public class MinimaxStrategy extends Strategy{
 	 * @return			The updated Board after the "move" is performed.
 	 */
 	public Board move(Board board){
-		Board successorBoard = minimax(board, 0, depth);
-		
-		/* Execute the command */
-		Command command = getCommand(board, successorBoard);
-		commandManager.executeCommand(command);
+		/* Search executes and undoes moves on a single copy of the Board */
+		minimax(new Board(board), 0, depth);
 		
-		view.updateView();
+		executeMove(board, bestMove);
 		return board;
 	}
 	
 	/**
-	 * Recursive function. Uses Minimax strategy to determine the next move
+	 * Recursive function. Uses Minimax strategy to determine the next move. \n
+	 * Moves are executed and undone on the given Board, so it is unchanged when this function returns.
 	 * @param board			The Board to do a "move" on.
 	 * @param currLevel		The current depth we've searched to in game tree (where 0 corresponds to current state of Board)
 	 * @param maxDepth		The number of levels deep we should search the game tree
-	 * @return				The Board after the "move" is performed.
+	 * @return				The utility of the Board. The best move is saved in bestMove when currLevel is 0.
 	 */
-	public Board minimax(Board board, int currLevel, int maxDepth){
-		if (board.gameEnded || (currLevel == maxDepth))
-			return board;
-		Utility utility;
+	public int minimax(Board board, int currLevel, int maxDepth){
+		if (board.gameEnded || (currLevel == maxDepth)){
+			Utility utility = new Utility(board);
+			utility.utilityCorners();
+			return utility.value;
+		}
 		
-		ArrayList<Board> successorBoards = getAdjacentBoards(board);
-		Board bestBoard = null;
+		ArrayList<Point> moves = getValidMoves(board);
 		
 		if (board.playerTurn == Color.BLACK){
 			int max = Integer.MIN_VALUE;
-			for (int i = 0; i < successorBoards.size(); i++){
-				Board successor = successorBoards.get(i);
-				Board lookaheadBoard = minimax(successor, currLevel + 1, maxDepth);
-				utility = new Utility(lookaheadBoard);
-				utility.utilityCorners();
-				if (utility.value > max){
-					max = utility.value;
-					bestBoard = successor;
+			for (Point move : moves){
+				Command command = new Command(board, board.playerTurn, move);
+				command.execute();
+				int value = minimax(board, currLevel + 1, maxDepth);
+				command.undo();
+				if (value > max){
+					max = value;
+					if (currLevel == 0)
+						bestMove = move;
 				}
 			}
+			return max;
 		}
 		else{
 			int min = Integer.MAX_VALUE;
-			for (int i = 0; i < successorBoards.size(); i++){
-				Board successor = successorBoards.get(i);
-				Board lookaheadBoard = minimax(successor, currLevel + 1, maxDepth);
-				utility = new Utility(lookaheadBoard);
-				utility.utilityCorners();
-				if (utility.value < min){
-					min = utility.value;
-					bestBoard = successor;
+			for (Point move : moves){
+				Command command = new Command(board, board.playerTurn, move);
+				command.execute();
+				int value = minimax(board, currLevel + 1, maxDepth);
+				command.undo();
+				if (value < min){
+					min = value;
+					if (currLevel == 0)
+						bestMove = move;
 				}
 			}
+			return min;
 		}
-		return bestBoard;
 	}
-}
\ No newline at end of file
+}
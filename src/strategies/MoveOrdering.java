@@ -0,0 +1,145 @@
+package strategies;
+
+import java.awt.Point;
+import java.util.ArrayList;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+
+/**
+ * \brief
+ * Cheap move ordering for AlphaBetaStrategy, without evaluating any Boards. \n
+ * Moves are ordered by: killer moves (moves that caused a cutoff at the same depth), then square class
+ * (corners first, 'X squares' next to an empty corner last), then the history table (how often each square caused a cutoff). \n
+ * Each search thread has its own MoveOrdering, so the tables need no locks.
+ * @author Rodney Shaghoulian
+ */
+public class MoveOrdering {
+	public static final int MAX_PLY = 64;				///< Number of levels with killer moves. Deeper levels have none.
+	public static final int KILLERS = 2;				///< Number of killer moves kept for each level
+	public static final int NO_MOVE = -1;				///< An empty killer slot
+
+	public static final int X_SQUARE = 0;				///< Square class of an 'X square' next to an empty corner: searched last
+	public static final int NORMAL_SQUARE = 1;			///< Square class of every other square
+	public static final int CORNER = 2;					///< Square class of a corner: searched first
+	public static final int KILLER = 3;					///< Sorts above every square class
+
+	private static final int CLASS_SHIFT = 24;			///< Square class is worth more than any history value
+	private static final int HISTORY_MAX = 1 << 22;		///< History values are halved when one reaches this
+
+	public int[][] killers = new int[MAX_PLY][KILLERS];	///< Squares of the killer moves of each level, most recent first
+	public int[][] history = new int[2][0];				///< How much each square (row * columns + column) caused cutoffs, for BLACK [0] and WHITE [1]
+
+	private int[] keys = new int[0];					///< Sort keys, reused between calls
+
+	/**
+	 * Constructor - Starts with no killer moves and an empty history
+	 */
+	public MoveOrdering(){
+		clearKillers();
+	}
+
+	/**
+	 * Sorts moves so the most promising come first. Ties keep their original order.
+	 * @param board		The Board the moves will be done on
+	 * @param moves		The moves to sort
+	 * @param ply		The level of the Board in the game tree (0 is the root)
+	 */
+	public void sort(Board board, ArrayList<Point> moves, int ply){
+		int squares = board.rows * board.columns;
+		if (history[0].length != squares)
+			history = new int[2][squares];
+		if (keys.length < moves.size())
+			keys = new int[moves.size()];
+		int[] colorHistory = history[(board.playerTurn == Color.BLACK) ? 0 : 1];
+		long empty = board.isBitBoard ? board.emptySquares() : 0;
+
+		for (int i = 0; i < moves.size(); i++){
+			Point move = moves.get(i);
+			int square = move.y * board.columns + move.x;
+			int key;
+			if (ply < MAX_PLY && (killers[ply][0] == square || killers[ply][1] == square))
+				key = (KILLER << CLASS_SHIFT) + ((killers[ply][0] == square) ? 1 : 0);
+			else
+				key = (squareClass(board, move, empty) << CLASS_SHIFT) + colorHistory[square];
+
+			/* Insertion sort, largest key first: it is stable, and there are rarely more than 15 moves */
+			int j = i - 1;
+			while (j >= 0 && keys[j] < key){
+				keys[j + 1] = keys[j];
+				moves.set(j + 1, moves.get(j));
+				j--;
+			}
+			keys[j + 1] = key;
+			moves.set(j + 1, move);
+		}
+	}
+
+	/**
+	 * Records a move that caused a cutoff, as a killer move for its level and in the history table
+	 * @param board			The Board the move was done on
+	 * @param move			The move
+	 * @param ply			The level of the Board in the game tree (0 is the root)
+	 * @param depthLeft		The number of levels searched below the Board. Deeper cutoffs count for more.
+	 */
+	public void cutoff(Board board, Point move, int ply, int depthLeft){
+		int square = move.y * board.columns + move.x;
+		if (ply < MAX_PLY && killers[ply][0] != square){
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = square;
+		}
+
+		int squares = board.rows * board.columns;
+		if (history[0].length != squares)
+			history = new int[2][squares];
+		int[] colorHistory = history[(board.playerTurn == Color.BLACK) ? 0 : 1];
+		colorHistory[square] += depthLeft * depthLeft;
+		if (colorHistory[square] >= HISTORY_MAX)
+			age();
+	}
+
+	/**
+	 * Halves every history value, so recent cutoffs count for more than old ones
+	 */
+	public void age(){
+		for (int[] colorHistory : history){
+			for (int square = 0; square < colorHistory.length; square++)
+				colorHistory[square] >>= 1;
+		}
+	}
+
+	/**
+	 * Removes all killer moves. Killer moves are only useful within 1 search, since levels change meaning between moves.
+	 */
+	public void clearKillers(){
+		for (int[] plyKillers : killers)
+			java.util.Arrays.fill(plyKillers, NO_MOVE);
+	}
+
+	/**
+	 * Gets the square class of a move
+	 * @param board		The Board the move will be done on
+	 * @param move		The move
+	 * @param empty		The empty squares of an 8x8 Board (unused for other sizes)
+	 * @return			CORNER, X_SQUARE or NORMAL_SQUARE
+	 */
+	public static int squareClass(Board board, Point move, long empty){
+		if (board.isBitBoard){
+			long mask = BitBoard.mask(move);
+			if ((mask & BitBoard.CORNERS) != 0)
+				return CORNER;
+			return (BitBoard.badXSquares(mask, empty) != 0) ? X_SQUARE : NORMAL_SQUARE;
+		}
+
+		int lastColumn = board.columns - 1;
+		int lastRow = board.rows - 1;
+		if ((move.x == 0 || move.x == lastColumn) && (move.y == 0 || move.y == lastRow))
+			return CORNER;
+		int cornerX = (move.x == 1) ? 0 : ((move.x == lastColumn - 1) ? lastColumn : -1);
+		int cornerY = (move.y == 1) ? 0 : ((move.y == lastRow - 1) ? lastRow : -1);
+		if (cornerX >= 0 && cornerY >= 0 && board.diskColor(new Point(cornerX, cornerY)) == Color.NONE)
+			return X_SQUARE;
+		return NORMAL_SQUARE;
+	}
+}
@@ -0,0 +1,167 @@
+package strategies;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import main_components.BitBoard;
+import main_components.Board;
+
+/**
+ * \brief
+ * Best moves of positions searched before the game, read from a memory-mapped file. \n
+ * Positions are stored in their canonical form (see BitBoard.canonicalSymmetry), so a position reached in any of its 8 symmetries
+ * is found, and the move is transformed back. Entries are sorted by position, and found by binary search. \n
+ * The file is little-endian: int MAGIC, int VERSION, int number of entries, then RECORD_BYTES for each entry:
+ * long player, long opponent, short score, byte move, byte depth. BookWriter writes it.
+ * @author Rodney Shaghoulian
+ */
+public class OpeningBook {
+	public static final int MAGIC = 0x4B4F424F;				///< "OBOK" in a little-endian file
+	public static final int VERSION = 1;					///< Version of the file format
+	public static final int HEADER_BYTES = 12;				///< Size of the header
+	public static final int RECORD_BYTES = 20;				///< Size of 1 entry
+	public static final String DEFAULT_FILE = "book.bin";	///< The book used by Controller
+
+	private final MappedByteBuffer entries;	///< The whole book file. Only read with absolute gets, so threads can share it.
+	public final int size;					///< Number of entries
+
+	/**
+	 * Constructor - Maps a book file into memory and checks its header
+	 * @param file			The book file
+	 * @throws IOException	If the file can't be read or is not a book
+	 */
+	public OpeningBook(File file) throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")){
+			FileChannel channel = randomAccessFile.getChannel();
+			entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // the mapping stays valid after closing
+		}
+		entries.order(ByteOrder.LITTLE_ENDIAN);
+		if (entries.capacity() < HEADER_BYTES || entries.getInt(0) != MAGIC || entries.getInt(4) != VERSION)
+			throw new IOException(file + " is not an opening book");
+		size = entries.getInt(8);
+		if (size < 0 || entries.capacity() != HEADER_BYTES + (long) size * RECORD_BYTES)
+			throw new IOException(file + " has " + entries.capacity() + " bytes, which does not fit its " + size + " entries");
+	}
+
+	/**
+	 * Loads a book file if there is one
+	 * @param file		The book file
+	 * @return			An OpeningBook, or null if the file does not exist or can't be used
+	 */
+	public static OpeningBook load(File file){
+		if (!file.isFile())
+			return null;
+		try{
+			return new OpeningBook(file);
+		}
+		catch (IOException ioException){
+			System.out.println("Opening book not loaded: " + ioException.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up the position of a Board
+	 * @param board		The Board
+	 * @return			The entry, with its move for this Board, or null if the position is not in the book (or the Board is not 8x8)
+	 */
+	public BookEntry probe(Board board){
+		if (!board.isBitBoard || board.gameEnded)
+			return null;
+		BookEntry entry = probe(board.disks(board.playerTurn), board.disks(board.getOppositeColor(board.playerTurn)));
+		if (entry == null || !board.validMove(BitBoard.point(entry.move), board.playerTurn))
+			return null;
+		return entry;
+	}
+
+	/**
+	 * Looks up a position
+	 * @param player	Disks of the player to move
+	 * @param opponent	Disks of the opponent
+	 * @return			The entry, with its move transformed to this position, or null if the position is not in the book
+	 */
+	public BookEntry probe(long player, long opponent){
+		int symmetry = BitBoard.canonicalSymmetry(player, opponent);
+		BookEntry key = new BookEntry(BitBoard.transform(player, symmetry), BitBoard.transform(opponent, symmetry), 0, 0, 0);
+		int low = 0;
+		int high = size - 1;
+		while (low <= high){
+			int middle = (low + high) >>> 1;
+			BookEntry entry = entry(middle);
+			int compare = entry.compareTo(key);
+			if (compare < 0)
+				low = middle + 1;
+			else if (compare > 0)
+				high = middle - 1;
+			else
+				return entry.transform(BitBoard.inverse(symmetry));
+		}
+		return null;
+	}
+
+	/**
+	 * Reads 1 entry
+	 * @param i		The entry (0 to size - 1)
+	 * @return		The entry, in canonical form
+	 */
+	public BookEntry entry(int i){
+		int offset = HEADER_BYTES + i * RECORD_BYTES;
+		return new BookEntry(entries.getLong(offset), entries.getLong(offset + 8), entries.get(offset + 18),
+							 entries.getShort(offset + 16), entries.get(offset + 19));
+	}
+
+	/**
+	 * Writes a book file
+	 * @param file			The file to write. It is replaced if it exists.
+	 * @param bookEntries	The entries, in any form and order. When a position is given more than once, the deepest entry is kept.
+	 * @throws IOException	If the file can't be written
+	 */
+	public static void write(File file, ArrayList<BookEntry> bookEntries) throws IOException {
+		ArrayList<BookEntry> sorted = new ArrayList<>();
+		for (BookEntry entry : bookEntries)
+			sorted.add(entry.canonical());
+		Collections.sort(sorted); // stable, so the last of equally deep duplicates is kept
+		try (BookWriter bookWriter = new BookWriter(file)){
+			for (BookEntry entry : sorted)
+				bookWriter.add(entry);
+		}
+	}
+
+	/**
+	 * Merges books into 1 file, reading each book in order, so the books never have to fit in memory. \n
+	 * When a position is in more than 1 book, the deepest entry is kept, and of entries equally deep, the one from the later book.
+	 * @param file			The file to write. It is replaced if it exists, so it must not be 1 of the books.
+	 * @param books			The books to merge
+	 * @throws IOException	If the file can't be written
+	 */
+	public static void merge(File file, ArrayList<OpeningBook> books) throws IOException {
+		int[] next = new int[books.size()];
+		try (BookWriter bookWriter = new BookWriter(file)){
+			while (true){
+				/* Find the first position left in any book. Later books win ties, since they are added last. */
+				BookEntry first = null;
+				for (int i = 0; i < books.size(); i++){
+					if (next[i] < books.get(i).size){
+						BookEntry entry = books.get(i).entry(next[i]);
+						if (first == null || entry.compareTo(first) < 0)
+							first = entry;
+					}
+				}
+				if (first == null)
+					break;
+				for (int i = 0; i < books.size(); i++){
+					if (next[i] < books.get(i).size && books.get(i).entry(next[i]).compareTo(first) == 0){
+						bookWriter.add(books.get(i).entry(next[i]));
+						next[i]++;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package strategies;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Patterns;
+
+/**
+ * \brief
+ * Evaluates 8x8 Boards by adding up 1 weight for each Patterns feature, looked up by the feature's index. \n
+ * The game is split into phases (bands of Board.turn), and each phase has its own weights, so a pattern can be worth more
+ * in the opening than in the endgame. The phase of every turn is looked up in a table made when the file is loaded. \n
+ * Each phase also weighs the difference of stable Disks (BitBoard.stableDisks()), which the patterns can't see away from the edges. \n
+ * The indexes are kept up to date by the Board's EvaluationState, so an evaluation is just 1 lookup per feature. \n
+ * The weights are read straight from a memory-mapped file, so every search (and every program) using the same file
+ * shares 1 copy of it in memory. The file is little-endian: \n
+ * int MAGIC, int VERSION, int number of pattern types, int length of each pattern type, int number of phases,
+ * int first turn of each phase, then for each phase: for each pattern type a short weight for every index, then a short weight
+ * for each stable Disk (BLACK's minus WHITE's). Files of VERSION 2 have no stability weights. \n
+ * Weights are from BLACK's point of view, in units of 1 / UNITS_PER_DISC of a Disk. \n
+ * A file is symmetric when the indexes that read the same Disks in a mirrored order (Patterns.SYMMETRIC_INDEXES) have the same weight.
+ * Only then do symmetric Boards get the same value, which searches sharing results between symmetric Boards rely on.
+ * @author Rodney Shaghoulian
+ */
+public class PatternEvaluator {
+	public static final int MAGIC = 0x5441504F;						///< "OPAT" in a little-endian file
+	public static final int VERSION = 3;							///< Version of the file format
+	public static final int VERSION_WITHOUT_STABILITY = 2;			///< Version of files written before stability weights
+	public static final int TURNS = BitBoard.SQUARES + 1;			///< Size of the turn lookup. Later turns use the last phase.
+	public static final int UNITS_PER_DISC = 8;						///< Value of 1 Disk of final score difference
+	public static final int MAX_VALUE = 9999;						///< Evaluations are kept below the utility of a won game
+	public static final String DEFAULT_FILE = "patterns.bin";		///< The weights file used by Controller
+
+	private final MappedByteBuffer weights;	///< The whole weights file. Only read with absolute gets, so threads can share it.
+	public final int phases;				///< Number of phases in the file
+	public final boolean symmetric;			///< true if every index has the same weight as its Patterns.SYMMETRIC_INDEXES
+	private final int[][] turnOffsets;		///< For each turn: the byte offset of the weights of each feature, in that turn's phase
+	private final short[] turnStability;	///< For each turn: the weight of each stable Disk in that turn's phase
+
+	/**
+	 * Constructor - Maps a weights file into memory and checks its header
+	 * @param file			The weights file
+	 * @throws IOException	If the file can't be read or does not match Patterns
+	 */
+	public PatternEvaluator(File file) throws IOException {
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")){
+			FileChannel channel = randomAccessFile.getChannel();
+			weights = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // the mapping stays valid after closing
+		}
+		weights.order(ByteOrder.LITTLE_ENDIAN);
+		int headerSize = 16 + 4 * Patterns.TYPES;
+		int version = (weights.capacity() < headerSize) ? 0 : weights.getInt(4);
+		if (weights.capacity() < headerSize || weights.getInt(0) != MAGIC || (version != VERSION && version != VERSION_WITHOUT_STABILITY)
+				|| weights.getInt(8) != Patterns.TYPES)
+			throw new IOException(file + " is not a pattern weights file");
+
+		/* Offsets of the pattern types within a phase */
+		int[] typeOffsets = new int[Patterns.TYPES];
+		int phaseSize = 0;
+		for (int type = 0; type < Patterns.TYPES; type++){
+			if (weights.getInt(12 + 4 * type) != Patterns.LENGTHS[type])
+				throw new IOException(file + " has a different " + Patterns.NAMES[type] + " pattern");
+			typeOffsets[type] = phaseSize;
+			phaseSize += 2 * Patterns.SIZES[type];
+		}
+		int stabilityOffset = phaseSize;
+		if (version == VERSION)
+			phaseSize += 2;
+		phases = weights.getInt(headerSize - 4);
+		if (phases < 1 || phases > TURNS || weights.capacity() != headerSize + 4 * phases + (long) phases * phaseSize)
+			throw new IOException(file + " has " + weights.capacity() + " bytes, which does not fit its " + phases + " phases");
+		int[] firstTurns = new int[phases];
+		for (int phase = 0; phase < phases; phase++){
+			firstTurns[phase] = weights.getInt(headerSize + 4 * phase);
+			if ((phase == 0) ? (firstTurns[phase] != 0) : (firstTurns[phase] <= firstTurns[phase - 1]))
+				throw new IOException(file + " has phases that do not start at turn 0 and increase");
+		}
+
+		/* Files fitted without tying symmetric indexes give symmetric Boards different values */
+		int firstWeight = headerSize + 4 * phases;
+		boolean tied = true;
+		for (int phase = 0; phase < phases && tied; phase++){
+			for (int type = 0; type < Patterns.TYPES && tied; type++){
+				int offset = firstWeight + phase * phaseSize + typeOffsets[type];
+				for (int index = 0; index < Patterns.SIZES[type] && tied; index++)
+					tied = weights.getShort(offset + 2 * index) == weights.getShort(offset + 2 * Patterns.SYMMETRIC_INDEXES[type][index]);
+			}
+		}
+		symmetric = tied;
+
+		/* Look up each turn's phase once, so evaluations only add a feature's index to its offset */
+		turnOffsets = new int[TURNS][Patterns.FEATURES];
+		turnStability = new short[TURNS];
+		int phase = 0;
+		for (int turn = 0; turn < TURNS; turn++){
+			while (phase + 1 < phases && firstTurns[phase + 1] <= turn)
+				phase++;
+			for (int feature = 0; feature < Patterns.FEATURES; feature++)
+				turnOffsets[turn][feature] = firstWeight + phase * phaseSize + typeOffsets[Patterns.FEATURE_TYPE[feature]];
+			if (version == VERSION)
+				turnStability[turn] = weights.getShort(firstWeight + phase * phaseSize + stabilityOffset);
+		}
+	}
+
+	/**
+	 * Loads a weights file if there is one
+	 * @param file		The weights file
+	 * @return			A PatternEvaluator, or null if the file does not exist or can't be used
+	 */
+	public static PatternEvaluator load(File file){
+		if (!file.isFile())
+			return null;
+		try{
+			return new PatternEvaluator(file);
+		}
+		catch (IOException ioException){
+			System.out.println("Pattern weights not loaded: " + ioException.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Evaluates an 8x8 Board
+	 * @param board		The Board. Its game must not have ended.
+	 * @return			The utility of the Board for BLACK, between -MAX_VALUE and MAX_VALUE
+	 */
+	public int value(Board board){
+		int[] indexes = board.evaluation.patterns;
+		int turn = Math.min(board.turn, TURNS - 1);
+		int[] offsets = turnOffsets[turn];
+		int value = 0;
+		for (int feature = 0; feature < indexes.length; feature++)
+			value += weights.getShort(offsets[feature] + 2 * indexes[feature]);
+		if (turnStability[turn] != 0)
+			value += turnStability[turn] * stability(board.blackDisks, board.whiteDisks);
+		return Math.max(-MAX_VALUE, Math.min(MAX_VALUE, value));
+	}
+
+	/**
+	 * Gets 1 weight
+	 * @param turn		The turn (Board.turn), which selects the phase
+	 * @param feature	The feature (0 to Patterns.FEATURES - 1)
+	 * @param index		The index of the feature
+	 * @return			The weight
+	 */
+	public int weight(int turn, int feature, int index){
+		return weights.getShort(turnOffsets[Math.min(turn, TURNS - 1)][feature] + 2 * index);
+	}
+
+	/**
+	 * Gets the weight of each stable Disk
+	 * @param turn		The turn (Board.turn), which selects the phase
+	 * @return			The weight, 0 for files without stability weights
+	 */
+	public int stabilityWeight(int turn){
+		return turnStability[Math.min(turn, TURNS - 1)];
+	}
+
+	/**
+	 * Counts the stability feature of a position
+	 * @param blackDisks	BLACK Disks, as a bitboard
+	 * @param whiteDisks	WHITE Disks, as a bitboard
+	 * @return				BLACK's stable Disks minus WHITE's stable Disks
+	 */
+	public static int stability(long blackDisks, long whiteDisks){
+		return Long.bitCount(BitBoard.stableDisks(blackDisks, whiteDisks)) - Long.bitCount(BitBoard.stableDisks(whiteDisks, blackDisks));
+	}
+
+	/**
+	 * Writes a weights file with 1 phase
+	 * @param file			The file to write. It is replaced if it exists.
+	 * @param typeWeights	For each pattern type, the weight of every index
+	 * @throws IOException	If the file can't be written
+	 */
+	public static void write(File file, short[][] typeWeights) throws IOException {
+		write(file, new int[]{0}, new short[][][]{typeWeights});
+	}
+
+	/**
+	 * Writes a weights file without stability weights (they are 0)
+	 * @param file			The file to write. It is replaced if it exists.
+	 * @param firstTurns	The first turn of each phase. Starts with 0 and increases.
+	 * @param phaseWeights	For each phase and each pattern type, the weight of every index
+	 * @throws IOException	If the file can't be written
+	 */
+	public static void write(File file, int[] firstTurns, short[][][] phaseWeights) throws IOException {
+		write(file, firstTurns, phaseWeights, new short[firstTurns.length]);
+	}
+
+	/**
+	 * Writes a weights file
+	 * @param file				The file to write. It is replaced if it exists.
+	 * @param firstTurns		The first turn of each phase. Starts with 0 and increases.
+	 * @param phaseWeights		For each phase and each pattern type, the weight of every index
+	 * @param stabilityWeights	For each phase, the weight of each stable Disk
+	 * @throws IOException		If the file can't be written
+	 * @throws IllegalArgumentException	If the phases do not start at turn 0 and increase, or the weights do not fit them
+	 */
+	public static void write(File file, int[] firstTurns, short[][][] phaseWeights, short[] stabilityWeights) throws IOException {
+		if (firstTurns.length < 1 || firstTurns.length > TURNS)
+			throw new IllegalArgumentException("There must be 1 to " + TURNS + " phases");
+		if (phaseWeights.length != firstTurns.length || stabilityWeights.length != firstTurns.length)
+			throw new IllegalArgumentException("Each of the " + firstTurns.length + " phases needs its weights");
+		for (int phase = 0; phase < firstTurns.length; phase++){
+			if ((phase == 0) ? (firstTurns[phase] != 0) : (firstTurns[phase] <= firstTurns[phase - 1]))
+				throw new IllegalArgumentException("Phases must start at turn 0 and increase");
+			if (phaseWeights[phase].length != Patterns.TYPES)
+				throw new IllegalArgumentException("Each phase needs weights for " + Patterns.TYPES + " pattern types");
+		}
+		int size = 16 + 4 * Patterns.TYPES + 4 * firstTurns.length + 2 * firstTurns.length;
+		for (int type = 0; type < Patterns.TYPES; type++)
+			size += 2 * Patterns.SIZES[type] * firstTurns.length;
+		ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(Patterns.TYPES);
+		for (int type = 0; type < Patterns.TYPES; type++)
+			buffer.putInt(Patterns.LENGTHS[type]);
+		buffer.putInt(firstTurns.length);
+		for (int firstTurn : firstTurns)
+			buffer.putInt(firstTurn);
+		for (int phase = 0; phase < phaseWeights.length; phase++){
+			for (int type = 0; type < Patterns.TYPES; type++){
+				if (phaseWeights[phase][type].length != Patterns.SIZES[type])
+					throw new IllegalArgumentException(Patterns.NAMES[type] + " needs " + Patterns.SIZES[type] + " weights");
+				for (short weight : phaseWeights[phase][type])
+					buffer.putShort(weight);
+			}
+			buffer.putShort(stabilityWeights[phase]);
+		}
+		buffer.flip();
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")){
+			randomAccessFile.setLength(0);
+			FileChannel channel = randomAccessFile.getChannel();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		}
+	}
+}
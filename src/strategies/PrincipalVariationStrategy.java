@@ -0,0 +1,183 @@
+package strategies;
+
+import java.awt.Point;
+import java.util.ArrayList;
+
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import main_components.Controller;
+
+/**
+ * \brief
+ * Decides a computer move based on "Principal Variation Search" (NegaScout). \n
+ * A negamax search: each Board's value is from the point of view of the Player whose turn it is.
+ * The first move is searched with the full window, and the others with a null window that only tests if they are better.
+ * A move that turns out to be better is searched again with the full window. \n
+ * Iterative deepening, the TranspositionTable, ProbCut, the endgame solver and the SearchModes are inherited from AlphaBetaStrategy.
+ * Values given to and returned from alphaBeta(), and values in the TranspositionTable, are from BLACK's point of view as before.
+ * @author Rodney Shaghoulian
+ */
+public class PrincipalVariationStrategy extends AlphaBetaStrategy {
+	public static final int INFINITY = Integer.MAX_VALUE;	///< Larger than any utility. Unlike Integer.MIN_VALUE, -INFINITY can be negated.
+
+	/**
+	 * Constructor - Calls subclasses constructor. Creates a new TranspositionTable.
+	 * @param controller	The Othello simulation that we should run Principal Variation Search on.
+	 */
+	public PrincipalVariationStrategy(Controller controller){
+		super(controller);
+	}
+
+	/**
+	 * Constructor - Calls subclasses constructor
+	 * @param controller			The Othello simulation that we should run Principal Variation Search on.
+	 * @param transpositionTable	The TranspositionTable to use, so it can be kept between moves.
+	 */
+	public PrincipalVariationStrategy(Controller controller, TranspositionTable transpositionTable){
+		super(controller, transpositionTable);
+	}
+
+	/**
+	 * Creates a strategy of the same type with default settings, for helperStrategy()
+	 * @return	A new PrincipalVariationStrategy that shares this TranspositionTable
+	 */
+	@Override
+	protected AlphaBetaStrategy newStrategy(){
+		return new PrincipalVariationStrategy(controller, transpositionTable);
+	}
+
+	/**
+	 * Searches with Principal Variation Search, taking and returning values from BLACK's point of view like AlphaBetaStrategy
+	 * @param board			The Board to do a "move" on. It is unchanged when this function returns.
+	 * @param currLevel		The current depth we've searched to in game tree (where 0 corresponds to current state of Board)
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @param alpha			The lowest utility (for BLACK) we are interested in
+	 * @param beta			The highest utility (for BLACK) we are interested in
+	 * @return				The utility of the Board for BLACK. The best move is saved in bestMove when currLevel is 0.
+	 */
+	@Override
+	public int alphaBeta(Board board, int currLevel, int maxDepth, int alpha, int beta){
+		alpha = Math.max(alpha, -INFINITY);
+		if (board.playerTurn == Color.BLACK)
+			return principalVariation(board, currLevel, maxDepth, alpha, beta);
+		return -principalVariation(board, currLevel, maxDepth, -beta, -alpha);
+	}
+
+	/**
+	 * Recursive function. Negamax Principal Variation Search.
+	 * @param board			The Board to do a "move" on. It is unchanged when this function returns.
+	 * @param currLevel		The current depth we've searched to in game tree (where 0 corresponds to current state of Board)
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @param alpha			The lowest value (for board.playerTurn) we are interested in
+	 * @param beta			The highest value (for board.playerTurn) we are interested in
+	 * @return				The value of the Board for board.playerTurn. The best move is saved in bestMove when currLevel is 0.
+	 */
+	public int principalVariation(Board board, int currLevel, int maxDepth, int alpha, int beta){
+		int sign = (board.playerTurn == Color.BLACK) ? 1 : -1;
+		if (outOfTime())
+			return 0; // ignored, since the iteration is thrown away
+		if (board.gameEnded || (currLevel == maxDepth))
+			return sign * evaluate(board);
+
+		/* Use a saved result if it was searched deep enough. Saved results are for BLACK, so WHITE flips them. */
+		int depthLeft = maxDepth - currLevel;
+		int hashMove = TranspositionTable.NO_MOVE;
+		int symmetry = tableSymmetry(board);
+		long key = tableKey(board, symmetry);
+		long entry = transpositionTable.probe(key);
+		if (entry != TranspositionTable.MISS){
+			hashMove = boardMove(TranspositionTable.move(entry), symmetry);
+			int score = sign * TranspositionTable.score(entry);
+			int bound = flipBound(TranspositionTable.bound(entry), sign);
+			if (currLevel > 0 && TranspositionTable.depth(entry) >= depthLeft){
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && score <= alpha))
+					return score;
+			}
+		}
+
+		if (probCut != null){
+			int cut = probCut(board, currLevel, depthLeft, alpha, beta);
+			if (timeUp)
+				return 0;
+			if (cut != 0)
+				return (cut > 0) ? beta : alpha;
+		}
+		
+		int alphaOriginal = alpha;
+		ArrayList<Point> moves = orderedMoves(board, hashMove, currLevel);
+		int bestValue = -INFINITY;
+		Point bestPoint = null;
+		boolean firstMove = true;
+		for (Point move : moves){
+			nodesExpanded++;
+			Color player = board.playerTurn;
+			Command command = new Command(board, player, move);
+			command.execute();
+			boolean sameTurn = (board.playerTurn == player); // the opponent has to pass
+			int value;
+			if (firstMove)
+				value = searchChild(board, sameTurn, currLevel + 1, maxDepth, alpha, beta);
+			else {
+				value = searchChild(board, sameTurn, currLevel + 1, maxDepth, alpha, alpha + 1); // null window
+				if (value > alpha && value < beta && !timeUp)
+					value = searchChild(board, sameTurn, currLevel + 1, maxDepth, alpha, beta);	// fail high: search again
+			}
+			command.undo();
+			if (timeUp)
+				return 0;
+			firstMove = false;
+			if (value > bestValue){
+				bestValue = value;
+				bestPoint = move;
+				if (currLevel == 0)
+					bestMove = move;
+			}
+			alpha = Math.max(alpha, value);
+			if (alpha >= beta){
+				moveOrdering.cutoff(board, move, currLevel, depthLeft);
+				break; // this is where we "prune", since the other player will not allow this branch
+			}
+		}
+
+		/* Save result for BLACK */
+		int bound = TranspositionTable.EXACT;
+		if (bestValue <= alphaOriginal)
+			bound = TranspositionTable.UPPER_BOUND;
+		else if (bestValue >= beta)
+			bound = TranspositionTable.LOWER_BOUND;
+		transpositionTable.store(key, depthLeft, flipBound(bound, sign), sign * bestValue, tableMove(bestPoint.y * board.columns + bestPoint.x, symmetry));
+
+		return bestValue;
+	}
+
+	/**
+	 * Searches a child Board, giving its value from the parent's point of view
+	 * @param board			The Board after the move
+	 * @param sameTurn		true if the same Player moves again, because the opponent has to pass
+	 * @param currLevel		The depth of the child in the game tree
+	 * @param maxDepth		The number of levels deep we should search the game tree
+	 * @param alpha			The parent's alpha
+	 * @param beta			The parent's beta
+	 * @return				The value of the child for the parent's Player
+	 */
+	private int searchChild(Board board, boolean sameTurn, int currLevel, int maxDepth, int alpha, int beta){
+		if (sameTurn)
+			return principalVariation(board, currLevel, maxDepth, alpha, beta);
+		return -principalVariation(board, currLevel, maxDepth, -beta, -alpha);
+	}
+
+	/**
+	 * Converts a bound between BLACK's and WHITE's point of view
+	 * @param bound		EXACT, LOWER_BOUND or UPPER_BOUND
+	 * @param sign		1 for BLACK (no change), -1 for WHITE
+	 * @return			The bound for the other point of view
+	 */
+	private static int flipBound(int bound, int sign){
+		if (sign > 0 || bound == TranspositionTable.EXACT)
+			return bound;
+		return (bound == TranspositionTable.LOWER_BOUND) ? TranspositionTable.UPPER_BOUND : TranspositionTable.LOWER_BOUND;
+	}
+}
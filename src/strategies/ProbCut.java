@@ -0,0 +1,224 @@
+package strategies;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * \brief
+ * Calibration of Multi-ProbCut: how well a shallow search predicts a deep search of the same Board. \n
+ * Each "check" pairs a shallow depth with a deep depth, and each phase of the game (a band of Board.turn) has its own linear fit
+ * deep = slope * shallow + intercept, with the standard deviation of the error. AlphaBetaStrategy uses it to skip a deep subtree
+ * when a shallow search shows the deep value is very likely outside the window. A deep depth can have several checks,
+ * which are tried from the shallowest. \n
+ * Values are from the point of view of the Player whose turn it is. The fit depends on the evaluation, so the file should be
+ * calibrated (see tuning.ProbCutCalibrator) with the same weights the search uses. \n
+ * The file is little-endian: int MAGIC, int VERSION, int number of checks, int number of phases, int first turn of each phase,
+ * then for each check: int shallow depth, int deep depth, and for each phase: float slope, float intercept, float deviation.
+ * @author Rodney Shaghoulian
+ */
+public class ProbCut {
+	public static final int MAGIC = 0x5443504F;					///< "OPCT" in a little-endian file
+	public static final int VERSION = 1;						///< Version of the file format
+	public static final int MAX_DEPTH = 64;						///< Deep depths must be below this
+	public static final String DEFAULT_FILE = "probcut.bin";	///< The calibration used by Controller
+
+	public final int[] firstTurns;			///< The first turn of each phase
+	public final int[] shallowDepths;		///< For each check: the depth of the shallow search
+	public final int[] deepDepths;			///< For each check: the depth it predicts
+	public final float[][] slopes;			///< For each check and phase: the slope of the fit
+	public final float[][] intercepts;		///< For each check and phase: the intercept of the fit
+	public final float[][] deviations;		///< For each check and phase: the standard deviation of the error. Infinite if it was not calibrated.
+	private final int[] turnPhase;			///< For each turn: its phase
+	private final int[][] depthChecks;		///< For each deep depth: its checks, shallowest first
+
+	/**
+	 * Constructor
+	 * @param firstTurns		The first turn of each phase. Starts with 0 and increases.
+	 * @param shallowDepths		For each check: the depth of the shallow search
+	 * @param deepDepths		For each check: the depth it predicts, below MAX_DEPTH and deeper than the shallow depth
+	 * @param slopes			For each check and phase: the slope of the fit
+	 * @param intercepts		For each check and phase: the intercept of the fit
+	 * @param deviations		For each check and phase: the standard deviation of the error
+	 */
+	public ProbCut(int[] firstTurns, int[] shallowDepths, int[] deepDepths, float[][] slopes, float[][] intercepts, float[][] deviations){
+		this.firstTurns = firstTurns;
+		this.shallowDepths = shallowDepths;
+		this.deepDepths = deepDepths;
+		this.slopes = slopes;
+		this.intercepts = intercepts;
+		this.deviations = deviations;
+		for (int phase = 0; phase < firstTurns.length; phase++){
+			if ((phase == 0) ? (firstTurns[phase] != 0) : (firstTurns[phase] <= firstTurns[phase - 1]))
+				throw new IllegalArgumentException("Phases must start at turn 0 and increase");
+		}
+		for (int check = 0; check < deepDepths.length; check++){
+			if (shallowDepths[check] < 1 || shallowDepths[check] >= deepDepths[check] || deepDepths[check] >= MAX_DEPTH)
+				throw new IllegalArgumentException("Check " + check + " does not have 0 < shallow depth < deep depth < " + MAX_DEPTH);
+		}
+
+		turnPhase = new int[PatternEvaluator.TURNS];
+		int phase = 0;
+		for (int turn = 0; turn < turnPhase.length; turn++){
+			while (phase + 1 < firstTurns.length && firstTurns[phase + 1] <= turn)
+				phase++;
+			turnPhase[turn] = phase;
+		}
+
+		/* Checks of each deep depth, sorted by shallow depth so the cheapest is tried first */
+		depthChecks = new int[MAX_DEPTH][];
+		for (int depth = 0; depth < MAX_DEPTH; depth++){
+			ArrayList<Integer> checks = new ArrayList<>();
+			for (int shallow = 1; shallow < depth; shallow++){
+				for (int check = 0; check < deepDepths.length; check++){
+					if (deepDepths[check] == depth && shallowDepths[check] == shallow)
+						checks.add(check);
+				}
+			}
+			depthChecks[depth] = new int[checks.size()];
+			for (int i = 0; i < checks.size(); i++)
+				depthChecks[depth][i] = checks.get(i);
+		}
+	}
+
+	/**
+	 * Reads a calibration file
+	 * @param file			The calibration file
+	 * @return				The calibration
+	 * @throws IOException	If the file can't be read or is not a calibration
+	 */
+	public static ProbCut read(File file) throws IOException {
+		ByteBuffer buffer;
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")){
+			FileChannel channel = randomAccessFile.getChannel();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.capacity() < 16 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+			throw new IOException(file + " is not a ProbCut calibration file");
+		int checks = buffer.getInt();
+		int phases = buffer.getInt();
+		if (checks < 0 || phases < 1 || phases > PatternEvaluator.TURNS || buffer.capacity() != 16 + 4 * phases + (long) checks * (8 + 12 * phases))
+			throw new IOException(file + " has " + buffer.capacity() + " bytes, which does not fit its " + checks + " checks and " + phases + " phases");
+
+		int[] firstTurns = new int[phases];
+		for (int phase = 0; phase < phases; phase++)
+			firstTurns[phase] = buffer.getInt();
+		int[] shallowDepths = new int[checks];
+		int[] deepDepths = new int[checks];
+		float[][] slopes = new float[checks][phases];
+		float[][] intercepts = new float[checks][phases];
+		float[][] deviations = new float[checks][phases];
+		for (int check = 0; check < checks; check++){
+			shallowDepths[check] = buffer.getInt();
+			deepDepths[check] = buffer.getInt();
+			for (int phase = 0; phase < phases; phase++){
+				slopes[check][phase] = buffer.getFloat();
+				intercepts[check][phase] = buffer.getFloat();
+				deviations[check][phase] = buffer.getFloat();
+			}
+		}
+		try {
+			return new ProbCut(firstTurns, shallowDepths, deepDepths, slopes, intercepts, deviations);
+		}
+		catch (IllegalArgumentException illegalArgumentException) {
+			throw new IOException(file + ": " + illegalArgumentException.getMessage());
+		}
+	}
+
+	/**
+	 * Loads a calibration file if there is one
+	 * @param file		The calibration file
+	 * @return			A ProbCut, or null if the file does not exist or can't be used
+	 */
+	public static ProbCut load(File file){
+		if (!file.isFile())
+			return null;
+		try{
+			return read(file);
+		}
+		catch (IOException ioException){
+			System.out.println("ProbCut calibration not loaded: " + ioException.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the calibration to a file
+	 * @param file			The file to write. It is replaced if it exists.
+	 * @throws IOException	If the file can't be written
+	 */
+	public void write(File file) throws IOException {
+		int phases = firstTurns.length;
+		ByteBuffer buffer = ByteBuffer.allocate(16 + 4 * phases + deepDepths.length * (8 + 12 * phases)).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(deepDepths.length).putInt(phases);
+		for (int firstTurn : firstTurns)
+			buffer.putInt(firstTurn);
+		for (int check = 0; check < deepDepths.length; check++){
+			buffer.putInt(shallowDepths[check]).putInt(deepDepths[check]);
+			for (int phase = 0; phase < phases; phase++)
+				buffer.putFloat(slopes[check][phase]).putFloat(intercepts[check][phase]).putFloat(deviations[check][phase]);
+		}
+		buffer.flip();
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")){
+			randomAccessFile.setLength(0);
+			FileChannel channel = randomAccessFile.getChannel();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Gets the checks of a deep depth
+	 * @param depth		The depth left to search
+	 * @return			The checks predicting that depth, shallowest first. Empty if there are none.
+	 */
+	public int[] checks(int depth){
+		return depthChecks[Math.min(depth, MAX_DEPTH - 1)];
+	}
+
+	/**
+	 * Gets the phase of a turn
+	 * @param turn		The turn (Board.turn)
+	 * @return			The phase
+	 */
+	public int phase(int turn){
+		return turnPhase[Math.min(turn, turnPhase.length - 1)];
+	}
+
+	/**
+	 * Finds how high a shallow value must be to predict a deep value of at least beta
+	 * @param check		The check
+	 * @param phase		The phase of the Board
+	 * @param beta		The deep value to reach
+	 * @param threshold	Number of standard deviations of safety
+	 * @return			The lowest shallow value that predicts at least beta, or Long.MAX_VALUE if the check can't predict it
+	 */
+	public long highBound(int check, int phase, long beta, double threshold){
+		double slope = slopes[check][phase];
+		double bound = Math.ceil((beta + threshold * deviations[check][phase] - intercepts[check][phase]) / slope);
+		if (!(slope > 0) || Double.isNaN(bound) || bound >= Long.MAX_VALUE)
+			return Long.MAX_VALUE;
+		return (long) bound;
+	}
+
+	/**
+	 * Finds how low a shallow value must be to predict a deep value of at most alpha
+	 * @param check		The check
+	 * @param phase		The phase of the Board
+	 * @param alpha		The deep value to stay under
+	 * @param threshold	Number of standard deviations of safety
+	 * @return			The highest shallow value that predicts at most alpha, or Long.MIN_VALUE if the check can't predict it
+	 */
+	public long lowBound(int check, int phase, long alpha, double threshold){
+		double slope = slopes[check][phase];
+		double bound = Math.floor((alpha - threshold * deviations[check][phase] - intercepts[check][phase]) / slope);
+		if (!(slope > 0) || Double.isNaN(bound) || bound <= Long.MIN_VALUE)
+			return Long.MIN_VALUE;
+		return (long) bound;
+	}
+}
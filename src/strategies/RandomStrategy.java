@@ -5,7 +5,6 @@ import java.util.ArrayList;
 
 import main_components.Board;
 import main_components.Color;
-import main_components.Command;
 import main_components.Controller;
 
 /**
@@ -37,9 +36,7 @@ public class RandomStrategy extends Strategy {
 		if (validMoves.isEmpty())
 			return null;
 		Point move = chooseRandomMove(validMoves);
-		Command command = new Command(board, controller.board.playerTurn, move);
-		commandManager.executeCommand(command);
-		view.updateView();
+		executeMove(board, move);
 		return board;
 	}
 	
@@ -0,0 +1,71 @@
+package strategies;
+
+import java.awt.Point;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+
+/**
+ * \brief
+ * Searches 1 move at the root of the game tree, so that AlphaBetaStrategy.parallelAlphaBeta can search moves at the same time. \n
+ * Each task has its own copy of the Board and its own AlphaBetaStrategy. Tasks share the TranspositionTable and the best value found so far.
+ * @author Rodney Shaghoulian
+ */
+public class RootMoveTask extends RecursiveTask<Integer> {
+	private static final long serialVersionUID = 1L;
+
+	public AlphaBetaStrategy strategy;		///< Searches this move only. Keeps its own nodesExpanded and timeUp, and stops at the deadline of its parent.
+	public Board board;						///< A copy of the root Board. The move is executed on it.
+	public Point move;						///< The root move to search
+	public int maxDepth;					///< The number of levels deep to search, counting the root
+	public boolean blackTurn;				///< true if BLACK (the maximizing player) moves at the root
+	public AtomicInteger sharedBound;		///< Best value found so far at the root: alpha if blackTurn, beta otherwise
+	public int boundUsed;					///< The shared bound when the search started. A result no better than it is only a bound.
+
+	/**
+	 * Constructor
+	 * @param strategy		The AlphaBetaStrategy to search with
+	 * @param board			A copy of the root Board
+	 * @param move			The root move to search
+	 * @param maxDepth		The number of levels deep to search, counting the root
+	 * @param sharedBound	Best value found so far at the root. Updated when this move is better.
+	 */
+	public RootMoveTask(AlphaBetaStrategy strategy, Board board, Point move, int maxDepth, AtomicInteger sharedBound){
+		this.strategy = strategy;
+		this.board = board;
+		this.move = move;
+		this.maxDepth = maxDepth;
+		this.blackTurn = (board.playerTurn == Color.BLACK);
+		this.sharedBound = sharedBound;
+	}
+
+	/**
+	 * Searches the move with the best root value known when the task starts, so moves searched later get a narrower window.
+	 * @return	The utility of the move. If it is no better than boundUsed, it is only a bound on the utility.
+	 */
+	@Override
+	protected Integer compute(){
+		boundUsed = sharedBound.get();
+		Command command = new Command(board, board.playerTurn, move);
+		command.execute();
+		int value;
+		if (blackTurn)
+			value = strategy.alphaBeta(board, 1, maxDepth, boundUsed, Integer.MAX_VALUE);
+		else
+			value = strategy.alphaBeta(board, 1, maxDepth, Integer.MIN_VALUE, boundUsed);
+		if (strategy.timeUp)
+			return 0; // ignored, since the iteration is thrown away
+
+		/* Share an improved bound with the moves that have not started yet */
+		int current = sharedBound.get();
+		while (blackTurn ? (value > current) : (value < current)){
+			if (sharedBound.compareAndSet(current, value))
+				break;
+			current = sharedBound.get();
+		}
+		return value;
+	}
+}
@@ -0,0 +1,12 @@
+package strategies;
+
+/**
+ * \brief
+ * The search used for HARD moves. Each one is an AlphaBetaStrategy, so they can be compared on the same Boards.
+ * @author Rodney Shaghoulian
+ */
+public enum SearchAlgorithm {
+	ALPHA_BETA,				///< AlphaBetaStrategy: minimax form, full windows
+	PRINCIPAL_VARIATION,	///< PrincipalVariationStrategy: negamax, null windows after the first move
+	MTDF					///< MTDFStrategy: a series of zero-window searches that converge on the utility
+}
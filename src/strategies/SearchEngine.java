@@ -0,0 +1,130 @@
+package strategies;
+
+import java.util.concurrent.ForkJoinPool;
+
+import main_components.Board;
+
+/**
+ * \brief
+ * The Engine of HARD games: an AlphaBetaStrategy (or PrincipalVariationStrategy, or MTDFStrategy) searching without a Controller. \n
+ * The TranspositionTable and the EndgameSolver are kept between searches, so each search can reuse earlier results.
+ * The PatternEvaluator, OpeningBook and ProbCut are only read, so 1 of each can be shared by every SearchEngine of a program.
+ * The tables are the only large memory of a SearchEngine, so many SearchEngines can run at once with small tables. \n
+ * A SERIAL SearchEngine starts no threads. The others use pool: a pool set by the caller may be shared by many SearchEngines,
+ * and is left running by close(). Otherwise the SearchEngine creates its own pool, which close() shuts down.
+ * @author Rodney Shaghoulian
+ */
+public class SearchEngine implements Engine {
+	public SearchAlgorithm searchAlgorithm = SearchAlgorithm.ALPHA_BETA;	///< The search used
+	public SearchMode searchMode = SearchMode.SERIAL;	///< How each search is spread over threads
+	public ForkJoinPool pool;							///< The threads used when searchMode is not SERIAL. May be shared. Created when first needed if it is not set.
+	public long timeLimit = 1000;						///< Milliseconds each search may take
+	public int depth = 60;								///< The deepest iteration of each search
+
+	public final TranspositionTable transpositionTable;	///< Results of earlier searches
+	public final EndgameSolver endgameSolver;			///< Solves the end of the game. Its TranspositionTable is kept between searches.
+	public PatternEvaluator patternEvaluator;			///< Evaluates 8x8 Boards when set
+	public OpeningBook openingBook;						///< Looked up before searching. null for no book.
+	public ProbCut probCut;								///< Selective search. null for none.
+
+	private ForkJoinPool ownPool;						///< The pool this SearchEngine created, shut down by close()
+	private volatile AlphaBetaStrategy strategy;		///< The search running now, so stop() can reach it. null between searches.
+
+	/**
+	 * Constructor - Creates tables of the default size
+	 */
+	public SearchEngine(){
+		this(TranspositionTable.DEFAULT_SIZE_MB);
+	}
+
+	/**
+	 * Constructor
+	 * @param tableSizeMB	Size of the TranspositionTable, and of the EndgameSolver's, in megabytes
+	 */
+	public SearchEngine(int tableSizeMB){
+		transpositionTable = new TranspositionTable(tableSizeMB);
+		endgameSolver = new EndgameSolver(new TranspositionTable(tableSizeMB));
+	}
+
+	/**
+	 * Finds the best move of a Board with iterative deepening
+	 * @param board		The Board. It is not changed. Its game must not have ended.
+	 * @return			The best move and how it was found
+	 */
+	@Override
+	public EngineResult search(Board board){
+		if (board.gameEnded)
+			throw new IllegalArgumentException("The game has ended, so there is no move to search");
+		AlphaBetaStrategy alphaBetaStrategy = createStrategy();
+		alphaBetaStrategy.stopped = false;
+		alphaBetaStrategy.deadline = Long.MAX_VALUE;
+		strategy = alphaBetaStrategy; // published before searching, so every later stop() reaches it
+		try{
+			alphaBetaStrategy.iterativeDeepening(board);
+			return new EngineResult(alphaBetaStrategy, board);
+		}
+		finally{
+			strategy = null;
+		}
+	}
+
+	/**
+	 * Stops the search running on another thread. It returns the best move of its last completed iteration. \n
+	 * A stop() before search() has created its strategy has no effect.
+	 */
+	@Override
+	public void stop(){
+		AlphaBetaStrategy alphaBetaStrategy = strategy;
+		if (alphaBetaStrategy != null)
+			alphaBetaStrategy.stop();
+	}
+
+	/**
+	 * Clears the TranspositionTables, for a new game
+	 */
+	@Override
+	public void clear(){
+		transpositionTable.clear();
+		endgameSolver.transpositionTable.clear();
+	}
+
+	/**
+	 * Shuts down the pool this SearchEngine created. A pool set by the caller is left running.
+	 */
+	@Override
+	public void close(){
+		if (ownPool != null){
+			ownPool.shutdown();
+			if (pool == ownPool)
+				pool = null;
+			ownPool = null;
+		}
+	}
+
+	/**
+	 * Creates the strategy of 1 search, with this SearchEngine's settings
+	 * @return	An AlphaBetaStrategy without a Controller, sharing this SearchEngine's tables
+	 */
+	public AlphaBetaStrategy createStrategy(){
+		AlphaBetaStrategy alphaBetaStrategy;
+		if (searchAlgorithm == SearchAlgorithm.PRINCIPAL_VARIATION)
+			alphaBetaStrategy = new PrincipalVariationStrategy(null, transpositionTable);
+		else if (searchAlgorithm == SearchAlgorithm.MTDF)
+			alphaBetaStrategy = new MTDFStrategy(null, transpositionTable);
+		else
+			alphaBetaStrategy = new AlphaBetaStrategy(null, transpositionTable);
+		if (searchMode != SearchMode.SERIAL && pool == null){
+			ownPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+			pool = ownPool;
+		}
+		alphaBetaStrategy.timeLimit = timeLimit;
+		alphaBetaStrategy.depth = depth;
+		alphaBetaStrategy.searchMode = searchMode;
+		alphaBetaStrategy.pool = pool;
+		alphaBetaStrategy.endgameSolver = endgameSolver;
+		alphaBetaStrategy.patternEvaluator = patternEvaluator;
+		alphaBetaStrategy.openingBook = openingBook;
+		alphaBetaStrategy.probCut = probCut;
+		return alphaBetaStrategy;
+	}
+}
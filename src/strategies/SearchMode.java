@@ -0,0 +1,12 @@
+package strategies;
+
+/**
+ * \brief
+ * How AlphaBetaStrategy spreads a search over threads. Without a pool, every SearchMode searches on 1 thread.
+ * @author Rodney Shaghoulian
+ */
+public enum SearchMode {
+	SERIAL,		///< 1 thread searches the whole game tree
+	ROOT_SPLIT,	///< The moves at the root are searched at the same time ("Young Brothers Wait"). Not supported by MTDFStrategy.
+	LAZY_SMP	///< Helper threads search the same Board at staggered depths, sharing results through the TranspositionTable
+}
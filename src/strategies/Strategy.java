@@ -23,10 +23,12 @@ public abstract class Strategy {
 	
 	/**
 	 * Constructor - Initializes Variables
-	 * @param controller	Corresponds to the current Othello simulation
+	 * @param controller	Corresponds to the current Othello simulation. May be null to use the Strategy without a View (see Engine).
 	 */
 	public Strategy(Controller controller){
 		this.controller 	= controller;
+		if (controller == null)
+			return;
 		this.view 			= controller.view;
 		this.commandManager = controller.commandManager;
 	}
@@ -38,6 +40,31 @@ public abstract class Strategy {
 	 */
 	public abstract Board move(Board board);
 	
+	/**
+	 * Executes the chosen "move" on a Board. With a Controller, the Command is saved for "undos" and the View is updated.
+	 * @param board		The Board to do the "move" on
+	 * @param move		The move, which must be valid for board.playerTurn
+	 */
+	public void executeMove(Board board, Point move){
+		Command command = new Command(board, board.playerTurn, move);
+		if (commandManager == null)
+			command.execute();
+		else
+			commandManager.executeCommand(command);
+		if (view != null)
+			view.updateView();
+	}
+	
+	/**
+	 * Gets the valid moves of the Player whose turn it is. \n
+	 * The list is a copy, so it stays unchanged while a search executes and undoes Commands on the Board.
+	 * @param board		The current Board
+	 * @return			The valid moves for board.playerTurn
+	 */
+	public ArrayList<Point> getValidMoves(Board board){
+		return new ArrayList<Point>(board.getCurrentPlayer().validMoves);
+	}
+	
 	/**
 	 * Get all Boards that can result from all possible moves on this turn.
 	 * @param board		The current Board before the "move" is performed
@@ -68,8 +95,9 @@ public abstract class Strategy {
 	public Command getCommand(Board board, Board successorBoard){
 		for (int row = 0; row < board.rows; row++){
 			for (int col = 0; col < board.columns; col++){
-				if (board.tile[row][col].color == Color.NONE && successorBoard.tile[row][col].color != Color.NONE)
-					return new Command(board, successorBoard.tile[row][col].color, new Point(col, row));
+				Point pos = new Point(col, row);
+				if (board.diskColor(pos) == Color.NONE && successorBoard.diskColor(pos) != Color.NONE)
+					return new Command(board, successorBoard.diskColor(pos), pos);
 			}
 		}
 		return null; // should never execute
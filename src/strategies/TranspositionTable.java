@@ -0,0 +1,134 @@
+package strategies;
+
+/**
+ * \brief
+ * A fixed-size table of search results, indexed by a Board's Zobrist hashKey (or early in the game, the key of its canonical form:
+ * see AlphaBetaStrategy.tableKey()). \n
+ * Each entry is 2 longs: (key XOR data) and data. A reader only accepts an entry if the 2 longs XOR back to its key,
+ * so entries half-written by another thread are ignored. That makes the table safe to share between threads without locks. \n
+ * Each bucket has a depth-preferred slot and an always-replace slot.
+ * @author Rodney Shaghoulian
+ */
+public class TranspositionTable {
+	public static final int DEFAULT_SIZE_MB = 16;	///< Size of a table when no size is given
+
+	public static final int EXACT = 0;				///< The score is the exact utility of the Board
+	public static final int LOWER_BOUND = 1;		///< The utility of the Board is at least the score (the search failed high)
+	public static final int UPPER_BOUND = 2;		///< The utility of the Board is at most the score (the search failed low)
+
+	public static final long MISS = -1L;			///< Returned by probe() when the Board is not in the table
+	public static final int NO_MOVE = -1;			///< Stored as the best move when there is none
+
+	private static final long VALID = 1L << 62;		///< Set in the data of every stored entry, so an empty slot is never a hit
+	private static final int LONGS_PER_BUCKET = 4;	///< 2 slots of 2 longs each
+
+	public final long[] table;						///< The buckets, 4 longs each
+	public final int bucketMask;					///< Number of buckets - 1. The number of buckets is a power of 2.
+
+	/**
+	 * Constructor - Allocates the whole table up front
+	 * @param sizeMB	The size of the table in megabytes. It is rounded down to a power of 2.
+	 */
+	public TranspositionTable(int sizeMB){
+		long buckets = Math.max(1, ((long) sizeMB << 20) / (LONGS_PER_BUCKET * 8));
+		int bucketCount = (int) Long.highestOneBit(Math.min(buckets, Integer.MAX_VALUE / LONGS_PER_BUCKET));
+		table = new long[bucketCount * LONGS_PER_BUCKET];
+		bucketMask = bucketCount - 1;
+	}
+
+	/**
+	 * Looks up a Board
+	 * @param key	The Board's hashKey
+	 * @return		The packed entry (read it with depth(), bound(), score() and move()), or MISS
+	 */
+	public long probe(long key){
+		int index = index(key);
+		for (int slot = index; slot < index + LONGS_PER_BUCKET; slot += 2){
+			long data = table[slot + 1];
+			if ((table[slot] ^ data) == key && (data & VALID) != 0)
+				return data;
+		}
+		return MISS;
+	}
+
+	/**
+	 * Saves a search result. Goes in the depth-preferred slot if it was searched at least as deep as what is there,
+	 * or if it is the same Board. Otherwise it goes in the always-replace slot.
+	 * @param key		The Board's hashKey
+	 * @param depth		The number of levels searched below the Board (0 to 255)
+	 * @param bound		EXACT, LOWER_BOUND or UPPER_BOUND
+	 * @param score		The utility found by the search
+	 * @param move		The square (row * columns + column) of the best move, or NO_MOVE
+	 */
+	public void store(long key, int depth, int bound, int score, int move){
+		long data = pack(depth, bound, score, move);
+		int index = index(key);
+		long preferredData = table[index + 1];
+		long preferredKey = table[index] ^ preferredData;
+		int slot = index;
+		if (preferredKey != key && depth(preferredData) > depth)
+			slot = index + 2;
+		table[slot] = key ^ data;
+		table[slot + 1] = data;
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	public void clear(){
+		java.util.Arrays.fill(table, 0);
+	}
+
+	/**
+	 * Gets the number of levels searched below the Board
+	 * @param entry		An entry returned by probe()
+	 * @return			The depth
+	 */
+	public static int depth(long entry){
+		return (int) ((entry >>> 48) & 0xFF);
+	}
+
+	/**
+	 * Gets the bound type of an entry
+	 * @param entry		An entry returned by probe()
+	 * @return			EXACT, LOWER_BOUND or UPPER_BOUND
+	 */
+	public static int bound(long entry){
+		return (int) ((entry >>> 56) & 0x3);
+	}
+
+	/**
+	 * Gets the score of an entry
+	 * @param entry		An entry returned by probe()
+	 * @return			The score
+	 */
+	public static int score(long entry){
+		return (int) entry;
+	}
+
+	/**
+	 * Gets the best move of an entry
+	 * @param entry		An entry returned by probe()
+	 * @return			The square of the best move, or NO_MOVE
+	 */
+	public static int move(long entry){
+		int move = (int) ((entry >>> 32) & 0xFFFF);
+		return (move == 0xFFFF) ? NO_MOVE : move;
+	}
+
+	/**
+	 * Packs an entry into 1 long: score in bits 0-31, move in 32-47, depth in 48-55, bound in 56-57.
+	 */
+	private static long pack(int depth, int bound, int score, int move){
+		long packedMove = (move == NO_MOVE) ? 0xFFFF : (move & 0xFFFF);
+		long packedDepth = Math.min(Math.max(depth, 0), 0xFF);
+		return VALID | ((long) bound << 56) | (packedDepth << 48) | (packedMove << 32) | (score & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Gets the index of the first long of a key's bucket
+	 */
+	private int index(long key){
+		return (int) (key & bucketMask) * LONGS_PER_BUCKET;
+	}
+}
@@ -2,6 +2,7 @@ package strategies;
 
 import main_components.Board;
 import main_components.Color;
+import main_components.EvaluationState;
 
 /**
  * \brief
@@ -10,6 +11,10 @@ import main_components.Color;
  */
 public class Utility {
 	
+	private static final int BLACK = 0;	///< Index of BLACK in EvaluationState's counts
+	private static final int WHITE = 1;	///< Index of WHITE in EvaluationState's counts
+	public static final int STABLE_DISK_WEIGHT = 10;	///< Utility of each stable Disk in finalValue, on 8x8 Boards
+	
 	public Board board;	///< The Board that we are calculating the "utility" for.
 	public int value;	///< The utility value of the Board
 	
@@ -47,7 +52,20 @@ public class Utility {
 		if (board.gameEnded)
 			gameEndedUtility();
 		else
-			value = board.cornersOwned(Color.BLACK) - board.cornersOwned(Color.WHITE);
+			value = board.evaluation.corners[BLACK] - board.evaluation.corners[WHITE];
+	}
+	
+	/**
+	 * Calculates utility based on the number of stable Disks (Disks that can never be flipped) of each Player. \n
+	 * Boards that are not 8x8 only count corners, which are always stable.
+	 */
+	public void utilityStability(){
+		if (board.gameEnded)
+			gameEndedUtility();
+		else if (!board.isBitBoard)
+			utilityCorners();
+		else
+			value = PatternEvaluator.stability(board.blackDisks, board.whiteDisks);
 	}
 	
 	/**
@@ -62,39 +80,60 @@ public class Utility {
 	
 	/**
 	 * Calculates utility based on valid moves remaining for each player. More moves equals greater utility. \n
-	 * Also takes into account X squares, C squares, and corners.
+	 * Also takes into account X squares, C squares, and corners, and on 8x8 Boards with a corner taken, stable Disks.
 	 */
 	public void utilityFinal(){
+		value = finalValue(board);
+	}
+	
+	/**
+	 * Calculates the same utility as utilityFinal, without creating any objects. \n
+	 * Corners, X squares and C squares are read from the Board's EvaluationState, which is kept up to date by every move and undo. \n
+	 * On 8x8 Boards with a corner taken, each stable Disk (see utilityStability) is also worth STABLE_DISK_WEIGHT.
+	 * Without a corner, Disks are almost never stable, so they are not counted.
+	 * @param board		The Board to calculate the utility for
+	 * @return			The utility of the Board
+	 */
+	public static int finalValue(Board board){
 		if (board.gameEnded)
-			gameEndedUtility();
-		else{
-			int utilityBlack = board.blackPlayer.validMoves.size()
-					           + (-63 + board.turn) * board.badCSquaresOwned(Color.BLACK) 
-					           + (-60 + board.turn) * board.badXSquaresOwned(Color.BLACK)
-				               + ( 66 - board.turn) * board.cornersOwned(Color.BLACK);
-			int utilityWhite = board.whitePlayer.validMoves.size()
-			           			+ (-63 + board.turn) * board.badCSquaresOwned(Color.WHITE) 
-			           			+ (-60 + board.turn) * board.badXSquaresOwned(Color.WHITE)
-			           			+ ( 66 - board.turn) * board.cornersOwned(Color.WHITE);
-			if (board.turn >= 44){
-				utilityBlack += board.blackPlayer.score;
-				utilityWhite += board.whitePlayer.score;
-			}
-			value = utilityBlack - utilityWhite;
+			return gameEndedValue(board);
+		EvaluationState evaluation = board.evaluation;
+		int utilityBlack = board.blackPlayer.validMoves.size()
+				           + (-63 + board.turn) * evaluation.badCSquares[BLACK]
+				           + (-60 + board.turn) * evaluation.badXSquares[BLACK]
+			               + ( 66 - board.turn) * evaluation.corners[BLACK];
+		int utilityWhite = board.whitePlayer.validMoves.size()
+		           			+ (-63 + board.turn) * evaluation.badCSquares[WHITE]
+		           			+ (-60 + board.turn) * evaluation.badXSquares[WHITE]
+		           			+ ( 66 - board.turn) * evaluation.corners[WHITE];
+		if (board.turn >= 44){
+			utilityBlack += board.blackPlayer.score;
+			utilityWhite += board.whitePlayer.score;
 		}
+		int value = utilityBlack - utilityWhite;
+		if (board.isBitBoard && evaluation.corners[BLACK] + evaluation.corners[WHITE] > 0)
+			value += STABLE_DISK_WEIGHT * PatternEvaluator.stability(board.blackDisks, board.whiteDisks);
+		return value;
 	}
 	
 	/**
 	 * Assigns a utility of 1000 for BLACK win and -1000 for WHITE win.
 	 */
 	public void gameEndedUtility(){
-		if (board.gameEnded){
-			if (board.winner == Color.BLACK)
-				value = 10000; //pretty arbitrary. Just has to be bigger than Absolute Value of inner nodes
-			else if (board.winner == Color.WHITE)
-				value = -10000;  //pretty arbitrary. Just has to be bigger than Absolute Value of inner nodes
-			else
-				value = 0;
-		}
+		if (board.gameEnded)
+			value = gameEndedValue(board);
+	}
+	
+	/**
+	 * Gets the utility of a finished game
+	 * @param board		A Board whose game has ended
+	 * @return			10000 for a BLACK win, -10000 for a WHITE win, 0 for a tie
+	 */
+	public static int gameEndedValue(Board board){
+		if (board.winner == Color.BLACK)
+			return 10000; //pretty arbitrary. Just has to be bigger than Absolute Value of inner nodes
+		else if (board.winner == Color.WHITE)
+			return -10000;  //pretty arbitrary. Just has to be bigger than Absolute Value of inner nodes
+		return 0;
 	}
 }
@@ -13,7 +13,8 @@ import org.junit.runners.Suite.SuiteClasses;
  */
 @RunWith(Suite.class)
 @SuiteClasses({ DiskTest.class, PlayerTest.class, BoardTest.class, ButtonTest.class,
-	CommandManagerTest.class, CommandTest.class, ControllerTest.class, UtilityTest.class,
+	CommandManagerTest.class, CommandTest.class, ControllerTest.class, UtilityTest.class, BitBoardTest.class, TranspositionTableTest.class, EndgameSolverTest.class,
+	PrincipalVariationStrategyTest.class, MTDFStrategyTest.class, MoveOrderingTest.class, EvaluationStateTest.class, PatternEvaluatorTest.class, TunerTest.class, OpeningBookTest.class, BookBuilderTest.class, ProbCutTest.class, SearchEngineTest.class,
 	RandomStrategyTest.class, MinimaxStrategyTest.class, AlphaBetaStrategyTest.class})
 public class AllTests {
 
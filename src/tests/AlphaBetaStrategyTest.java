@@ -4,15 +4,23 @@ import static org.junit.Assert.*;
 
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import main_components.BitBoard;
 import main_components.Board;
 import main_components.Color;
 import main_components.Command;
-import main_components.Controller;
-import strategies.Difficulty;
 import strategies.AlphaBetaStrategy;
+import strategies.EndgameSolver;
+import strategies.ProbCut;
+import strategies.RootMoveTask;
+import strategies.SearchMode;
+import strategies.TranspositionTable;
 
 /**
  * \brief
@@ -22,18 +30,17 @@ import strategies.AlphaBetaStrategy;
 public class AlphaBetaStrategyTest {
 
 	/**
-	 * Tests constructor properly initializes variables to non-null values
+	 * Tests constructor properly initializes variables, without a Controller
 	 */
 	@Test
 	public void testAlphaBetaStrategy() {
 		/* Set up data */
-		Controller controller = new Controller(8, 8, Difficulty.EASY);
-		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(controller);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
 		
 		/* Test data */
-		assertNotNull(alphaBetaStrategy.controller);
-		assertNotNull(alphaBetaStrategy.view);
-		assertNotNull(alphaBetaStrategy.commandManager);
+		assertNotNull(alphaBetaStrategy.transpositionTable);
+		assertNull(alphaBetaStrategy.view);
+		assertNull(alphaBetaStrategy.commandManager);
 	}
 	
 	/**
@@ -42,12 +49,12 @@ public class AlphaBetaStrategyTest {
 	@Test
 	public void testMove() {
 		/* Set up data */
-		Controller controller = new Controller(8, 8, Difficulty.EASY);
-		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(controller);
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
 		
 		/* Test data */
-		alphaBetaStrategy.move(alphaBetaStrategy.controller.board);
-		assertEquals(alphaBetaStrategy.controller.board.playerTurn, Color.WHITE);
+		alphaBetaStrategy.move(board);
+		assertEquals(board.playerTurn, Color.WHITE);
 	}
 
 	/**
@@ -56,26 +63,309 @@ public class AlphaBetaStrategyTest {
 	@Test
 	public void testAlphaBeta() {
 		/* Set up data */
-		Controller controller = new Controller(8, 8, Difficulty.EASY);
-		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(controller);
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
 		
 		/* Test data */
-		Board board = alphaBetaStrategy.alphaBeta(controller.board, 3, 3, 0, 0);
+		int value = alphaBetaStrategy.alphaBeta(board, 3, 3, 0, 0);
+		assertEquals(value, 0);
 		assertEquals(board.blackPlayer.score, 2);
 		assertEquals(board.whitePlayer.score, 2);
 	}
 
+	/**
+	 * Tests iterative deepening returns a valid move within its time limit, and leaves the Board unchanged
+	 */
+	@Test
+	public void testIterativeDeepening() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
+		alphaBetaStrategy.timeLimit = 200;
+		
+		/* Test data */
+		long startTime = System.currentTimeMillis();
+		Point move = alphaBetaStrategy.iterativeDeepening(board);
+		long elapsedTime = System.currentTimeMillis() - startTime;
+		assertNotNull(move);
+		assertTrue(board.validMove(move, Color.BLACK));
+		assertTrue(alphaBetaStrategy.depthReached >= 1);
+		assertTrue(elapsedTime < 1000);
+		assertEquals(board.blackPlayer.score, 2);
+		assertEquals(board.whitePlayer.score, 2);
+	}
+
+	/**
+	 * Tests the parallel root search gives the same utility as the search on 1 thread
+	 */
+	@Test
+	public void testParallelAlphaBeta() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
+		AlphaBetaStrategy parallelStrategy = new AlphaBetaStrategy(null);
+		parallelStrategy.pool = new ForkJoinPool(4);
+		
+		/* Test data */
+		for (int depth = 1; depth <= 4; depth++){
+			int value = alphaBetaStrategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			assertEquals(parallelStrategy.parallelAlphaBeta(board, depth), value);
+			assertTrue(board.validMove(parallelStrategy.bestMove, Color.BLACK));
+		}
+		assertEquals(board.blackPlayer.score, 2);
+		assertEquals(board.whitePlayer.score, 2);
+	}
+
+	/**
+	 * Tests the root skips moves that are symmetric to an earlier move, and deeper levels do not
+	 */
+	@Test
+	public void testSymmetricMoves() {
+		/* Set up data */
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		Board board = new Board(8, 8);
+		
+		/* Test data */
+		assertEquals(alphaBetaStrategy.orderedMoves(board, TranspositionTable.NO_MOVE, 0).size(), 1);
+		assertEquals(alphaBetaStrategy.orderedMoves(board, TranspositionTable.NO_MOVE, 1).size(), 4);
+		alphaBetaStrategy.alphaBeta(board, 0, 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		assertTrue(board.validMove(alphaBetaStrategy.bestMove, Color.BLACK));
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		assertEquals(alphaBetaStrategy.orderedMoves(board, TranspositionTable.NO_MOVE, 0).size(), 3);
+	}
+
+	/**
+	 * Tests early Boards share TranspositionTable entries with their symmetries, with the best move turned to fit
+	 */
+	@Test
+	public void testSymmetricTable() {
+		/* Set up data */
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		Board board = new Board(8, 8);
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		int value = alphaBetaStrategy.alphaBeta(board, 0, 4, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		int square = BitBoard.square(alphaBetaStrategy.bestMove);
+		
+		/* Test data: each first move gives a symmetry of the same Board */
+		Board start = new Board(8, 8);
+		for (Point firstMove : new ArrayList<Point>(start.blackPlayer.validMoves)){
+			Board symmetric = new Board(start);
+			new Command(symmetric, symmetric.playerTurn, firstMove).execute();
+			int symmetry = alphaBetaStrategy.tableSymmetry(symmetric);
+			long entry = alphaBetaStrategy.transpositionTable.probe(AlphaBetaStrategy.tableKey(symmetric, symmetry));
+			assertNotEquals(entry, TranspositionTable.MISS);
+			assertEquals(TranspositionTable.score(entry), value);
+			int move = AlphaBetaStrategy.boardMove(TranspositionTable.move(entry), symmetry);
+			assertTrue(symmetric.validMove(BitBoard.point(move), Color.WHITE));
+			if (firstMove.equals(new Point(5, 3)))
+				assertEquals(move, square);
+		}
+		
+		/* Later Boards use their hashKey */
+		alphaBetaStrategy.symmetricTurns = 0;
+		assertEquals(alphaBetaStrategy.tableSymmetry(board), -1);
+		assertEquals(AlphaBetaStrategy.tableKey(board, -1), board.hashKey);
+	}
+
+	/**
+	 * Tests a helper has the search settings of its strategy, and shares its TranspositionTable
+	 */
+	@Test
+	public void testHelperStrategy() {
+		/* Set up data */
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		alphaBetaStrategy.depth = 7;
+		alphaBetaStrategy.evaluationLevels = 0;
+		alphaBetaStrategy.symmetricTurns = 0;
+		alphaBetaStrategy.probCutThreshold = 2.5;
+		alphaBetaStrategy.aspirationWindow = 0;
+		alphaBetaStrategy.searchMode = SearchMode.ROOT_SPLIT;
+		alphaBetaStrategy.pool = new ForkJoinPool(1);
+
+		/* Test data */
+		AlphaBetaStrategy strategy = alphaBetaStrategy.helperStrategy();
+		assertSame(strategy.transpositionTable, alphaBetaStrategy.transpositionTable);
+		assertEquals(strategy.depth, 7);
+		assertEquals(strategy.evaluationLevels, 0);
+		assertEquals(strategy.symmetricTurns, 0);
+		assertEquals(strategy.probCutThreshold, 2.5, 0);
+		assertEquals(strategy.aspirationWindow, 0);
+		assertEquals(strategy.searchMode, SearchMode.SERIAL);
+		assertNull(strategy.pool);
+		assertNotSame(strategy.moveOrdering, alphaBetaStrategy.moveOrdering);
+		alphaBetaStrategy.pool.shutdown();
+	}
+
+	/**
+	 * Tests stop() reaches a root move already being searched by the pool, which polls its parent's deadline
+	 */
+	@Test
+	public void testStopRootMoveTask() throws Exception {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		AlphaBetaStrategy strategy = alphaBetaStrategy.helperStrategy();
+		strategy.parent = alphaBetaStrategy;
+		RootMoveTask task = new RootMoveTask(strategy, new Board(board), board.getCurrentPlayer().validMoves.get(0), 60, new AtomicInteger(Integer.MAX_VALUE));
+		ForkJoinPool pool = new ForkJoinPool(1);
+		pool.execute(task);
+
+		/* Test data */
+		Thread.sleep(200);
+		long startTime = System.currentTimeMillis();
+		alphaBetaStrategy.stop();
+		task.join();
+		assertTrue(System.currentTimeMillis() - startTime < 1000);
+		assertTrue(strategy.timeUp);
+		pool.shutdown();
+	}
+
+	/**
+	 * Tests a LAZY_SMP search finds a valid move, and its helpers stop when it finishes
+	 */
+	@Test
+	public void testLazySmp() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
+		alphaBetaStrategy.searchMode = SearchMode.LAZY_SMP;
+		alphaBetaStrategy.pool = new ForkJoinPool(2);
+		alphaBetaStrategy.helperThreads = 2;
+		alphaBetaStrategy.depth = 4;
+		
+		/* Test data */
+		Point move = alphaBetaStrategy.iterativeDeepening(board);
+		assertTrue(board.validMove(move, Color.BLACK));
+		assertEquals(alphaBetaStrategy.depthReached, 4);
+		assertTrue(alphaBetaStrategy.helperDepthReached <= 4);
+		assertTrue(alphaBetaStrategy.pool.awaitQuiescence(1, TimeUnit.SECONDS));
+		assertEquals(board.blackPlayer.score, 2);
+		assertEquals(board.whitePlayer.score, 2);
+	}
+
+	/**
+	 * Tests each SearchMode without a pool searches on 1 thread, finding the same utility as SERIAL
+	 */
+	@Test
+	public void testNoPool() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy serialStrategy = new AlphaBetaStrategy(null);
+		serialStrategy.depth = 4;
+		serialStrategy.iterativeDeepening(board);
+
+		/* Test data */
+		for (SearchMode searchMode : SearchMode.values()){
+			AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
+			alphaBetaStrategy.searchMode = searchMode;
+			alphaBetaStrategy.depth = 4;
+			Point move = alphaBetaStrategy.iterativeDeepening(board);
+			assertTrue(board.validMove(move, Color.BLACK));
+			assertEquals(alphaBetaStrategy.depthReached, 4);
+			assertEquals(alphaBetaStrategy.bestValue, serialStrategy.bestValue);
+			assertEquals(alphaBetaStrategy.helperNodes, 0);
+		}
+	}
+
+	/**
+	 * Tests an aspiration window far from the utility is widened until it finds the same utility as a full window
+	 */
+	@Test
+	public void testAspirationSearch() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
+		int value = alphaBetaStrategy.alphaBeta(board, 0, 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		
+		/* Test data */
+		for (int guess : new int[]{value, value - 1000, value + 1000}){
+			AlphaBetaStrategy aspirationStrategy = new AlphaBetaStrategy(null);
+			aspirationStrategy.aspirationWindow = 2;
+			assertEquals(aspirationStrategy.aspirationSearch(board, 3, guess), value);
+			assertEquals(aspirationStrategy.researches > 0, guess != value);
+			assertTrue(board.validMove(aspirationStrategy.bestMove, Color.BLACK));
+		}
+	}
+
+	/**
+	 * Tests ProbCut skips subtrees when a shallow search predicts the deep one exactly, and never when its predictions can't be trusted
+	 */
+	@Test
+	public void testProbCut() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy plainStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		int value = plainStrategy.alphaBeta(board, 0, 6, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		int[] firstTurns = {0};
+		int[] shallowDepths = {1, 2, 3};
+		int[] deepDepths = {3, 4, 5};
+		float[][] slopes = {{1}, {1}, {1}};
+		float[][] intercepts = {{0}, {0}, {0}};
+		
+		/* Test data: predictions that can't be trusted give the same search */
+		float[][] deviations = {{Float.POSITIVE_INFINITY}, {Float.POSITIVE_INFINITY}, {Float.POSITIVE_INFINITY}};
+		AlphaBetaStrategy probCutStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		probCutStrategy.probCut = new ProbCut(firstTurns, shallowDepths, deepDepths, slopes, intercepts, deviations);
+		assertEquals(probCutStrategy.alphaBeta(board, 0, 6, Integer.MIN_VALUE, Integer.MAX_VALUE), value);
+		assertEquals(probCutStrategy.nodesExpanded, plainStrategy.nodesExpanded);
+		assertEquals(probCutStrategy.probCuts, 0);
+		
+		/* Test data: exact predictions skip subtrees */
+		deviations = new float[][]{{0}, {0}, {0}};
+		probCutStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		probCutStrategy.probCut = new ProbCut(firstTurns, shallowDepths, deepDepths, slopes, intercepts, deviations);
+		probCutStrategy.alphaBeta(board, 0, 6, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		assertTrue(probCutStrategy.probCuts > 0);
+		assertTrue(probCutStrategy.nodesExpanded < plainStrategy.nodesExpanded);
+		assertTrue(board.validMove(probCutStrategy.bestMove, Color.BLACK));
+	}
+
+	/**
+	 * Tests Boards with a few more empty squares than endgameEmpties are solved for a win, loss or draw, and a proven loss is searched instead
+	 */
+	@Test
+	public void testSolveWinLossDraw() {
+		Random random = new Random(4);
+		for (int game = 0; game < 10; game++){
+			/* Set up Board with 13 empty squares */
+			Board board = RandomGames.randomBoard(random, 13);
+			if (board == null)
+				continue;
+			int result = new EndgameSolver(new TranspositionTable(1)).solveWinLossDraw(board);
+			AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+			alphaBetaStrategy.endgameSolver = new EndgameSolver(new TranspositionTable(1));
+			alphaBetaStrategy.endgameEmpties = 10;
+			alphaBetaStrategy.winLossDrawEmpties = 14;
+			alphaBetaStrategy.depth = 2;
+			
+			/* Test data */
+			alphaBetaStrategy.iterativeDeepening(board);
+			assertEquals(alphaBetaStrategy.solved, result >= 0);
+			assertEquals(alphaBetaStrategy.solvedWinLossDraw, result >= 0);
+			if (result >= 0)
+				assertEquals(alphaBetaStrategy.bestValue, EndgameSolver.toUtility(result, board.playerTurn));
+			assertTrue(board.validMove(alphaBetaStrategy.bestMove, board.playerTurn));
+			
+			/* Test data: within endgameEmpties, the exact solve follows */
+			alphaBetaStrategy.endgameEmpties = 13;
+			alphaBetaStrategy.iterativeDeepening(board);
+			assertTrue(alphaBetaStrategy.solved);
+			assertFalse(alphaBetaStrategy.solvedWinLossDraw);
+		}
+	}
+
 	/**
 	 * Tests that the right number of adjacent Boards are returned (from initial Board position)
 	 */
 	@Test
 	public void testGetAdjacentBoards() {
 		/* Set up data */
-		Controller controller = new Controller(8, 8, Difficulty.EASY);
-		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(controller);
+		Board board = new Board(8, 8);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
 		
 		/* Test data */
-		ArrayList<Board> adjacentBoards = alphaBetaStrategy.getAdjacentBoards(controller.board);
+		ArrayList<Board> adjacentBoards = alphaBetaStrategy.getAdjacentBoards(board);
 		assertEquals(adjacentBoards.size(), 4);
 	}
 
@@ -85,11 +375,10 @@ public class AlphaBetaStrategyTest {
 	@Test
 	public void testGetCommand(){
 		/* Set up data */
-		Controller controller = new Controller(8, 8, Difficulty.EASY);
-		Board board1 = controller.board;
+		Board board1 = new Board(8, 8);
 		Board board2 = new Board(8, 8);
 		board2.placeDisk(new Point(0,0), Color.WHITE);
-		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(controller);
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null);
 		Command command = alphaBetaStrategy.getCommand(board1, board2);
 		
 		/* Test Command */
@@ -0,0 +1,191 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+
+import org.junit.Test;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+
+/**
+ * \brief
+ * Tests the static bitboard helpers
+ * @author Rodney Shaghoulian
+ */
+public class BitBoardTest {
+
+	/**
+	 * Tests converting between Points and square indexes
+	 */
+	@Test
+	public void testSquare() {
+		/* Test data */
+		assertEquals(BitBoard.square(new Point(0, 0)), 0);
+		assertEquals(BitBoard.square(new Point(7, 0)), 7);
+		assertEquals(BitBoard.square(new Point(0, 1)), 8);
+		assertEquals(BitBoard.square(new Point(7, 7)), 63);
+		assertEquals(BitBoard.point(29), new Point(5, 3));
+		assertEquals(BitBoard.mask(new Point(5, 3)), 1L << 29);
+	}
+
+	/**
+	 * Tests the 8 symmetries move squares like mirrors and rotations, are undone by their inverse, and give the same canonical form
+	 */
+	@Test
+	public void testSymmetry() {
+		/* Single squares */
+		assertEquals(BitBoard.transformSquare(BitBoard.square(new Point(1, 2)), 1), BitBoard.square(new Point(6, 2)));
+		assertEquals(BitBoard.transformSquare(BitBoard.square(new Point(1, 2)), 2), BitBoard.square(new Point(1, 5)));
+		assertEquals(BitBoard.transformSquare(BitBoard.square(new Point(1, 2)), 4), BitBoard.square(new Point(2, 1)));
+		assertEquals(BitBoard.transformSquare(BitBoard.square(new Point(1, 2)), 5), BitBoard.square(new Point(5, 1)));
+		
+		/* Whole positions */
+		Board board = new Board(8, 8);
+		board.placeDisk(new Point(4, 5), Color.BLACK);
+		board.placeDisk(new Point(5, 3), Color.WHITE);
+		int canonical = BitBoard.canonicalSymmetry(board.blackDisks, board.whiteDisks);
+		for (int symmetry = 0; symmetry < 8; symmetry++){
+			long black = BitBoard.transform(board.blackDisks, symmetry);
+			long white = BitBoard.transform(board.whiteDisks, symmetry);
+			assertEquals(Long.bitCount(black), Long.bitCount(board.blackDisks));
+			assertEquals(BitBoard.transform(black, BitBoard.inverse(symmetry)), board.blackDisks);
+			int other = BitBoard.canonicalSymmetry(black, white);
+			assertEquals(BitBoard.transform(black, other), BitBoard.transform(board.blackDisks, canonical));
+			assertEquals(BitBoard.transform(white, other), BitBoard.transform(board.whiteDisks, canonical));
+		}
+	}
+
+	/**
+	 * Tests the starting position is mapped onto itself by 4 symmetries, and a position without symmetry only by no change
+	 */
+	@Test
+	public void testSymmetries() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		
+		/* Test data */
+		assertEquals(BitBoard.symmetries(board.blackDisks, board.whiteDisks), (1 << 0) | (1 << 3) | (1 << 4) | (1 << 7));
+		board.placeDisk(new Point(5, 3), Color.BLACK);
+		board.placeDisk(new Point(2, 2), Color.WHITE);
+		assertEquals(BitBoard.symmetries(board.blackDisks, board.whiteDisks), 1);
+	}
+
+	/**
+	 * Tests stable Disks along edges and inside full lines, and Disks that can still be flipped
+	 */
+	@Test
+	public void testStableDisks() {
+		/* No Disk is stable at the start */
+		Board board = new Board(8, 8);
+		assertEquals(BitBoard.stableDisks(board.blackDisks, board.whiteDisks), 0);
+		
+		/* A corner and the Disks next to it along the edge are stable, a Disk further along with a gap is not */
+		long player = (1L << 0) | (1L << 1) | (1L << 2) | (1L << 5);
+		long opponent = 1L << 8;
+		assertEquals(BitBoard.stableDisks(player, opponent), (1L << 0) | (1L << 1) | (1L << 2));
+		assertEquals(BitBoard.stableDisks(opponent, player), 0); // flipped if the player fills (0, 2)
+		
+		/* A full edge is stable for both players, whatever the order */
+		player = 0x0FL;
+		opponent = 0xF0L;
+		assertEquals(BitBoard.stableDisks(player, opponent), 0x0FL);
+		assertEquals(BitBoard.stableDisks(opponent, player), 0xF0L);
+		
+		/* A full Board is stable */
+		player = 0x5555555555555555L;
+		assertEquals(BitBoard.stableDisks(player, ~player), player);
+		assertEquals(BitBoard.stableDisks(~player, player), ~player);
+		
+		/* Inside the edges: next to stable Disks in every direction */
+		player = 0xFFL | (1L << 8) | (1L << 16) | (1L << 9) | (1L << 17);
+		assertEquals(BitBoard.stableDisks(player, 0) & (1L << 9), 1L << 9);
+		assertEquals(BitBoard.stableDisks(player, 0) & (1L << 17), 0); // its anti-diagonal neighbors (2, 1) and (0, 3) are empty
+	}
+
+	/**
+	 * Tests the bitboards of a new Board hold the 4 center Disks
+	 */
+	@Test
+	public void testInitialBitBoards() {
+		/* Set up Board */
+		Board board = new Board(8, 8);
+
+		/* Test data */
+		assertEquals(board.blackDisks, (1L << 27) | (1L << 36));
+		assertEquals(board.whiteDisks, (1L << 28) | (1L << 35));
+		assertEquals(Long.bitCount(board.emptySquares()), 60);
+	}
+
+	/**
+	 * Tests valid moves from the initial position, and for a run of opponent Disks across the whole Board
+	 */
+	@Test
+	public void testValidMoves() {
+		/* Set up Board */
+		Board board = new Board(8, 8);
+		
+		/* Test 4 valid moves for BLACK */
+		long moves = BitBoard.validMoves(board.blackDisks, board.whiteDisks);
+		assertEquals(moves, (1L << 20) | (1L << 29) | (1L << 34) | (1L << 43));
+		assertEquals(board.validMovesMask(Color.BLACK), moves);
+		
+		/* 6 opponent Disks in a row can be captured, but a run reaching the edge of the Board can not */
+		long player = 1L;
+		assertEquals(BitBoard.validMoves(player, 0x7EL), 1L << 7);
+		assertEquals(BitBoard.validMoves(player, 0xFEL), 0);
+		assertEquals(BitBoard.validMoves(1L << 7, 1L << 8), 0);
+	}
+
+	/**
+	 * Tests the flip mask for BLACK's first move, and that an invalid move flips nothing
+	 */
+	@Test
+	public void testFlips() {
+		/* Set up Board */
+		Board board = new Board(8, 8);
+		
+		/* Test data */
+		assertEquals(BitBoard.flips(board.blackDisks, board.whiteDisks, 29), 1L << 28);
+		assertEquals(BitBoard.flips(board.blackDisks, board.whiteDisks, 0), 0);
+		assertEquals(BitBoard.flipsInDirection(board.blackDisks, board.whiteDisks, 29, BitBoard.direction(-1, 0)), 1L << 28);
+		assertEquals(BitBoard.flipsInDirection(board.blackDisks, board.whiteDisks, 29, BitBoard.direction(1, 0)), 0);
+	}
+
+	/**
+	 * Tests lone 'X squares' and 'C squares' become safe once their corner is occupied
+	 */
+	@Test
+	public void testBadSquares() {
+		/* Set up data */
+		long disks = (1L << 9) | (1L << 1);
+
+		/* Test data with empty corner */
+		assertEquals(BitBoard.badXSquares(disks, ~disks), 1L << 9);
+		assertEquals(BitBoard.badCSquares(disks, ~disks), 1L << 1);
+
+		/* Test data with occupied corner */
+		disks |= 1L;
+		assertEquals(BitBoard.badXSquares(disks, ~disks), 0);
+		assertEquals(BitBoard.badCSquares(disks, ~disks), 0);
+	}
+
+	/**
+	 * Tests a Board that is not 8x8 still uses tiles
+	 */
+	@Test
+	public void testNonBitBoard() {
+		/* Set up Board */
+		Board board = new Board(6, 6);
+
+		/* Test data */
+		assertFalse(board.isBitBoard);
+		assertNotNull(board.tile);
+		assertEquals(board.diskColor(new Point(2, 2)), Color.BLACK);
+		board.placeDisk(new Point(4, 2), Color.BLACK);
+		assertEquals(board.diskColor(new Point(3, 2)), Color.BLACK);
+		assertEquals(board.blackPlayer.score, 4);
+	}
+}
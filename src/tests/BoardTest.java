@@ -9,6 +9,7 @@ import org.junit.Test;
 import main_components.Board;
 import main_components.Color;
 import main_components.Player;
+import main_components.Zobrist;
 
 /**
  * \brief
@@ -28,7 +29,8 @@ public class BoardTest {
 		/* Test data */
 		assertEquals(board.rows, 8);
 		assertEquals(board.columns, 8);
-		assertNotNull(board.tile);
+		assertTrue(board.isBitBoard);
+		assertNull(board.tile);
 		assertEquals(board.playerTurn, Color.BLACK);
 		assertFalse(board.gameEnded);
 		assertNull(board.winner);
@@ -48,7 +50,9 @@ public class BoardTest {
 		/* Test data */
 		assertEquals(board2.rows, 8);
 		assertEquals(board2.columns, 8);
-		assertNotNull(board2.tile);
+		assertTrue(board2.isBitBoard);
+		assertEquals(board2.blackDisks, board1.blackDisks);
+		assertEquals(board2.whiteDisks, board1.whiteDisks);
 		assertEquals(board2.playerTurn, Color.BLACK);
 		assertFalse(board2.gameEnded);
 		assertNull(board2.winner);
@@ -65,10 +69,10 @@ public class BoardTest {
 		Board board = new Board(8, 8);
 		
 		/* Test data */
-		assertEquals(board.tile[3][3].color, Color.BLACK);
-		assertEquals(board.tile[4][4].color, Color.BLACK);
-		assertEquals(board.tile[3][4].color, Color.WHITE);
-		assertEquals(board.tile[4][3].color, Color.WHITE);
+		assertEquals(board.diskColor(new Point(3, 3)), Color.BLACK);
+		assertEquals(board.diskColor(new Point(4, 4)), Color.BLACK);
+		assertEquals(board.diskColor(new Point(4, 3)), Color.WHITE);
+		assertEquals(board.diskColor(new Point(3, 4)), Color.WHITE);
 	}
 
 	/**
@@ -231,7 +235,7 @@ public class BoardTest {
 		
 		/* Remove Disk. Check it's removed */
 		board.removeDisk(new Point(3, 3));
-		assertEquals(board.tile[3][3].color, Color.NONE);
+		assertEquals(board.diskColor(new Point(3, 3)), Color.NONE);
 	}
 	
 	/**
@@ -245,13 +249,13 @@ public class BoardTest {
 		
 		/* Flip Black Disk. Test Data */
 		board.flipDisk(new Point(3, 3), Color.WHITE);
-		assertEquals(board.tile[3][3].color, Color.WHITE);
+		assertEquals(board.diskColor(new Point(3, 3)), Color.WHITE);
 		assertEquals(board.whitePlayer.score, 3);
 		assertEquals(board.blackPlayer.score, 1);
 		
 		/* Flip "empty" Disk. Test Data */
 		board.flipDisk(new Point(2, 2), Color.WHITE);
-		assertEquals(board.tile[2][2].color, Color.WHITE);
+		assertEquals(board.diskColor(new Point(2, 2)), Color.WHITE);
 		assertEquals(board.whitePlayer.score, 4);
 		assertEquals(board.blackPlayer.score, 1);
 	}
@@ -299,7 +303,7 @@ public class BoardTest {
 		
 		/* Test data */
 		board.placeDisk(new Point(5, 3), Color.BLACK);
-		assertEquals(board.tile[3][5].color, Color.BLACK);
+		assertEquals(board.diskColor(new Point(5, 3)), Color.BLACK);
 		assertEquals(board.blackPlayer.score, 4);
 		assertEquals(board.whitePlayer.score, 1);
 	}
@@ -371,6 +375,60 @@ public class BoardTest {
 		assertEquals(cornersOwned, 1);
 	}
 	
+	/**
+	 * Tests the Zobrist key: it matches a key calculated from scratch, and 2 move orders reaching the same position get the same key
+	 */
+	@Test
+	public void testHashKey() {
+		/* Set up Boards */
+		Board board1 = new Board(8, 8);
+		Board board2 = new Board(8, 8);
+		assertEquals(board1.hashKey, Zobrist.key(board1));
+		
+		/* Reach the same position with 2 move orders */
+		board1.placeDisk(new Point(4, 2), Color.BLACK);
+		board1.placeDisk(new Point(5, 2), Color.WHITE);
+		board1.placeDisk(new Point(5, 3), Color.BLACK);
+		board2.placeDisk(new Point(5, 3), Color.BLACK);
+		board2.placeDisk(new Point(5, 2), Color.WHITE);
+		board2.placeDisk(new Point(4, 2), Color.BLACK);
+		
+		/* Test data */
+		assertEquals(board1.hashKey, Zobrist.key(board1));
+		assertEquals(board1.hashKey, board2.hashKey);
+		assertEquals(board1, board2);
+		assertEquals(board1.hashCode(), board2.hashCode());
+		assertNotEquals(board1.hashKey, new Board(8, 8).hashKey);
+	}
+	
+	/**
+	 * Tests setting up a position from bitboards gives the same Board as playing to it, and passes when the Player to move can't
+	 */
+	@Test
+	public void testSetDisks() {
+		/* Set up Boards */
+		Board board1 = new Board(8, 8);
+		board1.placeDisk(new Point(4, 2), Color.BLACK);
+		board1.placeDisk(new Point(5, 2), Color.WHITE);
+		board1.placeDisk(new Point(5, 3), Color.BLACK);
+		Board board2 = new Board(8, 8);
+		board2.setDisks(board1.blackDisks, board1.whiteDisks, board1.playerTurn);
+		
+		/* Test data */
+		assertEquals(board1, board2);
+		assertEquals(board1.hashKey, board2.hashKey);
+		assertEquals(board1.turn, board2.turn);
+		assertEquals(board1.whitePlayer.validMovesMask, board2.whitePlayer.validMovesMask);
+		assertArrayEquals(board1.evaluation.patterns, board2.evaluation.patterns);
+		
+		/* BLACK can't move, so WHITE moves */
+		board2.setDisks(1L << 1, 1L << 0, Color.BLACK);
+		assertEquals(board2.playerTurn, Color.WHITE);
+		assertEquals(board2.hashKey, Zobrist.key(board2));
+		assertFalse(board2.gameEnded);
+		assertEquals(board2.blackPlayer.score, 1);
+	}
+	
 	/**
 	 * Simply tests that String is not empty
 	 */
@@ -0,0 +1,153 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Command;
+import strategies.BookEntry;
+import strategies.OpeningBook;
+import strategies.TranspositionTable;
+import tuning.BookBuilder;
+import tuning.BookNode;
+
+/**
+ * \brief
+ * Tests reading game records, and building and merging books from them
+ * @author Rodney Shaghoulian
+ */
+public class BookBuilderTest {
+
+	/**
+	 * Tests game records are read in this Board's orientation and in the mirrored 1, and illegal games are skipped
+	 */
+	@Test
+	public void testParseGame(){
+		/* Test data */
+		ArrayList<Integer> moves = BookBuilder.parseGame("f4 f3 e3");
+		assertNotNull(moves);
+		assertEquals(moves.size(), 3);
+		assertEquals(BitBoard.point(moves.get(0)), new Point(5, 3));
+		assertEquals(BookBuilder.moveName(moves.get(1)), "f3");
+
+		moves = BookBuilder.parseGame("F5D6C3D3C4F4"); // starting position mirrored
+		assertNotNull(moves);
+		assertEquals(moves.size(), 6);
+		Board board = new Board(8, 8);
+		for (int move : moves)
+			new Command(board, board.playerTurn, BitBoard.point(move)).execute();
+		assertEquals(board.turn, 7);
+
+		assertNull(BookBuilder.parseGame("a1a2"));
+		assertNull(BookBuilder.parseGame("no moves"));
+	}
+
+	/**
+	 * Tests self-play gives the same games for the same seed on any number of threads, and other games for another seed
+	 */
+	@Test
+	public void testSelfPlaySeed() throws IOException {
+		/* Set up data */
+		ArrayList<ArrayList<String>> runs = new ArrayList<>();
+		int[] threads = {1, 3, 3};
+		long[] seeds = {5, 5, 6};
+		for (int run = 0; run < threads.length; run++){
+			ForkJoinPool pool = new ForkJoinPool(threads[run]);
+			File gamesFile = File.createTempFile("games", ".txt");
+			gamesFile.deleteOnExit();
+			BookBuilder.selfPlay(gamesFile, 7, 1, 10, seeds[run], null, pool);
+			ArrayList<String> games = new ArrayList<>(Files.readAllLines(gamesFile.toPath()));
+			Collections.sort(games);
+			runs.add(games);
+			pool.shutdown();
+		}
+		
+		/* Test data */
+		assertEquals(runs.get(0).size(), 7);
+		assertEquals(runs.get(1), runs.get(0));
+		assertNotEquals(runs.get(2), runs.get(0));
+	}
+
+	/**
+	 * Tests every position of the tree gets the best of its played moves and its deviation, and the book plays them
+	 */
+	@Test
+	public void testBuild() throws IOException {
+		/* Set up data */
+		BookBuilder bookBuilder = new BookBuilder(4);
+		bookBuilder.addGame(BookBuilder.parseGame("f4f3e3d3"));
+		bookBuilder.addGame(BookBuilder.parseGame("f4f3d6c4"));
+		bookBuilder.addGame(BookBuilder.parseGame("f4d3c3"));
+		bookBuilder.addGame(BookBuilder.parseGame("c5c6")); // "f4f3" turned by 180 degrees
+		bookBuilder.search(2, null, new ForkJoinPool(2));
+		File file = File.createTempFile("book", ".bin");
+		file.deleteOnExit();
+		int size = bookBuilder.write(file, null);
+
+		/* Test data */
+		assertEquals(bookBuilder.games, 4);
+		assertEquals(bookBuilder.nodes.size(), 9);
+		assertEquals(size, 9);
+		OpeningBook openingBook = new OpeningBook(file);
+		for (BookNode node : bookBuilder.nodes.values()){
+			int best = (node.deviationMove == TranspositionTable.NO_MOVE) ? Integer.MIN_VALUE : node.deviationScore;
+			for (BookNode child : node.children)
+				best = Math.max(best, (child.playerTurn == node.playerTurn) ? child.entry.score : -child.entry.score);
+			assertEquals(node.entry.score, best);
+			BookEntry entry = openingBook.probe(node.entry.player, node.entry.opponent);
+			assertNotNull(entry);
+			assertEquals(entry.score, node.entry.score);
+			assertTrue(node.toBoard().validMove(BitBoard.point(entry.move), node.playerTurn));
+		}
+		BookNode start = bookBuilder.nodes.get(new BookEntry(new Board(8, 8).blackDisks, new Board(8, 8).whiteDisks, 0, 0, 0).canonical());
+		assertEquals(start.children.size(), 1);
+		assertEquals(start.deviationMove, TranspositionTable.NO_MOVE); // every first move is the played 1 by symmetry
+	}
+
+	/**
+	 * Tests books built in runs are merged with an earlier book, keeping the deepest entry of each position
+	 */
+	@Test
+	public void testMerge() throws IOException {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		File earlierFile = File.createTempFile("earlier", ".bin");
+		File file = File.createTempFile("book", ".bin");
+		earlierFile.deleteOnExit();
+		file.deleteOnExit();
+		ArrayList<BookEntry> entries = new ArrayList<>();
+		entries.add(new BookEntry(board.blackDisks, board.whiteDisks, BitBoard.square(new Point(4, 2)), 7, 30)); // deeper
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		new Command(board, board.playerTurn, new Point(5, 4)).execute();
+		entries.add(new BookEntry(board.blackDisks, board.whiteDisks, BitBoard.square(new Point(3, 5)), -1, 1)); // shallower
+		board = new Board(board);
+		new Command(board, board.playerTurn, new Point(6, 5)).execute();
+		entries.add(new BookEntry(board.whiteDisks, board.blackDisks, BitBoard.square(new Point(3, 2)), 2, 9)); // not in the tree
+		OpeningBook.write(earlierFile, entries);
+
+		BookBuilder bookBuilder = new BookBuilder(3);
+		bookBuilder.addGame(BookBuilder.parseGame("f4f5d6"));
+		bookBuilder.search(2, null, new ForkJoinPool(2));
+		int size = bookBuilder.write(file, new OpeningBook(earlierFile));
+
+		/* Test data */
+		assertEquals(size, 5);
+		OpeningBook openingBook = new OpeningBook(file);
+		Board start = new Board(8, 8);
+		assertEquals(openingBook.probe(start).depth, 30);
+		assertEquals(openingBook.probe(start).score, 7);
+		assertEquals(openingBook.probe(board.whiteDisks, board.blackDisks).depth, 9);
+		for (int i = 1; i < openingBook.size; i++)
+			assertTrue(openingBook.entry(i - 1).compareTo(openingBook.entry(i)) < 0);
+	}
+}
@@ -39,7 +39,7 @@ public class CommandManagerTest {
 		
 		/* Test executeCommand */
 		commandManager.executeCommand(command);
-		assertEquals(board.tile[5][3].color, Color.BLACK);
+		assertEquals(board.diskColor(new Point(3, 5)), Color.BLACK);
 		assertEquals(commandManager.undos.size(), 1);
 		assertEquals(commandManager.redos.size(), 0);
 		
@@ -47,14 +47,14 @@ public class CommandManagerTest {
 		commandManager.executeCommand(command2);
 		commandManager.undo();
 		commandManager.undo();
-		assertEquals(board.tile[5][3].color, Color.NONE);
+		assertEquals(board.diskColor(new Point(3, 5)), Color.NONE);
 		assertEquals(commandManager.undos.size(), 0);
 		assertEquals(commandManager.redos.size(), 2);
 		
 		/* Test Redo */
 		commandManager.redo();
 		commandManager.redo();
-		assertEquals(board.tile[5][3].color, Color.BLACK);
+		assertEquals(board.diskColor(new Point(3, 5)), Color.BLACK);
 		assertEquals(commandManager.undos.size(), 2);
 		assertEquals(commandManager.redos.size(), 0);
 	}
@@ -48,7 +48,7 @@ public class CommandTest {
 		
 		/* Test execute */
 		command.execute();
-		assertEquals(board.tile[5][3].color, Color.BLACK);
+		assertEquals(board.diskColor(new Point(3, 5)), Color.BLACK);
 	}
 	
 	/**
@@ -64,6 +64,33 @@ public class CommandTest {
 		/* Test Undo */
 		command.execute();
 		command.undo();
-		assertEquals(board.tile[3][5].color, Color.NONE);
+		assertEquals(board.diskColor(new Point(5, 3)), Color.NONE);
+	}
+	
+	/**
+	 * Tests undoing a Command restores the turn and valid moves saved in its undo record
+	 */
+	@Test
+	public void testUndoRecord() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		long blackMoves = board.blackPlayer.validMovesMask;
+		long whiteMoves = board.whitePlayer.validMovesMask;
+		long hashKey = board.hashKey;
+		Command command = new Command(board, Color.BLACK, new Point(5, 3));
+		
+		/* Test Undo */
+		command.execute();
+		assertEquals(board.playerTurn, Color.WHITE);
+		assertEquals(command.capturedMask, 1L << 28);
+		command.undo();
+		assertEquals(board.playerTurn, Color.BLACK);
+		assertEquals(board.turn, 1);
+		assertEquals(board.blackPlayer.validMovesMask, blackMoves);
+		assertEquals(board.whitePlayer.validMovesMask, whiteMoves);
+		assertEquals(board.hashKey, hashKey);
+		assertEquals(board.blackPlayer.validMoves.size(), 4);
+		assertEquals(board.blackPlayer.score, 2);
+		assertEquals(board.whitePlayer.score, 2);
 	}
 }
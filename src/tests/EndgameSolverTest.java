@@ -0,0 +1,242 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+import strategies.EndgameSolver;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Tests the EndgameSolver, solving exactly and for a win, loss or draw
+ * @author Rodney Shaghoulian
+ */
+public class EndgameSolverTest {
+
+	/**
+	 * Tests the score of a finished game, and the parity of quadrants
+	 */
+	@Test
+	public void testFinalScoreAndParity() {
+		/* Test final score */
+		assertEquals(EndgameSolver.finalScore(0xFFL, 0x1L << 8), 7);
+		assertEquals(EndgameSolver.toUtility(7, Color.BLACK), 10000);
+		assertEquals(EndgameSolver.toUtility(7, Color.WHITE), -10000);
+		assertEquals(EndgameSolver.toUtility(0, Color.WHITE), 0);
+
+		/* 1 empty square in the first quadrant is odd. 2 empty squares in the last quadrant are even. */
+		long empty = (1L << 0) | (1L << 62) | (1L << 63);
+		assertEquals(EndgameSolver.oddQuadrants(empty), 1L << 0);
+	}
+
+	/**
+	 * Tests a position with 1 empty square, that only 1 side can fill
+	 */
+	@Test
+	public void testPassOnLastSquare() {
+		/* Square 0 is empty, opponent has squares 1 and 2, and player has every other square */
+		long opponent = (1L << 1) | (1L << 2);
+		long player = ~(opponent | 1L);
+
+		/* player can capture squares 1 and 2 by moving on square 0 */
+		EndgameSolver solver = new EndgameSolver();
+		assertEquals(solver.solve(player, opponent, -EndgameSolver.MAX_SCORE, EndgameSolver.MAX_SCORE), 64);
+		assertEquals(solver.bestMove, 0);
+
+		/* opponent has no move, so it passes and player fills the last square */
+		assertEquals(solver.search(opponent, player, -EndgameSolver.MAX_SCORE, EndgameSolver.MAX_SCORE), -64);
+	}
+
+	/**
+	 * Tests the solver against a plain search of every move, from positions of random games
+	 */
+	@Test
+	public void testSolveMatchesFullSearch() {
+		Random random = new Random(1);
+		for (int game = 0; game < 30; game++){
+			/* Set up Board with 1 to 9 empty squares */
+			Board board = RandomGames.randomBoard(random, 1 + random.nextInt(9));
+			if (board == null)
+				continue;
+			long player = board.disks(board.playerTurn);
+			long opponent = board.disks(board.getOppositeColor(board.playerTurn));
+
+			/* Test data */
+			EndgameSolver solver = new EndgameSolver();
+			int score = fullSearch(player, opponent);
+			assertEquals(solver.solve(board), score);
+			long flips = BitBoard.flips(player, opponent, solver.bestMove);
+			assertNotEquals(flips, 0);
+			assertEquals(-fullSearch(opponent ^ flips, player | flips | (1L << solver.bestMove)), score);
+			assertEquals(board.disks(board.playerTurn), player); // Board is unchanged
+		}
+	}
+
+	/**
+	 * Tests stability cutoffs give the same scores and moves as searching without them, in fewer nodes
+	 */
+	@Test
+	public void testStabilityCutoffs() {
+		Random random = new Random(2);
+		long nodesWithout = 0;
+		long nodesWith = 0;
+		for (int game = 0; game < 20; game++){
+			/* Set up Board with 10 to 13 empty squares */
+			Board board = RandomGames.randomBoard(random, 10 + random.nextInt(4));
+			if (board == null)
+				continue;
+
+			/* Test data */
+			EndgameSolver solver = new EndgameSolver(new TranspositionTable(1));
+			solver.stabilityCutoffs = false;
+			int score = solver.solve(board);
+			nodesWithout += solver.nodes;
+			solver = new EndgameSolver(new TranspositionTable(1));
+			assertEquals(solver.solve(board), score);
+			nodesWith += solver.nodes;
+		}
+		assertTrue(nodesWith < nodesWithout);
+	}
+
+	/**
+	 * Tests solving for a win, loss or draw agrees with the exact score, and proves wins and draws with a move that keeps them
+	 */
+	@Test
+	public void testSolveWinLossDraw() {
+		Random random = new Random(3);
+		long nodesExact = 0;
+		long nodesWinLossDraw = 0;
+		for (int game = 0; game < 20; game++){
+			/* Set up Board with 10 to 13 empty squares */
+			Board board = RandomGames.randomBoard(random, 10 + random.nextInt(4));
+			if (board == null)
+				continue;
+			long player = board.disks(board.playerTurn);
+			long opponent = board.disks(board.getOppositeColor(board.playerTurn));
+
+			/* Test data */
+			EndgameSolver solver = new EndgameSolver(new TranspositionTable(1));
+			int score = solver.solve(board);
+			nodesExact += solver.nodes;
+			solver = new EndgameSolver(new TranspositionTable(1));
+			int result = solver.solveWinLossDraw(board);
+			nodesWinLossDraw += solver.nodes;
+			assertEquals(result, Integer.signum(score));
+			if (result >= 0){
+				long flips = BitBoard.flips(player, opponent, solver.bestMove);
+				int moveScore = -new EndgameSolver(new TranspositionTable(1)).search(opponent ^ flips, player | flips | (1L << solver.bestMove), -EndgameSolver.MAX_SCORE, EndgameSolver.MAX_SCORE);
+				assertEquals(Integer.signum(moveScore), result);
+			}
+		}
+		assertTrue(nodesWinLossDraw < nodesExact);
+	}
+
+	/**
+	 * Tests Boards with enough empty squares to use the TranspositionTable: the solver matches a search without a table,
+	 * saves the Boards it solved, and uses them to solve the Board again in fewer nodes
+	 */
+	@Test
+	public void testTranspositionTable() {
+		Random random = new Random(5);
+		int solved = 0;
+		for (int game = 0; game < 10 && solved < 3; game++){
+			/* Set up Board with 12 empty squares */
+			Board board = RandomGames.randomBoard(random, 12);
+			if (board == null)
+				continue;
+			long player = board.disks(board.playerTurn);
+			long opponent = board.disks(board.getOppositeColor(board.playerTurn));
+			if (BitBoard.validMoves(player, opponent) == 0)
+				continue;
+			solved++;
+
+			/* Test data */
+			EndgameSolver solver = new EndgameSolver(new TranspositionTable(1));
+			int score = solver.solve(board);
+			long nodes = solver.nodes;
+			assertEquals(score, alphaBetaSearch(player, opponent, -EndgameSolver.MAX_SCORE, EndgameSolver.MAX_SCORE));
+			long flips = BitBoard.flips(player, opponent, solver.bestMove);
+			long entry = solver.transpositionTable.probe(EndgameSolver.key(opponent ^ flips, player | flips | (1L << solver.bestMove)));
+			assertNotEquals(entry, TranspositionTable.MISS);
+			assertEquals(TranspositionTable.bound(entry), TranspositionTable.EXACT);
+			assertEquals(-TranspositionTable.score(entry), score);
+			solver.nodes = 0;
+			assertEquals(solver.solve(board), score);
+			assertTrue(solver.nodes < nodes);
+		}
+		assertEquals(solved, 3);
+	}
+
+	/**
+	 * Tests a solver past its deadline gives up within a few polls, however many of its nodes have 4 or fewer empty squares
+	 */
+	@Test
+	public void testDeadline() {
+		Random random = new Random(6);
+		int tested = 0;
+		for (int game = 0; game < 10 && tested < 3; game++){
+			/* Set up Board with 16 empty squares */
+			Board board = RandomGames.randomBoard(random, 16);
+			if (board == null)
+				continue;
+			tested++;
+
+			/* Test data */
+			EndgameSolver solver = new EndgameSolver(new TranspositionTable(1));
+			solver.deadline = 0;
+			solver.solve(board);
+			assertTrue(solver.timeUp);
+			assertTrue(solver.nodes < 16 * EndgameSolver.POLL_INTERVAL);
+			long nodes = solver.nodes;
+			solver.deadline = Long.MAX_VALUE;
+			solver.solve(board);
+			assertFalse(solver.timeUp);
+			assertTrue(solver.nodes - nodes > 16 * EndgameSolver.POLL_INTERVAL);
+		}
+		assertEquals(tested, 3);
+	}
+
+	/**
+	 * Searches every move to the end of the game with alpha-beta pruning only: no move ordering, stability or TranspositionTable
+	 */
+	private int alphaBetaSearch(long player, long opponent, int alpha, int beta){
+		long moves = BitBoard.validMoves(player, opponent);
+		if (moves == 0){
+			if (BitBoard.validMoves(opponent, player) == 0)
+				return EndgameSolver.finalScore(player, opponent);
+			return -alphaBetaSearch(opponent, player, -beta, -alpha);
+		}
+		int best = -EndgameSolver.MAX_SCORE - 1;
+		for (; moves != 0 && best < beta; moves &= moves - 1){
+			int square = Long.numberOfTrailingZeros(moves);
+			long flips = BitBoard.flips(player, opponent, square);
+			best = Math.max(best, -alphaBetaSearch(opponent ^ flips, player | flips | (1L << square), -beta, -Math.max(alpha, best)));
+		}
+		return best;
+	}
+
+	/**
+	 * Searches every move to the end of the game, without pruning
+	 */
+	private int fullSearch(long player, long opponent){
+		long moves = BitBoard.validMoves(player, opponent);
+		if (moves == 0){
+			if (BitBoard.validMoves(opponent, player) == 0)
+				return EndgameSolver.finalScore(player, opponent);
+			return -fullSearch(opponent, player);
+		}
+		int best = -EndgameSolver.MAX_SCORE - 1;
+		for (; moves != 0; moves &= moves - 1){
+			int square = Long.numberOfTrailingZeros(moves);
+			long flips = BitBoard.flips(player, opponent, square);
+			best = Math.max(best, -fullSearch(opponent ^ flips, player | flips | (1L << square)));
+		}
+		return best;
+	}
+}
@@ -0,0 +1,113 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+
+import org.junit.Test;
+
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import main_components.EvaluationState;
+import main_components.Patterns;
+import strategies.Utility;
+
+/**
+ * \brief
+ * Tests the incrementally updated counts of EvaluationState
+ * @author Rodney Shaghoulian
+ */
+public class EvaluationStateTest {
+
+	/**
+	 * Tests lone 'X squares' and 'C squares' are counted until their corner is filled, on 8x8 and 6x6 Boards
+	 */
+	@Test
+	public void testCornerRegion() {
+		for (int size : new int[]{8, 6}){
+			/* Set up Board */
+			Board board = new Board(size, size);
+			EvaluationState evaluation = board.evaluation;
+			assertEquals(evaluation.corners[0] + evaluation.badXSquares[0] + evaluation.badCSquares[0], 0);
+
+			/* Lone 'X square' and 'C square' */
+			board.flipDisk(new Point(size - 2, size - 2), Color.BLACK);
+			board.flipDisk(new Point(size - 1, size - 2), Color.WHITE);
+			assertEquals(evaluation.badXSquares[0], 1);
+			assertEquals(evaluation.badCSquares[1], 1);
+
+			/* Filling the corner makes them safe */
+			board.flipDisk(new Point(size - 1, size - 1), Color.WHITE);
+			assertEquals(evaluation.corners[1], 1);
+			assertEquals(evaluation.badXSquares[0], 0);
+			assertEquals(evaluation.badCSquares[1], 0);
+
+			/* Emptying it makes them lone again */
+			board.removeDisk(new Point(size - 1, size - 1));
+			assertEquals(evaluation.corners[1], 0);
+			assertEquals(evaluation.badXSquares[0], 1);
+			assertEquals(evaluation.badCSquares[1], 1);
+			assertEquals(evaluation.badXSquares[0], board.badXSquaresOwned(Color.BLACK));
+			assertEquals(evaluation.badCSquares[1], board.badCSquaresOwned(Color.WHITE));
+		}
+	}
+
+	/**
+	 * Tests the counts follow Commands and their undos, and are copied with the Board
+	 */
+	@Test
+	public void testCommandUndo() {
+		/* Set up Board */
+		Board board = new Board(8, 8);
+		Point[] moves = {new Point(4, 5), new Point(5, 5), new Point(6, 5), new Point(5, 6), new Point(6, 6), new Point(7, 7)};
+		Command[] commands = new Command[moves.length];
+		for (int i = 0; i < moves.length; i++){
+			commands[i] = new Command(board, board.playerTurn, moves[i]);
+			commands[i].execute();
+			assertEquals(board.evaluation.corners[0], board.cornersOwned(Color.BLACK));
+			assertEquals(board.evaluation.badXSquares[1], board.badXSquaresOwned(Color.WHITE));
+		}
+		assertEquals(board.evaluation.corners[0] + board.evaluation.corners[1], 1);
+
+		/* Copy keeps the counts, and Utility reads them */
+		Board copy = new Board(board);
+		assertEquals(copy.evaluation.corners[0], board.evaluation.corners[0]);
+		Utility utility = new Utility(copy);
+		utility.utilityFinal();
+		assertEquals(Utility.finalValue(board), utility.value);
+
+		/* Undo everything */
+		for (int i = moves.length - 1; i >= 0; i--)
+			commands[i].undo();
+		assertEquals(board.evaluation.corners[0] + board.evaluation.corners[1], 0);
+		assertEquals(board.evaluation.badXSquares[0] + board.evaluation.badXSquares[1], 0);
+		assertEquals(board.evaluation.badCSquares[0] + board.evaluation.badCSquares[1], 0);
+	}
+
+	/**
+	 * Tests the index of each Patterns feature follows moves and undos on 8x8 Boards, and is not kept on other Boards
+	 */
+	@Test
+	public void testPatterns() {
+		/* Set up Board */
+		Board board = new Board(8, 8);
+		assertEquals(Patterns.FEATURES, 46);
+		assertNull(new Board(6, 6).evaluation.patterns);
+		Point[] moves = {new Point(4, 5), new Point(5, 5), new Point(6, 5), new Point(5, 6), new Point(6, 6), new Point(7, 7)};
+		Command[] commands = new Command[moves.length];
+
+		/* Test data */
+		for (int i = 0; i < moves.length; i++){
+			commands[i] = new Command(board, board.playerTurn, moves[i]);
+			commands[i].execute();
+			for (int feature = 0; feature < Patterns.FEATURES; feature++)
+				assertEquals(board.evaluation.patterns[feature], Patterns.index(board.blackDisks, board.whiteDisks, feature));
+		}
+		for (int i = moves.length - 1; i >= 0; i--)
+			commands[i].undo();
+		Board initial = new Board(8, 8);
+		assertArrayEquals(board.evaluation.patterns, initial.evaluation.patterns);
+		assertArrayEquals(new Board(board).evaluation.patterns, initial.evaluation.patterns);
+	}
+}
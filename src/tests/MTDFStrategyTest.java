@@ -0,0 +1,80 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main_components.Board;
+import main_components.Command;
+import strategies.AlphaBetaStrategy;
+import strategies.MTDFStrategy;
+import strategies.SearchMode;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Tests the choice of move in MTDFStrategy
+ * @author Rodney Shaghoulian
+ */
+public class MTDFStrategyTest {
+
+	/**
+	 * Tests MTD(f) gives the same utility as AlphaBeta from good and bad guesses, and leaves the Board unchanged
+	 */
+	@Test
+	public void testMtdf() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		Random random = new Random(1);
+		for (int turn = 0; turn < 10; turn++){
+			Point move = board.getCurrentPlayer().validMoves.get(random.nextInt(board.getCurrentPlayer().validMoves.size()));
+			new Command(board, board.playerTurn, move).execute();
+
+			/* Test data */
+			for (int depth = 1; depth <= 3; depth++){
+				AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+				int value = alphaBetaStrategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+				for (int guess : new int[]{value, 0, -500, 500}){
+					MTDFStrategy strategy = new MTDFStrategy(null, new TranspositionTable(1));
+					assertEquals(strategy.mtdf(board, depth, guess), value);
+					assertTrue(board.validMove(strategy.bestMove, board.playerTurn));
+				}
+			}
+		}
+		assertEquals(board.turn, 11);
+	}
+
+	/**
+	 * Tests the passes of an iterative deepening search are counted
+	 */
+	@Test
+	public void testPasses() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		MTDFStrategy strategy = new MTDFStrategy(null, new TranspositionTable(1));
+		strategy.depth = 3;
+
+		/* Test data */
+		strategy.iterativeDeepening(board);
+		assertEquals(strategy.depthReached, 3);
+		assertTrue(strategy.passes >= 3);
+		assertEquals(strategy.passNodes.size(), strategy.passes);
+		int nodes = 0;
+		for (int passNodes : strategy.passNodes)
+			nodes += passNodes;
+		assertEquals(nodes, strategy.nodesExpanded);
+	}
+
+	/**
+	 * Tests a ROOT_SPLIT search is refused, since MTD(f) does not split the root
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testRootSplit() {
+		MTDFStrategy strategy = new MTDFStrategy(null, new TranspositionTable(1));
+		strategy.searchMode = SearchMode.ROOT_SPLIT;
+		strategy.iterativeDeepening(new Board(8, 8));
+	}
+}
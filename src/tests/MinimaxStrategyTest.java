@@ -58,9 +58,10 @@ public class MinimaxStrategyTest {
 		MinimaxStrategy minimaxStrategy = new MinimaxStrategy(controller);
 		
 		/* Test data */
-		Board board = minimaxStrategy.minimax(controller.board, 3, 3);
-		assertEquals(board.blackPlayer.score, 2);
-		assertEquals(board.whitePlayer.score, 2);
+		int value = minimaxStrategy.minimax(controller.board, 3, 3);
+		assertEquals(value, 0);
+		assertEquals(controller.board.blackPlayer.score, 2);
+		assertEquals(controller.board.whitePlayer.score, 2);
 		
 	}
 
@@ -0,0 +1,71 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import main_components.Board;
+import strategies.MoveOrdering;
+
+/**
+ * \brief
+ * Tests the cheap move ordering used deep in the game tree
+ * @author Rodney Shaghoulian
+ */
+public class MoveOrderingTest {
+
+	/**
+	 * Tests corners come first and 'X squares' next to an empty corner come last
+	 */
+	@Test
+	public void testSquareClass() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		MoveOrdering moveOrdering = new MoveOrdering();
+		ArrayList<Point> moves = new ArrayList<>(Arrays.asList(new Point(1, 1), new Point(4, 2), new Point(0, 0)));
+
+		/* Test data */
+		moveOrdering.sort(board, moves, 0);
+		assertEquals(moves, Arrays.asList(new Point(0, 0), new Point(4, 2), new Point(1, 1)));
+
+		/* Boards that are not 8x8 have corners and 'X squares' too */
+		Board smallBoard = new Board(6, 6);
+		assertEquals(MoveOrdering.squareClass(smallBoard, new Point(5, 5), 0), MoveOrdering.CORNER);
+		assertEquals(MoveOrdering.squareClass(smallBoard, new Point(4, 1), 0), MoveOrdering.X_SQUARE);
+		assertEquals(MoveOrdering.squareClass(smallBoard, new Point(1, 0), 0), MoveOrdering.NORMAL_SQUARE);
+	}
+
+	/**
+	 * Tests a move that caused a cutoff becomes a killer move for its level, and moves up in the history table
+	 */
+	@Test
+	public void testCutoff() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		MoveOrdering moveOrdering = new MoveOrdering();
+		moveOrdering.cutoff(board, new Point(4, 2), 3, 3);
+
+		/* Killer move comes before a corner at its level only */
+		ArrayList<Point> moves = new ArrayList<>(Arrays.asList(new Point(0, 0), new Point(4, 2)));
+		moveOrdering.sort(board, moves, 3);
+		assertEquals(moves.get(0), new Point(4, 2));
+		moveOrdering.sort(board, moves, 4);
+		assertEquals(moves.get(0), new Point(0, 0));
+
+		/* History orders squares of the same class, at every level */
+		moves = new ArrayList<>(Arrays.asList(new Point(2, 4), new Point(4, 2)));
+		moveOrdering.sort(board, moves, 4);
+		assertEquals(moves.get(0), new Point(4, 2));
+		assertEquals(moveOrdering.history[0][2 * 8 + 4], 9);
+
+		/* Killer moves are cleared between searches, history is only halved */
+		moveOrdering.clearKillers();
+		moveOrdering.age();
+		assertEquals(moveOrdering.killers[3][0], MoveOrdering.NO_MOVE);
+		assertEquals(moveOrdering.history[0][2 * 8 + 4], 4);
+	}
+}
@@ -0,0 +1,111 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import strategies.AlphaBetaStrategy;
+import strategies.BookEntry;
+import strategies.OpeningBook;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Tests writing, mapping and looking up opening books
+ * @author Rodney Shaghoulian
+ */
+public class OpeningBookTest {
+
+	/**
+	 * Writes a book with the first move, and the reply to 1 of the 4 first moves
+	 * @return		The book file
+	 */
+	private File testBook() throws IOException {
+		File file = File.createTempFile("book", ".bin");
+		file.deleteOnExit();
+		Board board = new Board(8, 8);
+		ArrayList<BookEntry> entries = new ArrayList<>();
+		entries.add(new BookEntry(board.blackDisks, board.whiteDisks, BitBoard.square(new Point(5, 3)), 0, 10));
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		entries.add(new BookEntry(board.whiteDisks, board.blackDisks, BitBoard.square(new Point(3, 2)), 3, 8));
+		entries.add(new BookEntry(board.whiteDisks, board.blackDisks, BitBoard.square(new Point(5, 4)), 5, 6)); // shallower duplicate
+		OpeningBook.write(file, entries);
+		return file;
+	}
+
+	/**
+	 * Tests positions are found in every symmetry, with the move transformed, and the deepest duplicate is kept
+	 */
+	@Test
+	public void testProbe() throws IOException {
+		/* Set up data */
+		OpeningBook openingBook = new OpeningBook(testBook());
+		assertEquals(openingBook.size, 2);
+		
+		/* Test data */
+		Board board = new Board(8, 8);
+		assertEquals(BitBoard.point(openingBook.probe(board).move), new Point(5, 3));
+		for (Point firstMove : new ArrayList<Point>(board.blackPlayer.validMoves)){
+			Board reply = new Board(board);
+			new Command(reply, reply.playerTurn, firstMove).execute();
+			BookEntry entry = openingBook.probe(reply);
+			assertNotNull(entry);
+			assertEquals(entry.depth, 8);
+			assertEquals(entry.score, 3);
+			assertTrue(reply.validMove(BitBoard.point(entry.move), Color.WHITE));
+		}
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		new Command(board, board.playerTurn, new Point(3, 2)).execute();
+		assertNull(openingBook.probe(board));
+	}
+
+	/**
+	 * Tests a search plays the book move without searching, and searches positions that are not in the book
+	 */
+	@Test
+	public void testBookMove() throws IOException {
+		/* Set up data */
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		alphaBetaStrategy.openingBook = new OpeningBook(testBook());
+		alphaBetaStrategy.depth = 2;
+		Board board = new Board(8, 8);
+		
+		/* Test data */
+		assertEquals(alphaBetaStrategy.iterativeDeepening(board), new Point(5, 3));
+		assertTrue(alphaBetaStrategy.fromBook);
+		assertEquals(alphaBetaStrategy.depthReached, 10);
+		assertEquals(alphaBetaStrategy.nodesExpanded, 0);
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		new Command(board, board.playerTurn, new Point(3, 2)).execute();
+		assertNotNull(alphaBetaStrategy.iterativeDeepening(board));
+		assertFalse(alphaBetaStrategy.fromBook);
+		assertEquals(alphaBetaStrategy.depthReached, 2);
+	}
+
+	/**
+	 * Tests files that are missing or not books are refused
+	 */
+	@Test
+	public void testBadFile() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("book", ".bin");
+		file.deleteOnExit();
+		try (FileOutputStream out = new FileOutputStream(file)){
+			out.write(new byte[30]);
+		}
+		
+		/* Test data */
+		assertNull(OpeningBook.load(file));
+		assertNull(OpeningBook.load(new File(file.getPath() + ".missing")));
+	}
+}
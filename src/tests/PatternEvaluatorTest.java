@@ -0,0 +1,234 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import main_components.Patterns;
+import strategies.AlphaBetaStrategy;
+import strategies.PatternEvaluator;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Tests writing, mapping and reading pattern weights files
+ * @author Rodney Shaghoulian
+ */
+public class PatternEvaluatorTest {
+
+	/**
+	 * Creates weights that are different for most indexes
+	 * @return	A weight for every index of every pattern type
+	 */
+	private short[][] testWeights(int seed){
+		short[][] weights = new short[Patterns.TYPES][];
+		for (int type = 0; type < Patterns.TYPES; type++){
+			weights[type] = new short[Patterns.SIZES[type]];
+			for (int index = 0; index < weights[type].length; index++)
+				weights[type][index] = (short) ((index * 7 + type + seed) % 41 - 20);
+		}
+		return weights;
+	}
+
+	/**
+	 * Tests weights tied by Patterns.SYMMETRIC_INDEXES give the same value to all 8 symmetries of a Board
+	 */
+	@Test
+	public void testSymmetricIndexes() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("patterns", ".bin");
+		file.deleteOnExit();
+		short[][] weights = testWeights(3);
+		for (int type = 0; type < Patterns.TYPES; type++)
+			for (int index = 0; index < weights[type].length; index++)
+				weights[type][index] = weights[type][Patterns.SYMMETRIC_INDEXES[type][index]];
+		PatternEvaluator.write(file, weights);
+		PatternEvaluator patternEvaluator = new PatternEvaluator(file);
+		Board board = new Board(8, 8);
+		Point[] moves = {new Point(5, 3), new Point(5, 2), new Point(4, 2), new Point(3, 2), new Point(2, 2)};
+		for (Point move : moves)
+			new Command(board, board.playerTurn, move).execute();
+		
+		/* Test data */
+		assertEquals(Patterns.SYMMETRIC_INDEXES[1][100], 100); // a corner 2x5 block has no symmetry
+		assertEquals(Patterns.SYMMETRIC_INDEXES[0][Patterns.BLACK_DIGIT * 2187], Patterns.BLACK_DIGIT); // a corner of an edge ties to the other corner
+		assertTrue(patternEvaluator.symmetric);
+		int value = patternEvaluator.value(board);
+		for (int symmetry = 1; symmetry < 8; symmetry++){
+			Board symmetric = new Board(8, 8);
+			symmetric.setDisks(BitBoard.transform(board.blackDisks, symmetry), BitBoard.transform(board.whiteDisks, symmetry), board.playerTurn);
+			assertEquals(patternEvaluator.value(symmetric), value);
+		}
+		assertEquals(board.playerTurn, Color.WHITE);
+	}
+
+	/**
+	 * Tests a search only shares results between symmetric Boards when the weights are symmetric
+	 */
+	@Test
+	public void testSymmetricSearch() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("patterns", ".bin");
+		file.deleteOnExit();
+		PatternEvaluator.write(file, testWeights(0));
+		AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+		Board board = new Board(8, 8);
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		
+		/* Test data */
+		assertTrue(alphaBetaStrategy.tableSymmetry(board) >= 0);
+		alphaBetaStrategy.patternEvaluator = new PatternEvaluator(file);
+		assertFalse(alphaBetaStrategy.patternEvaluator.symmetric);
+		assertFalse(alphaBetaStrategy.symmetricEvaluation());
+		assertEquals(alphaBetaStrategy.tableSymmetry(board), -1);
+		assertEquals(alphaBetaStrategy.orderedMoves(new Board(8, 8), TranspositionTable.NO_MOVE, 0).size(), 4);
+	}
+
+	/**
+	 * Tests a written file is read back, and a Board's value is the sum of the weights of its features
+	 */
+	@Test
+	public void testWriteAndValue() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("patterns", ".bin");
+		file.deleteOnExit();
+		short[][] weights = testWeights(0);
+		PatternEvaluator.write(file, weights);
+		PatternEvaluator patternEvaluator = new PatternEvaluator(file);
+		Board board = new Board(8, 8);
+		Point[] moves = {new Point(4, 5), new Point(5, 5), new Point(6, 5), new Point(5, 6)};
+		for (Point move : moves)
+			new Command(board, board.playerTurn, move).execute();
+
+		/* Test data */
+		assertEquals(patternEvaluator.phases, 1);
+		for (int feature = 0; feature < Patterns.FEATURES; feature++){
+			int type = Patterns.FEATURE_TYPE[feature];
+			assertEquals(patternEvaluator.weight(board.turn, feature, Patterns.SIZES[type] - 1), weights[type][Patterns.SIZES[type] - 1]);
+		}
+		int value = 0;
+		for (int feature = 0; feature < Patterns.FEATURES; feature++)
+			value += weights[Patterns.FEATURE_TYPE[feature]][Patterns.index(board.blackDisks, board.whiteDisks, feature)];
+		assertEquals(patternEvaluator.value(board), value);
+	}
+
+	/**
+	 * Tests each turn uses the weights of the phase it is in
+	 */
+	@Test
+	public void testPhases() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("patterns", ".bin");
+		file.deleteOnExit();
+		short[][][] weights = {testWeights(0), testWeights(1), testWeights(2)};
+		PatternEvaluator.write(file, new int[]{0, 20, 40}, weights);
+		PatternEvaluator patternEvaluator = new PatternEvaluator(file);
+
+		/* Test data */
+		assertEquals(patternEvaluator.phases, 3);
+		int[] turns = {1, 19, 20, 39, 40, 60, 100};
+		int[] phases = {0, 0, 1, 1, 2, 2, 2};
+		for (int i = 0; i < turns.length; i++)
+			assertEquals(patternEvaluator.weight(turns[i], 0, 5), weights[phases[i]][Patterns.FEATURE_TYPE[0]][5]);
+	}
+
+	/**
+	 * Tests the stability weight of a phase is added for each stable Disk, and files written before stability weights still load
+	 */
+	@Test
+	public void testStability() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("patterns", ".bin");
+		file.deleteOnExit();
+		short[][][] weights = {testWeights(0), testWeights(1)};
+		PatternEvaluator.write(file, new int[]{0, 5}, weights, new short[]{0, 3});
+		PatternEvaluator patternEvaluator = new PatternEvaluator(file);
+		Board board = new Board(8, 8);
+		board.setDisks(0xFFL | (1L << 27), (1L << 9) | (1L << 10) | (1L << 36), Color.WHITE); // BLACK has the whole first row
+		int patternValue = 0;
+		for (int feature = 0; feature < Patterns.FEATURES; feature++)
+			patternValue += weights[1][Patterns.FEATURE_TYPE[feature]][Patterns.index(board.blackDisks, board.whiteDisks, feature)];
+
+		/* Test data */
+		assertEquals(PatternEvaluator.stability(board.blackDisks, board.whiteDisks), 8);
+		assertEquals(patternEvaluator.stabilityWeight(1), 0);
+		assertEquals(patternEvaluator.stabilityWeight(board.turn), 3);
+		assertEquals(patternEvaluator.value(board), patternValue + 3 * 8);
+
+		/* A VERSION_WITHOUT_STABILITY file: the same weights, without the short after each phase */
+		PatternEvaluator.write(file, weights[1]);
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, PatternEvaluator.VERSION_WITHOUT_STABILITY);
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 2));
+		patternEvaluator = new PatternEvaluator(file);
+		assertEquals(patternEvaluator.stabilityWeight(board.turn), 0);
+		assertEquals(patternEvaluator.value(board), patternValue);
+	}
+
+	/**
+	 * Tests files that are missing or not weights files are refused
+	 */
+	@Test
+	public void testBadFile() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("patterns", ".bin");
+		file.deleteOnExit();
+		try (FileOutputStream out = new FileOutputStream(file)){
+			out.write(new byte[100]);
+		}
+
+		/* Test data */
+		try {
+			new PatternEvaluator(file);
+			fail("no IOException");
+		}
+		catch (IOException ioException) {
+			// expected
+		}
+		assertNull(PatternEvaluator.load(file));
+		assertNull(PatternEvaluator.load(new File(file.getPath() + ".missing")));
+	}
+
+	/**
+	 * Tests write() refuses phases that do not start at turn 0 and increase, or weights that do not fit the phases, and leaves the file as it was
+	 */
+	@Test
+	public void testBadWrite() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("patterns", ".bin");
+		file.deleteOnExit();
+		PatternEvaluator.write(file, testWeights(0));
+		long length = file.length();
+		short[][] typeWeights = testWeights(1);
+		int[][] firstTurns = {{}, {0, 20}, {5, 20}, {0, 20, 20}, {0, 20}, {0, 20}};
+		short[][][][] phaseWeights = {{}, {typeWeights}, {typeWeights, typeWeights}, {typeWeights, typeWeights, typeWeights},
+				{typeWeights, typeWeights}, {typeWeights, new short[1][]}};
+		short[][] stabilityWeights = {{}, {0, 0}, {0, 0}, {0, 0, 0}, {0}, {0, 0}};
+
+		/* Test data */
+		for (int i = 0; i < firstTurns.length; i++){
+			try {
+				PatternEvaluator.write(file, firstTurns[i], phaseWeights[i], stabilityWeights[i]);
+				fail("no IllegalArgumentException for case " + i);
+			}
+			catch (IllegalArgumentException illegalArgumentException) {
+				// expected
+			}
+		}
+		assertEquals(file.length(), length);
+		assertEquals(new PatternEvaluator(file).phases, 1);
+	}
+}
@@ -68,5 +68,6 @@ public class PlayerTest {
 		board.placeDisk(new Point(5, 3), Color.BLACK);
 		whitePlayer.updateValidMoves(board);
 		assertEquals(whitePlayer.validMoves.size(), 3);
+		assertEquals(Long.bitCount(whitePlayer.validMovesMask), 3);
 	}
 }
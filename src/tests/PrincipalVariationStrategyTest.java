@@ -0,0 +1,78 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.util.Random;
+
+import org.junit.Test;
+
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import strategies.AlphaBetaStrategy;
+import strategies.PrincipalVariationStrategy;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Tests the choice of move in PrincipalVariationStrategy
+ * @author Rodney Shaghoulian
+ */
+public class PrincipalVariationStrategyTest {
+
+	/**
+	 * Tests constructor properly initializes variables, without a Controller
+	 */
+	@Test
+	public void testPrincipalVariationStrategy() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		PrincipalVariationStrategy strategy = new PrincipalVariationStrategy(null, new TranspositionTable(1));
+
+		/* Test data */
+		assertNull(strategy.controller);
+		assertNotNull(strategy.transpositionTable);
+		assertTrue(strategy.helperStrategy() instanceof PrincipalVariationStrategy);
+		assertSame(strategy.helperStrategy().transpositionTable, strategy.transpositionTable);
+	}
+
+	/**
+	 * Tests Principal Variation Search gives the same utility as AlphaBeta, for both Players, and leaves the Board unchanged
+	 */
+	@Test
+	public void testAlphaBeta() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		Random random = new Random(1);
+		for (int turn = 0; turn < 12; turn++){
+			Point move = board.getCurrentPlayer().validMoves.get(random.nextInt(board.getCurrentPlayer().validMoves.size()));
+			new Command(board, board.playerTurn, move).execute();
+
+			/* Test data */
+			for (int depth = 1; depth <= 3; depth++){
+				AlphaBetaStrategy alphaBetaStrategy = new AlphaBetaStrategy(null, new TranspositionTable(1));
+				PrincipalVariationStrategy strategy = new PrincipalVariationStrategy(null, new TranspositionTable(1));
+				int value = alphaBetaStrategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+				assertEquals(strategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE), value);
+				assertTrue(board.validMove(strategy.bestMove, board.playerTurn));
+			}
+		}
+		assertEquals(board.turn, 13);
+	}
+
+	/**
+	 * Tests that the computer A.I. makes a move
+	 */
+	@Test
+	public void testMove() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		PrincipalVariationStrategy strategy = new PrincipalVariationStrategy(null, new TranspositionTable(1));
+		strategy.timeLimit = 200;
+
+		/* Test data */
+		strategy.move(board);
+		assertEquals(board.playerTurn, Color.WHITE);
+	}
+}
@@ -0,0 +1,134 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import strategies.ProbCut;
+import tuning.BookBuilder;
+import tuning.ProbCutCalibrator;
+import tuning.TrainingPosition;
+
+/**
+ * \brief
+ * Tests ProbCut calibration files, the bounds of its checks, and calibrating it from self-play games
+ * @author Rodney Shaghoulian
+ */
+public class ProbCutTest {
+
+	/**
+	 * Creates a calibration with 2 phases. Depth 4 has 2 checks, listed deepest first.
+	 * @return	The calibration
+	 */
+	private ProbCut testProbCut(){
+		int[] firstTurns = {0, 30};
+		int[] shallowDepths = {2, 1, 1};
+		int[] deepDepths = {4, 4, 3};
+		float[][] slopes = {{1, 2}, {0.5f, 1}, {1, 1}};
+		float[][] intercepts = {{0, 10}, {-3, 3}, {0, 0}};
+		float[][] deviations = {{5, 4}, {8, 9}, {Float.POSITIVE_INFINITY, 1}};
+		return new ProbCut(firstTurns, shallowDepths, deepDepths, slopes, intercepts, deviations);
+	}
+
+	/**
+	 * Tests a calibration is read back from its file, and finds its checks and phases
+	 */
+	@Test
+	public void testWriteAndRead() throws IOException {
+		/* Set up data */
+		File file = File.createTempFile("probcut", ".bin");
+		file.deleteOnExit();
+		testProbCut().write(file);
+		ProbCut probCut = ProbCut.read(file);
+		
+		/* Test data */
+		assertArrayEquals(probCut.firstTurns, new int[]{0, 30});
+		assertArrayEquals(probCut.shallowDepths, new int[]{2, 1, 1});
+		assertArrayEquals(probCut.deepDepths, new int[]{4, 4, 3});
+		assertEquals(probCut.slopes[1][0], 0.5f, 0);
+		assertEquals(probCut.intercepts[0][1], 10, 0);
+		assertEquals(probCut.deviations[2][0], Float.POSITIVE_INFINITY, 0);
+		assertArrayEquals(probCut.checks(4), new int[]{1, 0});
+		assertArrayEquals(probCut.checks(3), new int[]{2});
+		assertArrayEquals(probCut.checks(5), new int[0]);
+		assertEquals(probCut.phase(29), 0);
+		assertEquals(probCut.phase(30), 1);
+		assertEquals(probCut.phase(100), 1);
+		assertNull(ProbCut.load(new File(file.getPath() + ".missing")));
+	}
+
+	/**
+	 * Tests the shallow values needed to predict a deep value outside the window
+	 */
+	@Test
+	public void testBounds(){
+		/* Set up data */
+		ProbCut probCut = testProbCut();
+		
+		/* Test data: deep = 2 * shallow + 10, with a deviation of 4 */
+		assertEquals(probCut.highBound(0, 1, 50, 1.5), 23);
+		assertEquals(probCut.lowBound(0, 1, 0, 1.5), -8);
+		assertEquals(probCut.highBound(0, 1, 50, 0), 20);
+		
+		/* Test data: a check that was not calibrated never predicts */
+		assertEquals(probCut.highBound(2, 0, 0, 1.5), Long.MAX_VALUE);
+		assertEquals(probCut.lowBound(2, 0, 0, 1.5), Long.MIN_VALUE);
+	}
+
+	/**
+	 * Tests the least-squares fit of each check
+	 */
+	@Test
+	public void testFit(){
+		/* Set up data: deep = 2 * shallow + 10, plus or minus 3 */
+		int[] shallowDepths = {1, 2};
+		int[] deepDepths = {3, 3};
+		double[][][] sums = new double[2][1][ProbCutCalibrator.SUMS];
+		for (int i = 0; i < 100; i++){
+			double shallow = i;
+			double deep = 2 * i + 10 + ((i % 2 == 0) ? 3 : -3);
+			double[] sum = sums[0][0];
+			sum[0]++;
+			sum[1] += shallow;
+			sum[2] += deep;
+			sum[3] += shallow * shallow;
+			sum[4] += shallow * deep;
+			sum[5] += deep * deep;
+		}
+		ProbCut probCut = ProbCutCalibrator.fit(sums, shallowDepths, deepDepths, new int[]{0});
+		
+		/* Test data */
+		assertEquals(probCut.slopes[0][0], 2, 0.01);
+		assertEquals(probCut.intercepts[0][0], 10, 0.5);
+		assertEquals(probCut.deviations[0][0], 3, 0.1);
+		assertEquals(probCut.deviations[1][0], Float.POSITIVE_INFINITY, 0); // no positions
+	}
+
+	/**
+	 * Tests calibrating from self-play games gives a fit to every check
+	 */
+	@Test
+	public void testCalibrate() throws IOException {
+		/* Set up data */
+		ForkJoinPool pool = new ForkJoinPool(2);
+		File gamesFile = File.createTempFile("games", ".txt");
+		gamesFile.deleteOnExit();
+		BookBuilder.selfPlay(gamesFile, 8, 1, 10, 1, null, pool);
+		ArrayList<TrainingPosition> positions = ProbCutCalibrator.readPositions(gamesFile, 1000, 3);
+		int[][] checks = ProbCutCalibrator.defaultChecks(3);
+		ProbCut probCut = ProbCutCalibrator.calibrate(positions, checks[0], checks[1], new int[]{0}, null, pool);
+		
+		/* Test data */
+		assertTrue(positions.size() >= ProbCutCalibrator.MIN_SAMPLES);
+		assertArrayEquals(probCut.shallowDepths, new int[]{1});
+		assertArrayEquals(probCut.deepDepths, new int[]{3});
+		assertTrue(probCut.slopes[0][0] > 0);
+		assertTrue(probCut.deviations[0][0] < Float.POSITIVE_INFINITY);
+		pool.shutdown();
+	}
+}
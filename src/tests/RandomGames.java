@@ -0,0 +1,31 @@
+package tests;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Random;
+
+import main_components.Board;
+import main_components.Command;
+
+/**
+ * \brief
+ * Sets up Boards for tests by playing random moves from the start of a game
+ * @author Rodney Shaghoulian
+ */
+public class RandomGames {
+
+	/**
+	 * Plays random moves on a new 8x8 Board until it has a number of empty squares
+	 * @param random	The random moves, so a test can repeat its Boards
+	 * @param empties	The number of empty squares wanted
+	 * @return			The Board, or null if the game ended before it had that many empty squares
+	 */
+	public static Board randomBoard(Random random, int empties){
+		Board board = new Board(8, 8);
+		while (!board.gameEnded && Long.bitCount(board.emptySquares()) > empties){
+			ArrayList<Point> moves = board.getCurrentPlayer().validMoves;
+			new Command(board, board.playerTurn, moves.get(random.nextInt(moves.size()))).execute();
+		}
+		return board.gameEnded ? null : board;
+	}
+}
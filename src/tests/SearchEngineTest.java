@@ -0,0 +1,229 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import strategies.EndgameSolver;
+import strategies.EngineResult;
+import strategies.SearchAlgorithm;
+import strategies.SearchEngine;
+import strategies.SearchMode;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Tests the SearchEngine, which searches without a View or Controller
+ * @author Rodney Shaghoulian
+ */
+public class SearchEngineTest {
+
+	/**
+	 * Tests a search gives a valid move, a principal variation that starts with it, and its statistics, and leaves the Board unchanged
+	 */
+	@Test
+	public void testSearch() {
+		for (SearchAlgorithm searchAlgorithm : SearchAlgorithm.values()){
+			/* Set up data */
+			SearchEngine searchEngine = new SearchEngine(1);
+			searchEngine.searchAlgorithm = searchAlgorithm;
+			searchEngine.depth = 4;
+			searchEngine.timeLimit = 60000;
+			Board board = new Board(8, 8);
+
+			/* Test data */
+			EngineResult result = searchEngine.search(board);
+			assertEquals(result.depth, 4);
+			assertTrue(result.nodes > 0);
+			assertFalse(result.solved);
+			assertTrue(result.principalVariation.length >= 1 && result.principalVariation.length <= 4);
+			assertEquals(result.principalVariation[0], result.move);
+			assertTrue(validLine(board, result.principalVariation));
+			assertEquals(board.blackPlayer.score, 2);
+			assertEquals(board.whitePlayer.score, 2);
+			assertEquals(board.playerTurn, Color.BLACK);
+
+			/* Only MTD(f) has passes, and they are reported */
+			boolean mtdf = (searchAlgorithm == SearchAlgorithm.MTDF);
+			assertEquals(result.passes > 0, mtdf);
+			assertEquals(result.passNodes.length, result.passes);
+			assertEquals(result.report(8).contains("MTD(f) passes = " + result.passes), mtdf);
+		}
+	}
+
+	/**
+	 * Tests Boards near the end of the game are solved, with the score for the Player whose turn it is
+	 */
+	@Test
+	public void testSolve() {
+		Random random = new Random(7);
+		for (int game = 0; game < 5; game++){
+			/* Set up Board with 12 empty squares */
+			Board board = RandomGames.randomBoard(random, 12);
+			if (board == null)
+				continue;
+			SearchEngine searchEngine = new SearchEngine(1);
+			searchEngine.timeLimit = 60000;
+
+			/* Test data */
+			EngineResult result = searchEngine.search(board);
+			int score = new EndgameSolver(new TranspositionTable(1)).solve(board);
+			assertTrue(result.solved);
+			assertEquals(result.score, Integer.signum(score) * 10000);
+			assertEquals(result.principalVariation[0], result.move);
+			assertTrue(validLine(board, result.principalVariation));
+		}
+	}
+
+	/**
+	 * Tests stop() ends a long search from another thread, which still gives a valid move, with the root searched on 1 thread or split
+	 */
+	@Test
+	public void testStop() throws Exception {
+		for (SearchMode searchMode : new SearchMode[]{SearchMode.SERIAL, SearchMode.ROOT_SPLIT}){
+			/* Set up data */
+			final SearchEngine searchEngine = new SearchEngine(1);
+			searchEngine.searchMode = searchMode;
+			searchEngine.timeLimit = 600000;
+			final Board board = new Board(8, 8);
+			new Command(board, board.playerTurn, new Point(5, 3)).execute();
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+
+			/* Test data */
+			long startTime = System.currentTimeMillis();
+			Future<EngineResult> future = executor.submit(new Callable<EngineResult>() {
+				public EngineResult call(){
+					return searchEngine.search(board);
+				}
+			});
+			Thread.sleep(300);
+			searchEngine.stop();
+			EngineResult result = future.get();
+			executor.shutdown();
+			searchEngine.close();
+			assertTrue(System.currentTimeMillis() - startTime < 10000);
+			assertTrue(board.validMove(new Point(result.move % 8, result.move / 8), Color.WHITE));
+			assertTrue(result.depth >= 1);
+			assertEquals(result.searchMode, searchMode);
+		}
+	}
+
+	/**
+	 * Tests many SearchEngines searching at once on a few threads find the same results as 1 SearchEngine alone
+	 */
+	@Test
+	public void testManyEngines() throws Exception {
+		/* Set up data */
+		final Board board = new Board(8, 8);
+		new Command(board, board.playerTurn, new Point(5, 3)).execute();
+		SearchEngine loneEngine = new SearchEngine(1);
+		loneEngine.depth = 5;
+		loneEngine.timeLimit = 60000;
+		EngineResult expected = loneEngine.search(board);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		ArrayList<Future<EngineResult>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++){
+			final SearchEngine searchEngine = new SearchEngine(1);
+			searchEngine.depth = 5;
+			searchEngine.timeLimit = 60000;
+			futures.add(executor.submit(new Callable<EngineResult>() {
+				public EngineResult call(){
+					return searchEngine.search(new Board(board));
+				}
+			}));
+		}
+
+		/* Test data */
+		for (Future<EngineResult> future : futures){
+			EngineResult result = future.get();
+			assertEquals(result.move, expected.move);
+			assertEquals(result.score, expected.score);
+			assertEquals(result.nodes, expected.nodes);
+		}
+		executor.shutdown();
+	}
+
+	/**
+	 * Tests clear() empties the tables, so a search starts over
+	 */
+	@Test
+	public void testClear() {
+		/* Set up data */
+		SearchEngine searchEngine = new SearchEngine(1);
+		searchEngine.depth = 4;
+		searchEngine.timeLimit = 60000;
+		Board board = new Board(8, 8);
+		long firstNodes = searchEngine.search(board).nodes;
+
+		/* Test data: the table saves work, until it is cleared */
+		assertTrue(searchEngine.search(board).nodes < firstNodes);
+		searchEngine.clear();
+		assertEquals(searchEngine.search(board).nodes, firstNodes);
+	}
+
+	/**
+	 * Tests close() shuts down the pool a SearchEngine created, and leaves a shared pool running
+	 */
+	@Test
+	public void testClose() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		ForkJoinPool sharedPool = new ForkJoinPool(2);
+		SearchEngine sharedEngine = new SearchEngine(1);
+		sharedEngine.pool = sharedPool;
+		SearchEngine ownEngine = new SearchEngine(1);
+		for (SearchEngine searchEngine : new SearchEngine[]{sharedEngine, ownEngine}){
+			searchEngine.searchMode = SearchMode.ROOT_SPLIT;
+			searchEngine.depth = 3;
+			searchEngine.search(board);
+		}
+		ForkJoinPool ownPool = ownEngine.pool;
+
+		/* Test data */
+		sharedEngine.close();
+		ownEngine.close();
+		assertFalse(sharedPool.isShutdown());
+		assertTrue(ownPool.isShutdown());
+		assertNull(ownEngine.pool);
+		sharedPool.shutdown();
+	}
+
+	/**
+	 * Tests a search of a finished game is refused
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testGameEnded() {
+		Board board = new Board(8, 8);
+		board.gameEnded = true;
+		new SearchEngine(1).search(board);
+	}
+
+	/**
+	 * Checks a line of moves can be played from a Board
+	 * @param board		The Board. It is not changed.
+	 * @param line		The squares of the moves
+	 * @return			true if every move is valid in turn
+	 */
+	private static boolean validLine(Board board, int[] line){
+		Board lineBoard = new Board(board);
+		for (int square : line){
+			Point move = new Point(square % lineBoard.columns, square / lineBoard.columns);
+			if (!lineBoard.validMove(move, lineBoard.playerTurn))
+				return false;
+			new Command(lineBoard, lineBoard.playerTurn, move).execute();
+		}
+		return true;
+	}
+}
@@ -0,0 +1,88 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Tests storing and looking up search results in the TranspositionTable
+ * @author Rodney Shaghoulian
+ */
+public class TranspositionTableTest {
+
+	/**
+	 * Tests the table size is a power of 2
+	 */
+	@Test
+	public void testConstructor() {
+		/* Set up data */
+		TranspositionTable transpositionTable = new TranspositionTable(1);
+		
+		/* Test data */
+		assertEquals(transpositionTable.table.length, (1 << 20) / 8);
+		assertEquals(transpositionTable.bucketMask, (1 << 20) / 32 - 1);
+	}
+
+	/**
+	 * Tests an entry can be stored and read back, and a different key misses
+	 */
+	@Test
+	public void testStoreAndProbe() {
+		/* Set up data */
+		TranspositionTable transpositionTable = new TranspositionTable(1);
+		transpositionTable.store(12345L, 7, TranspositionTable.LOWER_BOUND, -250, 37);
+		
+		/* Test data */
+		long entry = transpositionTable.probe(12345L);
+		assertNotEquals(entry, TranspositionTable.MISS);
+		assertEquals(TranspositionTable.depth(entry), 7);
+		assertEquals(TranspositionTable.bound(entry), TranspositionTable.LOWER_BOUND);
+		assertEquals(TranspositionTable.score(entry), -250);
+		assertEquals(TranspositionTable.move(entry), 37);
+		assertEquals(transpositionTable.probe(54321L), TranspositionTable.MISS);
+		assertEquals(transpositionTable.probe(0L), TranspositionTable.MISS);
+	}
+
+	/**
+	 * Tests a shallower result for another Board in the same bucket does not replace a deeper one
+	 */
+	@Test
+	public void testReplacement() {
+		/* Set up data */
+		TranspositionTable transpositionTable = new TranspositionTable(1);
+		long key1 = 5;
+		long key2 = key1 + transpositionTable.bucketMask + 1;	// same bucket
+		long key3 = key2 + transpositionTable.bucketMask + 1;	// same bucket
+		transpositionTable.store(key1, 9, TranspositionTable.EXACT, 10, TranspositionTable.NO_MOVE);
+		transpositionTable.store(key2, 3, TranspositionTable.EXACT, 20, TranspositionTable.NO_MOVE);
+		
+		/* Test both are kept */
+		assertEquals(TranspositionTable.score(transpositionTable.probe(key1)), 10);
+		assertEquals(TranspositionTable.score(transpositionTable.probe(key2)), 20);
+		assertEquals(TranspositionTable.move(transpositionTable.probe(key1)), TranspositionTable.NO_MOVE);
+		
+		/* Test always-replace slot is replaced, and deep entry is kept */
+		transpositionTable.store(key3, 2, TranspositionTable.EXACT, 30, TranspositionTable.NO_MOVE);
+		assertEquals(TranspositionTable.score(transpositionTable.probe(key1)), 10);
+		assertEquals(transpositionTable.probe(key2), TranspositionTable.MISS);
+		assertEquals(TranspositionTable.score(transpositionTable.probe(key3)), 30);
+	}
+
+	/**
+	 * Tests a half-written entry is not accepted
+	 */
+	@Test
+	public void testTornEntry() {
+		/* Set up data */
+		TranspositionTable transpositionTable = new TranspositionTable(1);
+		transpositionTable.store(777L, 4, TranspositionTable.EXACT, 5, 1);
+		int index = (int) (777L & transpositionTable.bucketMask) * 4;
+		
+		/* Simulate another thread writing only the data of a new entry */
+		transpositionTable.table[index + 1] ^= 1;
+		assertEquals(transpositionTable.probe(777L), TranspositionTable.MISS);
+	}
+}
@@ -0,0 +1,100 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import main_components.Board;
+import main_components.Color;
+import main_components.Patterns;
+import strategies.EndgameSolver;
+import strategies.PatternEvaluator;
+import tuning.PositionLabeler;
+import tuning.TrainingPosition;
+import tuning.Tuner;
+import tuning.WeightFitter;
+
+/**
+ * \brief
+ * Tests the 3 stages of tuning on a few games
+ * @author Rodney Shaghoulian
+ */
+public class TunerTest {
+
+	/**
+	 * Tests positions are generated, labeled exactly near the end of the game, and fitted into a weights file the evaluator loads
+	 */
+	@Test
+	public void testPipeline() throws IOException {
+		/* Set up data */
+		ForkJoinPool pool = new ForkJoinPool(2);
+		File positionsFile = File.createTempFile("positions", ".bin");
+		File labeledFile = File.createTempFile("labeled", ".bin");
+		File weightsFile = File.createTempFile("patterns", ".bin");
+		positionsFile.deleteOnExit();
+		labeledFile.deleteOnExit();
+		weightsFile.deleteOnExit();
+		
+		/* Generate and label */
+		int positions = Tuner.generate(positionsFile, 4, 1, 4, 1, null, pool);
+		assertTrue(positions >= 4 * 50);
+		assertEquals(positionsFile.length(), positions * TrainingPosition.RECORD_BYTES);
+		Tuner.label(positionsFile, labeledFile, 1, 8, null, pool);
+		assertEquals(labeledFile.length(), positionsFile.length());
+		
+		/* Positions with few empty squares have their exact score, for BLACK */
+		EndgameSolver endgameSolver = new EndgameSolver();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(labeledFile)))){
+			for (TrainingPosition position = TrainingPosition.read(in); position != null; position = TrainingPosition.read(in)){
+				Board board = position.toBoard();
+				if (Long.bitCount(board.emptySquares()) <= 4 && !board.gameEnded){
+					int score = endgameSolver.solve(board) * PatternEvaluator.UNITS_PER_DISC;
+					assertEquals(position.score, (board.playerTurn == Color.BLACK) ? score : -score);
+				}
+			}
+		}
+		
+		/* Fit */
+		WeightFitter weightFitter = new WeightFitter(WeightFitter.evenPhases(20));
+		double firstError = weightFitter.epoch(labeledFile);
+		double lastError = Tuner.fit(weightFitter, labeledFile, weightsFile, 3);
+		assertTrue(lastError < firstError);
+		PatternEvaluator patternEvaluator = new PatternEvaluator(weightsFile);
+		assertEquals(patternEvaluator.phases, 4);
+		pool.shutdown();
+	}
+
+	/**
+	 * Tests a searched position is dropped only when the search proves a won or lost game, and other values are limited to the largest disc differential
+	 */
+	@Test
+	public void testLabelSearchedPositions() throws IOException {
+		/* Set up data: weights so large that every evaluation is PatternEvaluator.MAX_VALUE */
+		File weightsFile = File.createTempFile("patterns", ".bin");
+		weightsFile.deleteOnExit();
+		short[][] typeWeights = new short[Patterns.TYPES][];
+		for (int type = 0; type < Patterns.TYPES; type++){
+			typeWeights[type] = new short[Patterns.SIZES[type]];
+			Arrays.fill(typeWeights[type], (short) 1000);
+		}
+		PatternEvaluator.write(weightsFile, typeWeights);
+		Board wonBoard = new Board(8, 8);
+		wonBoard.setDisks(1L << 0, 1L << 1, Color.BLACK); // BLACK takes WHITE's only Disk
+		TrainingPosition[] positions = {new TrainingPosition(new Board(8, 8), 0), new TrainingPosition(wonBoard, 0)};
+
+		/* Test data */
+		PositionLabeler positionLabeler = new PositionLabeler(positions, 0, positions.length, 1, 0, new PatternEvaluator(weightsFile));
+		positionLabeler.invoke();
+		assertEquals(positions[0].score, EndgameSolver.MAX_SCORE * PatternEvaluator.UNITS_PER_DISC);
+		assertNull(positions[1]);
+		assertEquals(positionLabeler.dropped, 1);
+	}
+}
@@ -64,6 +64,27 @@ public class UtilityTest {
 		assertEquals(utility.value, -1);
 	}
 
+	/**
+	 * Tests the utility value for the difference of stable Disks
+	 */
+	@Test
+	public void testUtilityStability() {
+		/* Set up data */
+		Board board = new Board(8, 8);
+		Utility utility = new Utility(board);
+		
+		/* Test utility at beginning of game */
+		utility.utilityStability();
+		assertEquals(utility.value, 0);
+		
+		/* Put Disks in a corner and along its edge, and test utility again */
+		board.placeDisk(new Point(0, 0), Color.WHITE);
+		board.placeDisk(new Point(1, 0), Color.WHITE);
+		board.placeDisk(new Point(7, 7), Color.BLACK);
+		utility.utilityStability();
+		assertEquals(utility.value, -1);
+	}
+
 	/**
 	 * Tests the utility value at the beginning of the game for difference if # of valid moves for Players
 	 */
@@ -0,0 +1,285 @@
+package tuning;
+
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Command;
+import strategies.BookEntry;
+import strategies.OpeningBook;
+import strategies.PatternEvaluator;
+
+/**
+ * \brief
+ * Builds an OpeningBook from played games, in 3 steps: \n
+ * add games: the first maxPlies moves of every game (self-play, or game records imported from a file) grow a tree of positions. \n
+ * search: every position's best move that was never played is searched to a fixed depth, on every core (DeviationSearch). \n
+ * negamax: from the end of the tree back to the start, each position takes the best of its played moves and its deviation. \n
+ * The whole tree, and every entry of the new book, is kept in memory, so the size of a book is bound by the heap.
+ * An earlier book is only read 1 entry at a time while it is merged, so it does not have to fit in memory. \n
+ * Game records are 1 game per line, each move a column letter and a row number ("e3f4c5..."). Anything else on the line is skipped.
+ * Records from boards whose starting position is mirrored (Point(0, 0) at the bottom left) are turned to fit.
+ * @author Rodney Shaghoulian
+ */
+public class BookBuilder {
+	private static final Pattern MOVE = Pattern.compile("([a-hA-H])([1-8])");	///< 1 move of a game record
+
+	public int maxPlies;								///< Moves of each game added to the tree
+	public HashMap<BookEntry, BookNode> nodes = new HashMap<>();	///< Every position of the tree, by canonical position
+	public int games = 0;								///< Number of games added
+	public int depth = 0;								///< Depth of the last search(), saved in every entry
+
+	/**
+	 * Constructor - Starts an empty tree
+	 * @param maxPlies	Moves of each game added to the tree
+	 */
+	public BookBuilder(int maxPlies){
+		this.maxPlies = maxPlies;
+	}
+
+	/**
+	 * Builds a book, or plays self-play games to build it from. Usage: \n
+	 * selfplay [games file] [games] [depth] [random moves] [weights file or -] [seed] \n
+	 * build [book file] [games file] [max plies] [depth] [weights file or -] [earlier book file or -]
+	 * @param args	The command and its arguments
+	 * @throws IOException	If a file can't be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		long startTime = System.currentTimeMillis();
+		if (args.length == 7 && args[0].equals("selfplay")){
+			selfPlay(new File(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]), Long.parseLong(args[6]), evaluator(args[5]), pool);
+		}
+		else if (args.length == 7 && args[0].equals("build")){
+			BookBuilder bookBuilder = new BookBuilder(Integer.parseInt(args[3]));
+			int games = bookBuilder.addGames(new File(args[2]));
+			System.out.println("Games added = " + games + ", positions = " + bookBuilder.nodes.size());
+			long nodes = bookBuilder.search(Integer.parseInt(args[4]), evaluator(args[5]), pool);
+			System.out.println("Game Boards expanded = " + nodes);
+			OpeningBook earlierBook = args[6].equals("-") ? null : new OpeningBook(new File(args[6]));
+			int entries = bookBuilder.write(new File(args[1]), earlierBook);
+			System.out.println("Book entries = " + entries);
+		}
+		else {
+			System.out.println("Usage: selfplay [games file] [games] [depth] [random moves] [weights file or -] [seed]");
+			System.out.println("       build [book file] [games file] [max plies] [depth] [weights file or -] [earlier book file or -]");
+			return;
+		}
+		System.out.println("Time = " + (System.currentTimeMillis() - startTime) / 1000.0 + " seconds");
+		pool.shutdown();
+	}
+
+	/**
+	 * Loads a weights file named on the command line
+	 * @param name			The file name, or "-" for none
+	 * @return				The PatternEvaluator, or null for none
+	 * @throws IOException	If the file can't be used
+	 */
+	private static PatternEvaluator evaluator(String name) throws IOException {
+		return name.equals("-") ? null : new PatternEvaluator(new File(name));
+	}
+
+	/**
+	 * Plays self-play games on every thread of a pool, and writes them as game records
+	 * @param file				The games file to write
+	 * @param games				Number of games to play
+	 * @param depth				Depth of the search for each move
+	 * @param randomMoves		Each game starts with 0 to randomMoves random moves
+	 * @param seed				Base seed of the random moves. The same seed gives the same games on any number of threads.
+	 * @param patternEvaluator	Evaluation used by the search. null to use Utility.finalValue.
+	 * @param pool				The threads to play on
+	 * @throws IOException		If the file can't be written
+	 */
+	public static void selfPlay(File file, int games, int depth, int randomMoves, long seed, PatternEvaluator patternEvaluator, ForkJoinPool pool) throws IOException {
+		int threads = pool.getParallelism();
+		try (BufferedWriter out = new BufferedWriter(new FileWriter(file))){
+			ArrayList<SelfPlay> tasks = new ArrayList<>();
+			for (int i = 0; i < threads; i++){
+				SelfPlay task = new SelfPlay(games * i / threads, games * (i + 1) / threads - games * i / threads, depth, randomMoves, seed, patternEvaluator, null);
+				task.gameRecords = out;
+				pool.execute(task);
+				tasks.add(task);
+			}
+			for (SelfPlay task : tasks)
+				task.join();
+		}
+	}
+
+	/**
+	 * Gets the name of a move in a game record
+	 * @param square	The square (y * 8 + x)
+	 * @return			The column letter and row number, such as "e3" for Point(4, 2)
+	 */
+	public static String moveName(int square){
+		return "" + (char) ('a' + square % BitBoard.SIZE) + (char) ('1' + square / BitBoard.SIZE);
+	}
+
+	/**
+	 * Reads a game record
+	 * @param record	1 game. Anything that is not a move is skipped.
+	 * @return			The squares of the moves, turned to fit this Board, or null if they are not a legal game in any orientation
+	 */
+	public static ArrayList<Integer> parseGame(String record){
+		ArrayList<Integer> squares = new ArrayList<>();
+		Matcher matcher = MOVE.matcher(record);
+		while (matcher.find())
+			squares.add((Character.toLowerCase(matcher.group(1).charAt(0)) - 'a') + (matcher.group(2).charAt(0) - '1') * BitBoard.SIZE);
+		if (squares.isEmpty())
+			return null;
+
+		for (int symmetry = 0; symmetry < 8; symmetry++){
+			ArrayList<Integer> moves = new ArrayList<>();
+			Board board = new Board(BitBoard.SIZE, BitBoard.SIZE);
+			for (int square : squares){
+				Point move = BitBoard.point(BitBoard.transformSquare(square, symmetry));
+				if (board.gameEnded || !board.validMove(move, board.playerTurn))
+					break;
+				new Command(board, board.playerTurn, move).execute();
+				moves.add(BitBoard.square(move));
+			}
+			if (moves.size() == squares.size())
+				return moves;
+		}
+		return null;
+	}
+
+	/**
+	 * Adds every game of a games file
+	 * @param file			The games file, 1 game record on each line
+	 * @return				Number of games added. Lines that are not legal games are skipped.
+	 * @throws IOException	If the file can't be read
+	 */
+	public int addGames(File file) throws IOException {
+		int added = 0;
+		try (BufferedReader in = new BufferedReader(new FileReader(file))){
+			for (String line; (line = in.readLine()) != null; ){
+				ArrayList<Integer> moves = parseGame(line);
+				if (moves != null){
+					addGame(moves);
+					added++;
+				}
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Adds the first maxPlies moves of a game to the tree
+	 * @param moves		The squares of the moves. They must be legal.
+	 */
+	public void addGame(ArrayList<Integer> moves){
+		Board board = new Board(BitBoard.SIZE, BitBoard.SIZE);
+		BookNode node = node(board);
+		for (int ply = 0; ply < Math.min(maxPlies, moves.size()); ply++){
+			int symmetry = BitBoard.canonicalSymmetry(board.disks(board.playerTurn), board.disks(board.getOppositeColor(board.playerTurn)));
+			int move = moves.get(ply);
+			new Command(board, board.playerTurn, BitBoard.point(move)).execute();
+			BookNode child = node(board);
+			node.addChild(BitBoard.transformSquare(move, symmetry), child);
+			node = child;
+		}
+		games++;
+	}
+
+	/**
+	 * Finds the tree's node for the position of a Board, adding it if it is new
+	 * @param board		An 8x8 Board
+	 * @return			The node
+	 */
+	private BookNode node(Board board){
+		BookEntry position = new BookEntry(board.disks(board.playerTurn), board.disks(board.getOppositeColor(board.playerTurn)), 0, 0, 0).canonical();
+		BookNode node = nodes.get(position);
+		if (node == null){
+			node = new BookNode(position, board.playerTurn);
+			nodes.put(position, node);
+		}
+		return node;
+	}
+
+	/**
+	 * Searches the deviation of every position on every thread of a pool
+	 * @param depth				Depth of each search, counting the deviation move (at least 1)
+	 * @param patternEvaluator	Evaluation used by the search. null to use Utility.finalValue.
+	 * @param pool				The threads to search on
+	 * @return					Number of nodes searched
+	 */
+	public long search(int depth, PatternEvaluator patternEvaluator, ForkJoinPool pool){
+		this.depth = depth;
+		BookNode[] array = nodes.values().toArray(new BookNode[0]);
+		int threads = pool.getParallelism();
+		ArrayList<DeviationSearch> tasks = new ArrayList<>();
+		for (int i = 0; i < threads; i++){
+			DeviationSearch task = new DeviationSearch(array, array.length * i / threads, array.length * (i + 1) / threads, depth, patternEvaluator);
+			pool.execute(task);
+			tasks.add(task);
+		}
+		long nodesExpanded = 0;
+		for (DeviationSearch task : tasks){
+			task.join();
+			nodesExpanded += task.nodesExpanded;
+		}
+		return nodesExpanded;
+	}
+
+	/**
+	 * Finds the value of every position, from the end of the tree back to the start. search() must be done first.
+	 * @return	The positions that have a move to play, in canonical form
+	 */
+	public ArrayList<BookEntry> negamax(){
+		/* A child has 1 more Disk than its parent, so positions with more Disks are done first */
+		BookNode[] array = nodes.values().toArray(new BookNode[0]);
+		Arrays.sort(array, new Comparator<BookNode>(){
+			@Override
+			public int compare(BookNode node1, BookNode node2){
+				return Long.bitCount(node2.entry.player | node2.entry.opponent) - Long.bitCount(node1.entry.player | node1.entry.opponent);
+			}
+		});
+		ArrayList<BookEntry> entries = new ArrayList<>();
+		for (BookNode node : array){
+			if (node.negamax())
+				entries.add(new BookEntry(node.entry.player, node.entry.opponent, node.entry.move, node.entry.score, depth));
+		}
+		return entries;
+	}
+
+	/**
+	 * Writes the book, merged with an earlier book. The new entries are sorted in memory and written to a temporary file
+	 * next to the book, which is then merged with the earlier book 1 entry at a time. search() must be done first.
+	 * @param file			The book file to write. It is replaced if it exists, so it must not be the earlier book.
+	 * @param earlierBook	A book to keep the positions of, or null. Of entries equally deep, the new one is kept.
+	 * @return				Number of entries in the book
+	 * @throws IOException	If a file can't be read or written
+	 */
+	public int write(File file, OpeningBook earlierBook) throws IOException {
+		ArrayList<BookEntry> entries = negamax();
+		if (earlierBook == null){
+			OpeningBook.write(file, entries);
+			return new OpeningBook(file).size;
+		}
+		File newEntries = File.createTempFile("book", ".new", file.getAbsoluteFile().getParentFile());
+		try {
+			OpeningBook.write(newEntries, entries);
+			ArrayList<OpeningBook> books = new ArrayList<>();
+			books.add(earlierBook);
+			books.add(new OpeningBook(newEntries));
+			OpeningBook.merge(file, books);
+		}
+		finally {
+			newEntries.delete();
+		}
+		return new OpeningBook(file).size;
+	}
+}
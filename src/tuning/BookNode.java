@@ -0,0 +1,99 @@
+package tuning;
+
+import java.util.ArrayList;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+import strategies.BookEntry;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * A position of the tree built by BookBuilder from played games, in canonical form. \n
+ * Its value is the best of its played moves (the values of its children, from negamax) and its best move that was never played
+ * (the "deviation", found by a search). A position at the end of the tree only has a deviation.
+ * @author Rodney Shaghoulian
+ */
+public class BookNode {
+	public BookEntry entry;										///< The canonical position. Its move and score are set by negamax.
+	public Color playerTurn;									///< The Color to move when the position was first reached
+	public ArrayList<Integer> childMoves = new ArrayList<>();	///< Squares of the played moves, in canonical form
+	public ArrayList<BookNode> children = new ArrayList<>();	///< The position after each played move
+	public boolean gameEnded = false;							///< true if neither player can move. deviationScore is then the final utility.
+	public int deviationMove = TranspositionTable.NO_MOVE;		///< Square of the best move never played, or NO_MOVE if every move was played
+	public int deviationScore;									///< Utility of deviationMove for the player to move
+
+	/**
+	 * Constructor
+	 * @param entry			The canonical position
+	 * @param playerTurn	The Color to move
+	 */
+	public BookNode(BookEntry entry, Color playerTurn){
+		this.entry = entry;
+		this.playerTurn = playerTurn;
+	}
+
+	/**
+	 * Creates a Board with this position
+	 * @return	A new 8x8 Board, in the canonical orientation
+	 */
+	public Board toBoard(){
+		Board board = new Board(BitBoard.SIZE, BitBoard.SIZE);
+		if (playerTurn == Color.BLACK)
+			board.setDisks(entry.player, entry.opponent, playerTurn);
+		else
+			board.setDisks(entry.opponent, entry.player, playerTurn);
+		return board;
+	}
+
+	/**
+	 * Adds a played move, unless it reaches a child already added (the same move, or a symmetric 1)
+	 * @param move		Square of the move, in canonical form
+	 * @param child		The position after the move. There is 1 BookNode for each position, so children are compared by identity.
+	 */
+	public void addChild(int move, BookNode child){
+		if (children.contains(child))
+			return;
+		childMoves.add(move);
+		children.add(child);
+	}
+
+	/**
+	 * Checks if a position was played from this 1
+	 * @param position	A position, in canonical form
+	 * @return			true if it is 1 of the children
+	 */
+	public boolean hasChild(BookEntry position){
+		for (BookNode child : children){
+			if (child.entry.equals(position))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the value of the position from its children and its deviation, setting entry.move and entry.score. \n
+	 * The children must have their values already.
+	 * @return	false if the position has no move to play (the game ended)
+	 */
+	public boolean negamax(){
+		if (gameEnded){
+			entry.score = deviationScore;
+			return false;
+		}
+		int bestMove = deviationMove;
+		int bestScore = (deviationMove == TranspositionTable.NO_MOVE) ? Integer.MIN_VALUE : deviationScore;
+		for (int i = 0; i < children.size(); i++){
+			BookNode child = children.get(i);
+			int score = (child.playerTurn == playerTurn) ? child.entry.score : -child.entry.score; // the opponent passed
+			if (score > bestScore){
+				bestScore = score;
+				bestMove = childMoves.get(i);
+			}
+		}
+		entry.move = bestMove;
+		entry.score = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, bestScore));
+		return true;
+	}
+}
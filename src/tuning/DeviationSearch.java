@@ -0,0 +1,83 @@
+package tuning;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import strategies.AlphaBetaStrategy;
+import strategies.BookEntry;
+import strategies.PatternEvaluator;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Finds the deviation of each BookNode in a slice of an array on 1 thread: the best move that was never played,
+ * searched to a fixed depth. Moves reaching a played child (even by symmetry) are skipped, since negamax scores those.
+ * @author Rodney Shaghoulian
+ */
+public class DeviationSearch extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private static final int TABLE_MB = 4;		///< Size of the TranspositionTable of the task
+
+	public BookNode[] nodes;					///< The positions. Their deviations are set.
+	public int from;							///< First position of the slice
+	public int to;								///< End of the slice (exclusive)
+	public int depth;							///< Depth of the search of each position, counting the deviation move
+	public PatternEvaluator patternEvaluator;	///< Evaluation used by the search. null to use Utility.finalValue.
+	public long nodesExpanded;					///< Number of nodes searched by this task
+
+	/**
+	 * Constructor
+	 * @param nodes				The positions. Their deviations are set.
+	 * @param from				First position of the slice
+	 * @param to				End of the slice (exclusive)
+	 * @param depth				Depth of the search of each position, counting the deviation move (at least 1)
+	 * @param patternEvaluator	Evaluation used by the search. null to use Utility.finalValue.
+	 */
+	public DeviationSearch(BookNode[] nodes, int from, int to, int depth, PatternEvaluator patternEvaluator){
+		this.nodes = nodes;
+		this.from = from;
+		this.to = to;
+		this.depth = depth;
+		this.patternEvaluator = patternEvaluator;
+	}
+
+	/**
+	 * Searches the positions of the slice
+	 */
+	@Override
+	protected void compute(){
+		AlphaBetaStrategy strategy = new AlphaBetaStrategy(null, new TranspositionTable(TABLE_MB));
+		strategy.patternEvaluator = patternEvaluator;
+		for (int i = from; i < to; i++){
+			BookNode node = nodes[i];
+			Board board = node.toBoard();
+			Color player = board.playerTurn;
+			int sign = (player == Color.BLACK) ? 1 : -1;
+			if (board.gameEnded){
+				node.gameEnded = true;
+				node.deviationScore = sign * strategy.evaluate(board);
+				continue;
+			}
+			for (Point move : new ArrayList<>(board.getCurrentPlayer().validMoves)){
+				Command command = new Command(board, player, move);
+				command.execute();
+				BookEntry child = new BookEntry(board.disks(board.playerTurn), board.disks(board.getOppositeColor(board.playerTurn)), 0, 0, 0);
+				if (!node.hasChild(child.canonical())){
+					strategy.nodesExpanded = 0;
+					int score = sign * strategy.alphaBeta(board, 1, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+					nodesExpanded += strategy.nodesExpanded;
+					if (node.deviationMove == TranspositionTable.NO_MOVE || score > node.deviationScore){
+						node.deviationMove = BitBoard.square(move);
+						node.deviationScore = score;
+					}
+				}
+				command.undo();
+			}
+		}
+	}
+}
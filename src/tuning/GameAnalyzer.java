@@ -0,0 +1,118 @@
+package tuning;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import strategies.EndgameSolver;
+
+/**
+ * \brief
+ * Solves the endgame of every game of a games file, to find games whose result was thrown away after that point. \n
+ * Each game is solved when it reaches a number of empty squares, for a win, loss or draw (fast), or exactly.
+ * If the game's actual result is different from the result with perfect play, a Player made a mistake later in the game.
+ * @author Rodney Shaghoulian
+ */
+public class GameAnalyzer {
+	public EndgameSolver endgameSolver = new EndgameSolver();	///< Solves each game. Its TranspositionTable is kept between games.
+	public boolean exact;			///< true to solve for the disc differential, false to solve for a win, loss or draw only
+	public long timeLimit;			///< Milliseconds each solve may take
+	public int solved = 0;			///< Number of games solved
+	public int unsolved = 0;		///< Number of games that were not solved in time
+	public int mistakes = 0;		///< Number of solved games whose result was different from perfect play
+	public long nodes = 0;			///< Number of positions searched
+
+	/**
+	 * Constructor
+	 * @param exact		true to solve for the disc differential, false to solve for a win, loss or draw only
+	 * @param timeLimit	Milliseconds each solve may take
+	 */
+	public GameAnalyzer(boolean exact, long timeLimit){
+		this.exact = exact;
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Analyzes a games file. Usage: \n
+	 * [games file] [empties] [seconds per game] [wld or exact]
+	 * @param args	The arguments
+	 * @throws IOException	If the file can't be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 4 || !(args[3].equals("wld") || args[3].equals("exact"))){
+			System.out.println("Usage: [games file] [empties] [seconds per game] [wld or exact]");
+			return;
+		}
+		long startTime = System.currentTimeMillis();
+		GameAnalyzer gameAnalyzer = new GameAnalyzer(args[3].equals("exact"), (long) (Double.parseDouble(args[2]) * 1000));
+		int empties = Integer.parseInt(args[1]);
+		int game = 0;
+		try (BufferedReader in = new BufferedReader(new FileReader(args[0]))){
+			for (String line; (line = in.readLine()) != null; ){
+				ArrayList<Integer> moves = BookBuilder.parseGame(line);
+				if (moves != null)
+					System.out.println("Game " + (++game) + ": " + gameAnalyzer.analyze(moves, empties));
+			}
+		}
+		System.out.println("Solved = " + gameAnalyzer.solved + ", not solved in time = " + gameAnalyzer.unsolved + ", mistakes = " + gameAnalyzer.mistakes);
+		System.out.println("Positions searched = " + gameAnalyzer.nodes);
+		System.out.println("Time = " + (System.currentTimeMillis() - startTime) / 1000.0 + " seconds");
+	}
+
+	/**
+	 * Solves a game when it reaches a number of empty squares, and compares the result with the game's
+	 * @param moves		The squares of the moves. They must be legal.
+	 * @param empties	The game is solved at the first position with this many empty squares or fewer
+	 * @return			A line describing the result
+	 */
+	public String analyze(ArrayList<Integer> moves, int empties){
+		Board board = new Board(BitBoard.SIZE, BitBoard.SIZE);
+		Board solveBoard = null;
+		for (int move : moves){
+			if (solveBoard == null && Long.bitCount(board.emptySquares()) <= empties)
+				solveBoard = new Board(board);
+			new Command(board, board.playerTurn, BitBoard.point(move)).execute();
+		}
+		if (!board.gameEnded)
+			return "the game did not finish";
+		if (solveBoard == null || solveBoard.gameEnded)
+			return "the game ended before " + empties + " empty squares";
+
+		/* Solve, and compare with the actual result for the same Player */
+		Color player = solveBoard.playerTurn;
+		endgameSolver.nodes = 0;
+		endgameSolver.deadline = System.currentTimeMillis() + timeLimit;
+		int score = exact ? endgameSolver.solve(solveBoard) : endgameSolver.solveWinLossDraw(solveBoard);
+		endgameSolver.deadline = Long.MAX_VALUE;
+		nodes += endgameSolver.nodes;
+		String position = player + " to move with " + Long.bitCount(solveBoard.emptySquares()) + " empty squares: ";
+		if (endgameSolver.timeUp){
+			unsolved++;
+			return position + "not solved in time";
+		}
+		solved++;
+		int actual = EndgameSolver.finalScore(board.disks(player), board.disks(board.getOppositeColor(player)));
+		boolean mistake = exact ? (actual != score) : (Integer.signum(actual) != score);
+		if (mistake)
+			mistakes++;
+		return position + result(score, exact) + " with " + BookBuilder.moveName(endgameSolver.bestMove) + ", the game ended "
+				+ result(exact ? actual : Integer.signum(actual), exact) + (mistake ? " (mistake)" : "");
+	}
+
+	/**
+	 * Describes a result
+	 * @param score		The disc differential, or 1, 0 or -1 for a win, draw or loss
+	 * @param exact		true if score is a disc differential
+	 * @return			"win", "draw" or "loss", followed by the disc differential if exact
+	 */
+	private static String result(int score, boolean exact){
+		String result = (score > 0) ? "win" : (score < 0) ? "loss" : "draw";
+		return exact ? result + " " + ((score > 0) ? "+" : "") + score : result;
+	}
+}
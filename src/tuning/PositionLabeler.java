@@ -0,0 +1,89 @@
+package tuning;
+
+import java.util.concurrent.RecursiveAction;
+
+import main_components.Board;
+import main_components.Color;
+import strategies.AlphaBetaStrategy;
+import strategies.EndgameSolver;
+import strategies.PatternEvaluator;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Scores a slice of an array of positions on 1 thread. \n
+ * Positions with few empty squares are solved exactly with the EndgameSolver. Others are searched to a fixed depth
+ * with the given PatternEvaluator. Without a PatternEvaluator, they keep the result of the game they came from. \n
+ * A search that proves a won or lost game only knows who wins, not by how many Disks, so those positions are dropped
+ * (set to null) rather than labeled as the largest possible win. Other search values are kept, limited to the largest disc differential.
+ * @author Rodney Shaghoulian
+ */
+public class PositionLabeler extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private static final int TABLE_MB = 4;		///< Size of each TranspositionTable of the task
+
+	public TrainingPosition[] positions;		///< The positions. Their scores are replaced, or they are set to null when dropped.
+	public int from;							///< First position of the slice
+	public int to;								///< End of the slice (exclusive)
+	public int depth;							///< Depth of the search of positions that are not solved
+	public int solveEmpties;					///< Positions with this many empty squares or fewer are solved exactly
+	public PatternEvaluator patternEvaluator;	///< Evaluation used by the search. null to keep the game result.
+	public long nodes;							///< Number of nodes searched and solved by this task
+	public int dropped;							///< Number of positions dropped by this task, since their search proved a won or lost game
+
+	/**
+	 * Constructor
+	 * @param positions			The positions. Their scores are replaced, or they are set to null when dropped.
+	 * @param from				First position of the slice
+	 * @param to				End of the slice (exclusive)
+	 * @param depth				Depth of the search of positions that are not solved
+	 * @param solveEmpties		Positions with this many empty squares or fewer are solved exactly
+	 * @param patternEvaluator	Evaluation used by the search. null to keep the game result.
+	 */
+	public PositionLabeler(TrainingPosition[] positions, int from, int to, int depth, int solveEmpties, PatternEvaluator patternEvaluator){
+		this.positions = positions;
+		this.from = from;
+		this.to = to;
+		this.depth = depth;
+		this.solveEmpties = solveEmpties;
+		this.patternEvaluator = patternEvaluator;
+	}
+
+	/**
+	 * Scores the positions of the slice
+	 */
+	@Override
+	protected void compute(){
+		EndgameSolver endgameSolver = new EndgameSolver(new TranspositionTable(TABLE_MB));
+		AlphaBetaStrategy strategy = null;
+		if (patternEvaluator != null){
+			strategy = new AlphaBetaStrategy(null, new TranspositionTable(TABLE_MB));
+			strategy.patternEvaluator = patternEvaluator;
+		}
+		int maxScore = EndgameSolver.MAX_SCORE * PatternEvaluator.UNITS_PER_DISC;
+		for (int i = from; i < to; i++){
+			TrainingPosition position = positions[i];
+			Board board = position.toBoard();
+			int empties = Long.bitCount(board.emptySquares());
+			if (board.gameEnded)
+				position.score = (board.blackPlayer.score - board.whitePlayer.score) * PatternEvaluator.UNITS_PER_DISC;
+			else if (empties <= solveEmpties){
+				endgameSolver.nodes = 0;
+				int score = endgameSolver.solve(board);
+				nodes += endgameSolver.nodes;
+				position.score = ((board.playerTurn == Color.BLACK) ? score : -score) * PatternEvaluator.UNITS_PER_DISC;
+			}
+			else if (strategy != null){
+				strategy.nodesExpanded = 0;
+				int value = strategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+				nodes += strategy.nodesExpanded;
+				if (Math.abs(value) > PatternEvaluator.MAX_VALUE){ // a proven win or loss, by an unknown number of Disks
+					positions[i] = null;
+					dropped++;
+				}
+				else
+					position.score = Math.max(-maxScore, Math.min(maxScore, value));
+			}
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package tuning;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import main_components.BitBoard;
+import main_components.Board;
+import main_components.Color;
+import main_components.Command;
+import strategies.AlphaBetaStrategy;
+import strategies.PatternEvaluator;
+import strategies.ProbCut;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Calibrates ProbCut from the engine's own searches. Each task searches a slice of positions on 1 thread to every depth of the checks,
+ * and adds up the shallow and deep values of each check, by phase. The sums of all tasks give a least-squares fit of each check and phase. \n
+ * Positions come from game records, such as the self-play games of BookBuilder. Each position gets its own TranspositionTable,
+ * so a shallow search never sees results of the deeper searches of earlier positions.
+ * @author Rodney Shaghoulian
+ */
+public class ProbCutCalibrator extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private static final int TABLE_MB = 1;		///< Size of the TranspositionTable of each position
+	public static final int MIN_SAMPLES = 30;	///< A check is only used in phases with at least this many positions
+	public static final int SPACING = 7;		///< Only every SPACING-th position of a games file is used, so positions come from more games and turns
+	public static final int SUMS = 6;			///< Sums of each check and phase: positions, shallow, deep, shallow * shallow, shallow * deep, deep * deep
+
+	public TrainingPosition[] positions;		///< The positions
+	public int from;							///< First position of the slice
+	public int to;								///< End of the slice (exclusive)
+	public int[] shallowDepths;					///< For each check: the depth of the shallow search
+	public int[] deepDepths;					///< For each check: the depth it predicts
+	public int[] turnPhase;						///< For each turn: its phase
+	public PatternEvaluator patternEvaluator;	///< Evaluation used by the search. null to use Utility.finalValue.
+	public double[][][] sums;					///< For each check and phase: the SUMS of this task
+	public long nodes;							///< Number of nodes searched by this task
+
+	/**
+	 * Constructor
+	 * @param positions			The positions
+	 * @param from				First position of the slice
+	 * @param to				End of the slice (exclusive)
+	 * @param shallowDepths		For each check: the depth of the shallow search
+	 * @param deepDepths		For each check: the depth it predicts
+	 * @param turnPhase			For each turn: its phase
+	 * @param phases			Number of phases
+	 * @param patternEvaluator	Evaluation used by the search. null to use Utility.finalValue.
+	 */
+	public ProbCutCalibrator(TrainingPosition[] positions, int from, int to, int[] shallowDepths, int[] deepDepths, int[] turnPhase, int phases,
+			PatternEvaluator patternEvaluator){
+		this.positions = positions;
+		this.from = from;
+		this.to = to;
+		this.shallowDepths = shallowDepths;
+		this.deepDepths = deepDepths;
+		this.turnPhase = turnPhase;
+		this.patternEvaluator = patternEvaluator;
+		sums = new double[deepDepths.length][phases][SUMS];
+	}
+
+	/**
+	 * Calibrates ProbCut. Usage: \n
+	 * [calibration file] [games file] [positions] [max depth] [turns per phase] [weights file or -]
+	 * @param args	The arguments
+	 * @throws IOException	If a file can't be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 6){
+			System.out.println("Usage: [calibration file] [games file] [positions] [max depth] [turns per phase] [weights file or -]");
+			return;
+		}
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		long startTime = System.currentTimeMillis();
+		int maxDepth = Integer.parseInt(args[3]);
+		ArrayList<TrainingPosition> positions = readPositions(new File(args[1]), Integer.parseInt(args[2]), maxDepth);
+		System.out.println("Positions = " + positions.size());
+		int[][] checks = defaultChecks(maxDepth);
+		PatternEvaluator patternEvaluator = args[5].equals("-") ? null : new PatternEvaluator(new File(args[5]));
+		ProbCut probCut = calibrate(positions, checks[0], checks[1], WeightFitter.evenPhases(Integer.parseInt(args[4])), patternEvaluator, pool);
+		probCut.write(new File(args[0]));
+		for (int check = 0; check < probCut.deepDepths.length; check++){
+			StringBuilder line = new StringBuilder("Depth " + probCut.shallowDepths[check] + " -> " + probCut.deepDepths[check] + ":");
+			for (int phase = 0; phase < probCut.firstTurns.length; phase++)
+				line.append(String.format(" %.2f/%.0f/%.0f", probCut.slopes[check][phase], probCut.intercepts[check][phase], probCut.deviations[check][phase]));
+			System.out.println(line);
+		}
+		System.out.println("Time = " + (System.currentTimeMillis() - startTime) / 1000.0 + " seconds");
+		pool.shutdown();
+	}
+
+	/**
+	 * Chooses the checks of each deep depth from 3 to maxDepth: 1 at about a third of the depth, and 1 two levels shallower
+	 * @param maxDepth	The deepest depth to predict
+	 * @return			The shallow depths, then the deep depths, of the checks
+	 */
+	public static int[][] defaultChecks(int maxDepth){
+		ArrayList<Integer> shallowDepths = new ArrayList<>();
+		ArrayList<Integer> deepDepths = new ArrayList<>();
+		for (int deep = 3; deep <= maxDepth; deep++){
+			int shallow = Math.max(1, deep / 3);
+			shallowDepths.add(shallow);
+			deepDepths.add(deep);
+			if (deep - 2 > shallow){
+				shallowDepths.add(deep - 2);
+				deepDepths.add(deep);
+			}
+		}
+		int[][] checks = new int[2][shallowDepths.size()];
+		for (int check = 0; check < shallowDepths.size(); check++){
+			checks[0][check] = shallowDepths.get(check);
+			checks[1][check] = deepDepths.get(check);
+		}
+		return checks;
+	}
+
+	/**
+	 * Reads every SPACING-th position of a games file
+	 * @param file			The games file, 1 game record on each line
+	 * @param count			The most positions to read
+	 * @param maxDepth		Positions with this many empty squares or fewer are skipped, since their searches reach the end of the game
+	 * @return				The positions, in the order of the games. Lines that are not legal games are skipped.
+	 * @throws IOException	If the file can't be read
+	 */
+	public static ArrayList<TrainingPosition> readPositions(File file, int count, int maxDepth) throws IOException {
+		ArrayList<TrainingPosition> positions = new ArrayList<>();
+		long seen = 0;
+		try (BufferedReader in = new BufferedReader(new FileReader(file))){
+			for (String line; positions.size() < count && (line = in.readLine()) != null; ){
+				ArrayList<Integer> moves = BookBuilder.parseGame(line);
+				if (moves == null)
+					continue;
+				Board board = new Board(BitBoard.SIZE, BitBoard.SIZE);
+				for (int move : moves){
+					if (positions.size() == count || Long.bitCount(board.emptySquares()) <= maxDepth)
+						break;
+					if (++seen % SPACING == 0)
+						positions.add(new TrainingPosition(board, 0));
+					new Command(board, board.playerTurn, BitBoard.point(move)).execute();
+				}
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Searches positions on every thread of a pool, and fits each check in each phase
+	 * @param positions			The positions
+	 * @param shallowDepths		For each check: the depth of the shallow search
+	 * @param deepDepths		For each check: the depth it predicts
+	 * @param firstTurns		The first turn of each phase
+	 * @param patternEvaluator	Evaluation used by the search. null to use Utility.finalValue.
+	 * @param pool				The threads to search on
+	 * @return					The calibration
+	 */
+	public static ProbCut calibrate(ArrayList<TrainingPosition> positions, int[] shallowDepths, int[] deepDepths, int[] firstTurns,
+			PatternEvaluator patternEvaluator, ForkJoinPool pool){
+		int[] turnPhase = new int[PatternEvaluator.TURNS];
+		for (int turn = 0, phase = 0; turn < turnPhase.length; turn++){
+			while (phase + 1 < firstTurns.length && firstTurns[phase + 1] <= turn)
+				phase++;
+			turnPhase[turn] = phase;
+		}
+		TrainingPosition[] array = positions.toArray(new TrainingPosition[0]);
+		int threads = pool.getParallelism();
+		ArrayList<ProbCutCalibrator> tasks = new ArrayList<>();
+		for (int i = 0; i < threads; i++){
+			ProbCutCalibrator task = new ProbCutCalibrator(array, array.length * i / threads, array.length * (i + 1) / threads,
+					shallowDepths, deepDepths, turnPhase, firstTurns.length, patternEvaluator);
+			pool.execute(task);
+			tasks.add(task);
+		}
+		double[][][] sums = new double[deepDepths.length][firstTurns.length][SUMS];
+		for (ProbCutCalibrator task : tasks){
+			task.join();
+			for (int check = 0; check < deepDepths.length; check++){
+				for (int phase = 0; phase < firstTurns.length; phase++){
+					for (int sum = 0; sum < SUMS; sum++)
+						sums[check][phase][sum] += task.sums[check][phase][sum];
+				}
+			}
+		}
+		return fit(sums, shallowDepths, deepDepths, firstTurns);
+	}
+
+	/**
+	 * Fits deep = slope * shallow + intercept by least squares, for each check and phase
+	 * @param sums				For each check and phase: the SUMS of all positions
+	 * @param shallowDepths		For each check: the depth of the shallow search
+	 * @param deepDepths		For each check: the depth it predicts
+	 * @param firstTurns		The first turn of each phase
+	 * @return					The calibration. Checks of phases with fewer than MIN_SAMPLES positions get an infinite deviation.
+	 */
+	public static ProbCut fit(double[][][] sums, int[] shallowDepths, int[] deepDepths, int[] firstTurns){
+		int phases = firstTurns.length;
+		float[][] slopes = new float[deepDepths.length][phases];
+		float[][] intercepts = new float[deepDepths.length][phases];
+		float[][] deviations = new float[deepDepths.length][phases];
+		for (int check = 0; check < deepDepths.length; check++){
+			for (int phase = 0; phase < phases; phase++){
+				double[] sum = sums[check][phase];
+				double n = sum[0];
+				double shallowVariance = sum[3] - sum[1] * sum[1] / n;
+				double covariance = sum[4] - sum[1] * sum[2] / n;
+				double deepVariance = sum[5] - sum[2] * sum[2] / n;
+				if (n < MIN_SAMPLES || !(shallowVariance > 0)){
+					slopes[check][phase] = 1;
+					deviations[check][phase] = Float.POSITIVE_INFINITY;
+					continue;
+				}
+				double slope = covariance / shallowVariance;
+				slopes[check][phase] = (float) slope;
+				intercepts[check][phase] = (float) ((sum[2] - slope * sum[1]) / n);
+				deviations[check][phase] = (float) Math.sqrt(Math.max(0, deepVariance - slope * covariance) / (n - 2));
+			}
+		}
+		return new ProbCut(firstTurns, shallowDepths, deepDepths, slopes, intercepts, deviations);
+	}
+
+	/**
+	 * Searches the positions of the slice to every depth of the checks, and adds up the values of each check
+	 */
+	@Override
+	protected void compute(){
+		int maxDepth = 0;
+		for (int deep : deepDepths)
+			maxDepth = Math.max(maxDepth, deep);
+		int[] values = new int[maxDepth + 1];
+		for (int i = from; i < to; i++){
+			Board board = positions[i].toBoard();
+			if (board.gameEnded)
+				continue;
+			AlphaBetaStrategy strategy = new AlphaBetaStrategy(null, new TranspositionTable(TABLE_MB));
+			strategy.patternEvaluator = patternEvaluator;
+			int sign = (board.playerTurn == Color.BLACK) ? 1 : -1;
+			for (int depth = 1; depth <= maxDepth; depth++)
+				values[depth] = sign * strategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			nodes += strategy.nodesExpanded;
+
+			/* Searches that found the end of the game are not predictions, so they are left out */
+			int phase = turnPhase[Math.min(board.turn, turnPhase.length - 1)];
+			for (int check = 0; check < deepDepths.length; check++){
+				double shallow = values[shallowDepths[check]];
+				double deep = values[deepDepths[check]];
+				if (Math.abs(shallow) > PatternEvaluator.MAX_VALUE || Math.abs(deep) > PatternEvaluator.MAX_VALUE)
+					continue;
+				double[] sum = sums[check][phase];
+				sum[0]++;
+				sum[1] += shallow;
+				sum[2] += deep;
+				sum[3] += shallow * shallow;
+				sum[4] += shallow * deep;
+				sum[5] += deep * deep;
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package tuning;
+
+import java.awt.Point;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.RecursiveAction;
+
+import main_components.Board;
+import main_components.Command;
+import strategies.AlphaBetaStrategy;
+import strategies.PatternEvaluator;
+import strategies.TranspositionTable;
+
+/**
+ * \brief
+ * Plays games of AlphaBetaStrategy against itself on 1 thread, and writes every position of each game to a shared file,
+ * or the moves of each game to a shared game records file. \n
+ * Each game starts with a random number of random moves, so games are different. The random moves of a game only depend on
+ * the base seed and the game's number, and each game starts with an empty TranspositionTable, so the same seed gives the same games
+ * however they are split between tasks. The score of each position is the final Disk difference of its game, which PositionLabeler may replace later.
+ * @author Rodney Shaghoulian
+ */
+public class SelfPlay extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private static final int TABLE_MB = 4;		///< Size of the TranspositionTable of each task
+
+	public int firstGame;						///< Number of the first game of this task, counting the games of all tasks
+	public int games;							///< Number of games to play
+	public int depth;							///< Depth of the search for each move
+	public int randomMoves;						///< Each game starts with 0 to randomMoves random moves
+	public long seed;							///< Base seed of the random moves of every game
+	public PatternEvaluator patternEvaluator;	///< Evaluation used by the search. null to use Utility.finalValue.
+	public DataOutputStream out;				///< The file shared by all tasks. Each game is written in 1 block. null to not write positions.
+	public Writer gameRecords;					///< Each game's moves are written on 1 line, as read by BookBuilder.parseGame(). null to not write them.
+	public int positions;						///< Number of positions written by this task
+
+	/**
+	 * Constructor
+	 * @param firstGame			Number of the first game of this task, counting the games of all tasks
+	 * @param games				Number of games to play
+	 * @param depth				Depth of the search for each move
+	 * @param randomMoves		Each game starts with 0 to randomMoves random moves
+	 * @param seed				Base seed of the random moves of every game
+	 * @param patternEvaluator	Evaluation used by the search. null to use Utility.finalValue.
+	 * @param out				The file shared by all tasks
+	 */
+	public SelfPlay(int firstGame, int games, int depth, int randomMoves, long seed, PatternEvaluator patternEvaluator, DataOutputStream out){
+		this.firstGame = firstGame;
+		this.games = games;
+		this.depth = depth;
+		this.randomMoves = randomMoves;
+		this.seed = seed;
+		this.patternEvaluator = patternEvaluator;
+		this.out = out;
+	}
+
+	/**
+	 * Plays the games
+	 */
+	@Override
+	protected void compute(){
+		TranspositionTable transpositionTable = new TranspositionTable(TABLE_MB);
+		ArrayList<TrainingPosition> game = new ArrayList<>();
+		StringBuilder record = new StringBuilder();
+		for (int i = 0; i < games; i++){
+			Random random = new Random(gameSeed(seed, firstGame + i));
+			transpositionTable.clear();
+			AlphaBetaStrategy strategy = new AlphaBetaStrategy(null, transpositionTable);
+			strategy.patternEvaluator = patternEvaluator;
+			game.clear();
+			record.setLength(0);
+			Board board = new Board(8, 8);
+			int openingMoves = random.nextInt(randomMoves + 1);
+			while (!board.gameEnded){
+				game.add(new TrainingPosition(board, 0));
+				Point move;
+				if (board.turn <= openingMoves){
+					ArrayList<Point> moves = board.getCurrentPlayer().validMoves;
+					move = moves.get(random.nextInt(moves.size()));
+				}
+				else {
+					strategy.bestMove = null;
+					strategy.alphaBeta(board, 0, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+					move = strategy.bestMove;
+				}
+				record.append(BookBuilder.moveName(move.y * board.columns + move.x));
+				new Command(board, board.playerTurn, move).execute();
+			}
+
+			/* Every position of the game is scored with its result */
+			int score = (board.blackPlayer.score - board.whitePlayer.score) * PatternEvaluator.UNITS_PER_DISC;
+			try {
+				if (out != null){
+					synchronized (out){
+						for (TrainingPosition position : game){
+							position.score = score;
+							position.write(out);
+						}
+					}
+				}
+				if (gameRecords != null){
+					synchronized (gameRecords){
+						gameRecords.write(record.append('\n').toString());
+					}
+				}
+			}
+			catch (IOException ioException) {
+				throw new UncheckedIOException(ioException);
+			}
+			positions += game.size();
+		}
+	}
+
+	/**
+	 * Gets the seed of 1 game
+	 * @param seed		The base seed
+	 * @param game		The number of the game
+	 * @return			A seed that is different for every game and base seed
+	 */
+	public static long gameSeed(long seed, int game){
+		return seed + (game + 1) * 0x9E3779B97F4A7C15L; // spread out, since Random gives similar first numbers for close seeds
+	}
+}
@@ -0,0 +1,96 @@
+/** \brief Tools that tune the evaluation weights, build the opening book and analyze games from self-play, without the View */
+package tuning;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import main_components.Board;
+import main_components.Color;
+
+/**
+ * \brief
+ * An 8x8 position used to tune evaluation weights, and the score it should be evaluated to. \n
+ * In a file, each position is RECORD_BYTES bytes: long BLACK Disks, long WHITE Disks, byte player to move (0 for BLACK, 1 for WHITE),
+ * byte turn, short score. Scores are from BLACK's point of view, in units of 1 / PatternEvaluator.UNITS_PER_DISC of a Disk.
+ * @author Rodney Shaghoulian
+ */
+public class TrainingPosition {
+	public static final int RECORD_BYTES = 20;	///< Size of 1 position in a file
+
+	public long blackDisks;		///< BLACK Disks, as a bitboard
+	public long whiteDisks;		///< WHITE Disks, as a bitboard
+	public Color playerTurn;	///< The Color whose turn it is
+	public int turn;			///< Board.turn of the position
+	public int score;			///< The score the position should be evaluated to, for BLACK
+
+	/**
+	 * Constructor
+	 * @param blackDisks	BLACK Disks, as a bitboard
+	 * @param whiteDisks	WHITE Disks, as a bitboard
+	 * @param playerTurn	The Color whose turn it is
+	 * @param turn			Board.turn of the position
+	 * @param score			The score the position should be evaluated to, for BLACK
+	 */
+	public TrainingPosition(long blackDisks, long whiteDisks, Color playerTurn, int turn, int score){
+		this.blackDisks = blackDisks;
+		this.whiteDisks = whiteDisks;
+		this.playerTurn = playerTurn;
+		this.turn = turn;
+		this.score = score;
+	}
+
+	/**
+	 * Constructor - Copies the position of an 8x8 Board
+	 * @param board		The Board
+	 * @param score		The score the position should be evaluated to, for BLACK
+	 */
+	public TrainingPosition(Board board, int score){
+		this(board.blackDisks, board.whiteDisks, board.playerTurn, board.turn, score);
+	}
+
+	/**
+	 * Creates a Board with this position
+	 * @return	A new 8x8 Board
+	 */
+	public Board toBoard(){
+		Board board = new Board(8, 8);
+		board.setDisks(blackDisks, whiteDisks, playerTurn);
+		return board;
+	}
+
+	/**
+	 * Writes the position to a file
+	 * @param out			The file
+	 * @throws IOException	If the file can't be written
+	 */
+	public void write(DataOutputStream out) throws IOException {
+		out.writeLong(blackDisks);
+		out.writeLong(whiteDisks);
+		out.writeByte(playerTurn == Color.BLACK ? 0 : 1);
+		out.writeByte(turn);
+		out.writeShort(score);
+	}
+
+	/**
+	 * Reads the next position of a file
+	 * @param in			The file
+	 * @return				The position, or null at the end of the file
+	 * @throws IOException	If the file can't be read
+	 */
+	public static TrainingPosition read(DataInputStream in) throws IOException {
+		long blackDisks;
+		try {
+			blackDisks = in.readLong();
+		}
+		catch (EOFException eofException) {
+			return null;
+		}
+		long whiteDisks = in.readLong();
+		Color playerTurn = (in.readByte() == 0) ? Color.BLACK : Color.WHITE;
+		int turn = in.readByte();
+		int score = in.readShort();
+		return new TrainingPosition(blackDisks, whiteDisks, playerTurn, turn, score);
+	}
+}
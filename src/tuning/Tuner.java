@@ -0,0 +1,163 @@
+package tuning;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import strategies.PatternEvaluator;
+
+/**
+ * \brief
+ * Tunes the PatternEvaluator weights in 3 stages, each reading and writing files, so each can be run (and re-run) on its own: \n
+ * generate: SelfPlay games on every core, scored with their results. \n
+ * label: PositionLabeler scores on every core (exact solves near the end, shallow searches before). \n
+ * fit: WeightFitter epochs, streaming the positions from disk, writing a weights file. \n
+ * Labeling with the weights of an earlier fit, then fitting again, improves the weights a little each round.
+ * @author Rodney Shaghoulian
+ */
+public class Tuner {
+	public static final int CHUNK = 1 << 14;	///< Number of positions labeled between writes
+
+	/**
+	 * Runs 1 stage. Usage: \n
+	 * generate [positions file] [games] [depth] [weights file or -] [seed] \n
+	 * label [positions file] [labeled file] [depth] [solve empties] [weights file or -] \n
+	 * fit [labeled file] [weights file] [epochs] [turns per phase]
+	 * @param args	The stage and its arguments
+	 * @throws IOException	If a file can't be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		long startTime = System.currentTimeMillis();
+		if (args.length == 6 && args[0].equals("generate")){
+			int positions = generate(new File(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), 10, Long.parseLong(args[5]), evaluator(args[4]), pool);
+			System.out.println("Positions generated = " + positions);
+		}
+		else if (args.length == 6 && args[0].equals("label")){
+			long nodes = label(new File(args[1]), new File(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]), evaluator(args[5]), pool);
+			System.out.println("Game Boards expanded = " + nodes);
+		}
+		else if (args.length == 5 && args[0].equals("fit")){
+			WeightFitter weightFitter = new WeightFitter(WeightFitter.evenPhases(Integer.parseInt(args[4])));
+			fit(weightFitter, new File(args[1]), new File(args[2]), Integer.parseInt(args[3]));
+		}
+		else {
+			System.out.println("Usage: generate [positions file] [games] [depth] [weights file or -] [seed]");
+			System.out.println("       label [positions file] [labeled file] [depth] [solve empties] [weights file or -]");
+			System.out.println("       fit [labeled file] [weights file] [epochs] [turns per phase]");
+			return;
+		}
+		System.out.println("Time = " + (System.currentTimeMillis() - startTime) / 1000.0 + " seconds");
+		pool.shutdown();
+	}
+
+	/**
+	 * Loads a weights file named on the command line
+	 * @param name			The file name, or "-" for none
+	 * @return				The PatternEvaluator, or null for none
+	 * @throws IOException	If the file can't be used
+	 */
+	private static PatternEvaluator evaluator(String name) throws IOException {
+		return name.equals("-") ? null : new PatternEvaluator(new File(name));
+	}
+
+	/**
+	 * Plays self-play games on every thread of a pool
+	 * @param file				The positions file to write
+	 * @param games				Number of games to play
+	 * @param depth				Depth of the search for each move
+	 * @param randomMoves		Each game starts with 0 to randomMoves random moves
+	 * @param seed				Base seed of the random moves. The same seed gives the same games on any number of threads.
+	 * @param patternEvaluator	Evaluation used by the search. null to use Utility.finalValue.
+	 * @param pool				The threads to play on
+	 * @return					Number of positions written
+	 * @throws IOException		If the file can't be written
+	 */
+	public static int generate(File file, int games, int depth, int randomMoves, long seed, PatternEvaluator patternEvaluator, ForkJoinPool pool) throws IOException {
+		int threads = pool.getParallelism();
+		int positions = 0;
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))){
+			ArrayList<SelfPlay> tasks = new ArrayList<>();
+			for (int i = 0; i < threads; i++){
+				SelfPlay task = new SelfPlay(games * i / threads, games * (i + 1) / threads - games * i / threads, depth, randomMoves, seed, patternEvaluator, out);
+				pool.execute(task);
+				tasks.add(task);
+			}
+			for (SelfPlay task : tasks){
+				task.join();
+				positions += task.positions;
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Scores every position of a file on every thread of a pool, CHUNK positions at a time
+	 * @param in				The positions file to read
+	 * @param out				The labeled file to write. Positions keep their order. Positions whose search found a won or lost game are dropped.
+	 * @param depth				Depth of the search of positions that are not solved
+	 * @param solveEmpties		Positions with this many empty squares or fewer are solved exactly
+	 * @param patternEvaluator	Evaluation used by the search. null to keep the game results.
+	 * @param pool				The threads to label on
+	 * @return					Number of nodes searched and solved
+	 * @throws IOException		If a file can't be read or written
+	 */
+	public static long label(File in, File out, int depth, int solveEmpties, PatternEvaluator patternEvaluator, ForkJoinPool pool) throws IOException {
+		int threads = pool.getParallelism();
+		TrainingPosition[] positions = new TrainingPosition[CHUNK];
+		long nodes = 0;
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(in), 1 << 16));
+			 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out), 1 << 16))){
+			while (true){
+				int count = 0;
+				for (TrainingPosition position; count < CHUNK && (position = TrainingPosition.read(input)) != null; count++)
+					positions[count] = position;
+				if (count == 0)
+					break;
+
+				/* Each game's positions are together in the file, so every slice gets some of the slow positions near the end of games */
+				ArrayList<PositionLabeler> tasks = new ArrayList<>();
+				for (int i = 0; i < threads; i++){
+					PositionLabeler task = new PositionLabeler(positions, count * i / threads, count * (i + 1) / threads, depth, solveEmpties, patternEvaluator);
+					pool.execute(task);
+					tasks.add(task);
+				}
+				for (PositionLabeler task : tasks){
+					task.join();
+					nodes += task.nodes;
+				}
+				for (int i = 0; i < count; i++){
+					if (positions[i] != null)
+						positions[i].write(output);
+				}
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Fits weights to a labeled file and writes them
+	 * @param weightFitter	The WeightFitter, with its phases and regularization set
+	 * @param in			The labeled file
+	 * @param out			The weights file to write
+	 * @param epochs		Number of times to read the labeled file
+	 * @return				The mean squared error of the last epoch
+	 * @throws IOException	If a file can't be read or written
+	 */
+	public static double fit(WeightFitter weightFitter, File in, File out, int epochs) throws IOException {
+		double error = 0;
+		for (int epoch = 1; epoch <= epochs; epoch++){
+			error = weightFitter.epoch(in);
+			System.out.println("Epoch " + epoch + ": positions = " + weightFitter.positions + ", mean squared error = " + error);
+		}
+		weightFitter.write(out);
+		return error;
+	}
+}
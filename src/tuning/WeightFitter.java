@@ -0,0 +1,262 @@
+package tuning;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import main_components.Patterns;
+import strategies.PatternEvaluator;
+
+/**
+ * \brief
+ * Fits the weights of PatternEvaluator to scored positions by regularized least squares: it minimizes the sum of
+ * (score - evaluation)^2 over the positions, plus regularization * weight^2 for every weight. \n
+ * The minimum is found by the conjugate gradient method, preconditioned by how many positions use each weight, since
+ * some weights are used by nearly every position and others by very few. Each epoch reads the positions file once,
+ * so the positions never have to fit in memory. Weights that no position uses stay 0. \n
+ * Indexes that read the same Disks in a mirrored order (Patterns.SYMMETRIC_INDEXES) share 1 weight, so symmetric Boards
+ * evaluate the same, and can share TranspositionTable entries. \n
+ * Each phase also fits the weight of the stability feature (PatternEvaluator.stability()), kept after the pattern types
+ * as 1 more "type" with a single weight. Unlike a pattern weight, it is multiplied by the feature's value.
+ * @author Rodney Shaghoulian
+ */
+public class WeightFitter {
+	public final int[] firstTurns;		///< The first turn of each phase
+	public double regularization = 4;	///< Pulls weights seen in few positions towards 0
+	public long positions;				///< Number of positions read by the last epoch
+
+	private static final int STABILITY = Patterns.TYPES;	///< The "type" of the stability weight in the arrays below
+
+	private final double[][][] weights;		///< The weights being fitted, for each phase, pattern type and index, then the stability weight
+	private final double[][][] residual;	///< The negative gradient of the error at the current weights
+	private final double[][][] direction;	///< The direction the next epoch moves the weights in
+	private final double[][][] product;		///< How the gradient changes along direction. Filled by each epoch.
+	private final double[][][] uses;		///< Number of uses of each weight by the positions, plus regularization
+	private final int[] turnPhase;			///< The phase of each turn
+	private boolean started = false;		///< false until the first epoch has found the first direction
+
+	/**
+	 * Constructor - Starts with every weight 0
+	 * @param firstTurns	The first turn of each phase. Starts with 0 and increases.
+	 */
+	public WeightFitter(int[] firstTurns){
+		this.firstTurns = firstTurns;
+		weights = create(firstTurns.length);
+		residual = create(firstTurns.length);
+		direction = create(firstTurns.length);
+		product = create(firstTurns.length);
+		uses = create(firstTurns.length);
+		turnPhase = new int[PatternEvaluator.TURNS];
+		int phase = 0;
+		for (int turn = 0; turn < turnPhase.length; turn++){
+			while (phase + 1 < firstTurns.length && firstTurns[phase + 1] <= turn)
+				phase++;
+			turnPhase[turn] = phase;
+		}
+	}
+
+	/**
+	 * Creates a value for every weight
+	 * @param phases	Number of phases
+	 * @return			An array of 0s for each phase and pattern type, and 1 for the stability weight of each phase
+	 */
+	private static double[][][] create(int phases){
+		double[][][] values = new double[phases][Patterns.TYPES + 1][];
+		for (int phase = 0; phase < phases; phase++){
+			for (int type = 0; type < Patterns.TYPES; type++)
+				values[phase][type] = new double[Patterns.SIZES[type]];
+			values[phase][STABILITY] = new double[1];
+		}
+		return values;
+	}
+
+	/**
+	 * Creates phases of the same number of turns
+	 * @param turnsPerPhase		Number of turns in each phase
+	 * @return					The first turn of each phase, up to the last turn of an 8x8 game
+	 */
+	public static int[] evenPhases(int turnsPerPhase){
+		int phases = (PatternEvaluator.TURNS - 1) / turnsPerPhase + 1;
+		int[] firstTurns = new int[phases];
+		for (int phase = 0; phase < phases; phase++)
+			firstTurns[phase] = phase * turnsPerPhase;
+		return firstTurns;
+	}
+
+	/**
+	 * Gets the phase of a position
+	 * @param position	The position
+	 * @return			The phase of its turn
+	 */
+	private int phase(TrainingPosition position){
+		return turnPhase[Math.min(position.turn, turnPhase.length - 1)];
+	}
+
+	/**
+	 * Adds up some values for the features of a position
+	 * @param values	A value for every weight
+	 * @param phase		The phase of the position
+	 * @param indexes	The index of each Patterns feature of the position
+	 * @param stability	The stability feature of the position
+	 * @return			The sum of the values of the features, the stability value multiplied by the feature
+	 */
+	private static double sum(double[][][] values, int phase, int[] indexes, int stability){
+		double sum = values[phase][STABILITY][0] * stability;
+		for (int feature = 0; feature < Patterns.FEATURES; feature++)
+			sum += values[phase][Patterns.FEATURE_TYPE[feature]][indexes[feature]];
+		return sum;
+	}
+
+	/**
+	 * Adds an amount to the values of the features of a position
+	 * @param values	A value for every weight
+	 * @param phase		The phase of the position
+	 * @param indexes			The index of each Patterns feature of the position
+	 * @param amount			The amount to add to each pattern value
+	 * @param stabilityAmount	The amount to add to the stability value
+	 */
+	private static void add(double[][][] values, int phase, int[] indexes, double amount, double stabilityAmount){
+		for (int feature = 0; feature < Patterns.FEATURES; feature++)
+			values[phase][Patterns.FEATURE_TYPE[feature]][indexes[feature]] += amount;
+		values[phase][STABILITY][0] += stabilityAmount;
+	}
+
+	/**
+	 * Finds the index of each feature of a position, tying mirrored indexes to the same weight
+	 * @param position	The position
+	 * @param indexes	Filled with the Patterns.SYMMETRIC_INDEXES of each feature
+	 */
+	private static void symmetricIndexes(TrainingPosition position, int[] indexes){
+		for (int feature = 0; feature < Patterns.FEATURES; feature++){
+			int type = Patterns.FEATURE_TYPE[feature];
+			indexes[feature] = Patterns.SYMMETRIC_INDEXES[type][Patterns.index(position.blackDisks, position.whiteDisks, feature)];
+		}
+	}
+
+	/**
+	 * Evaluates a position with the current weights
+	 * @param position	The position
+	 * @return			The evaluation, for BLACK
+	 */
+	public double predict(TrainingPosition position){
+		int[] indexes = new int[Patterns.FEATURES];
+		symmetricIndexes(position, indexes);
+		return sum(weights, phase(position), indexes, PatternEvaluator.stability(position.blackDisks, position.whiteDisks));
+	}
+
+	/**
+	 * Reads every position of a file once. The first epoch finds the gradient of the error, and each later epoch moves
+	 * the weights to the minimum along the current direction, then picks the next direction.
+	 * @param file			The scored positions. Must be the same file for every epoch.
+	 * @return				The mean squared error of the positions before the weights were moved
+	 * @throws IOException	If the file can't be read
+	 */
+	public double epoch(File file) throws IOException {
+		int[] indexes = new int[Patterns.FEATURES];
+		double squaredError = 0;
+		positions = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))){
+			for (TrainingPosition position = TrainingPosition.read(in); position != null; position = TrainingPosition.read(in)){
+				symmetricIndexes(position, indexes);
+				int stability = PatternEvaluator.stability(position.blackDisks, position.whiteDisks);
+				int phase = phase(position);
+				double error = position.score - sum(weights, phase, indexes, stability);
+				squaredError += error * error;
+				positions++;
+				if (started){
+					double change = sum(direction, phase, indexes, stability);
+					add(product, phase, indexes, change, change * stability);
+				}
+				else {
+					add(residual, phase, indexes, error, error * stability);
+					add(uses, phase, indexes, 1, stability * stability);
+				}
+			}
+		}
+		if (started)
+			step();
+		else {
+			/* The first direction is the negative gradient, divided by the uses of each weight */
+			for (int phase = 0; phase < weights.length; phase++){
+				for (int type = 0; type < weights[phase].length; type++){
+					for (int index = 0; index < weights[phase][type].length; index++){
+						uses[phase][type][index] += regularization;
+						residual[phase][type][index] -= regularization * weights[phase][type][index];
+						direction[phase][type][index] = residual[phase][type][index] / uses[phase][type][index];
+					}
+				}
+			}
+			started = true;
+		}
+		return (positions == 0) ? 0 : squaredError / positions;
+	}
+
+	/**
+	 * Moves the weights along the direction, once product holds how the gradient changes along it. Picks the next direction.
+	 */
+	private void step(){
+		double residualProduct = 0;
+		double curvature = 0;
+		for (int phase = 0; phase < weights.length; phase++){
+			for (int type = 0; type < weights[phase].length; type++){
+				for (int index = 0; index < weights[phase][type].length; index++){
+					product[phase][type][index] += regularization * direction[phase][type][index];
+					residualProduct += residual[phase][type][index] * residual[phase][type][index] / uses[phase][type][index];
+					curvature += direction[phase][type][index] * product[phase][type][index];
+				}
+			}
+		}
+		if (curvature <= 0)
+			return; // already at the minimum
+		double distance = residualProduct / curvature;
+		double nextResidualProduct = 0;
+		for (int phase = 0; phase < weights.length; phase++){
+			for (int type = 0; type < weights[phase].length; type++){
+				for (int index = 0; index < weights[phase][type].length; index++){
+					weights[phase][type][index] += distance * direction[phase][type][index];
+					residual[phase][type][index] -= distance * product[phase][type][index];
+					nextResidualProduct += residual[phase][type][index] * residual[phase][type][index] / uses[phase][type][index];
+				}
+			}
+		}
+		double beta = nextResidualProduct / residualProduct;
+		for (int phase = 0; phase < weights.length; phase++){
+			for (int type = 0; type < weights[phase].length; type++){
+				for (int index = 0; index < weights[phase][type].length; index++){
+					direction[phase][type][index] = residual[phase][type][index] / uses[phase][type][index] + beta * direction[phase][type][index];
+					product[phase][type][index] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the weights in the file format of PatternEvaluator
+	 * @param file			The weights file
+	 * @throws IOException	If the file can't be written
+	 */
+	public void write(File file) throws IOException {
+		short[][][] phaseWeights = new short[weights.length][Patterns.TYPES][];
+		short[] stabilityWeights = new short[weights.length];
+		for (int phase = 0; phase < weights.length; phase++){
+			for (int type = 0; type < Patterns.TYPES; type++){
+				phaseWeights[phase][type] = new short[Patterns.SIZES[type]];
+				for (int index = 0; index < Patterns.SIZES[type]; index++)
+					phaseWeights[phase][type][index] = toShort(weights[phase][type][Patterns.SYMMETRIC_INDEXES[type][index]]);
+			}
+			stabilityWeights[phase] = toShort(weights[phase][STABILITY][0]);
+		}
+		PatternEvaluator.write(file, firstTurns, phaseWeights, stabilityWeights);
+	}
+
+	/**
+	 * Rounds a weight to the nearest short
+	 * @param weight	The weight
+	 * @return			The rounded weight, clamped to the range of a short
+	 */
+	private static short toShort(double weight){
+		return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(weight)));
+	}
+}